@@ -1,15 +1,21 @@
 package de.philliphow.covidimpfde.api;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
 
 import org.pmw.tinylog.Logger;
 
 import de.philliphow.covidimpfde.api.models.AbstractTsvRow;
 import de.philliphow.covidimpfde.services.UrlStringRessourceResolver;
+import de.philliphow.covidimpfde.services.UrlStringRessourceResolver.RangeResponse;
 
 /***
  * Abstracts a tsv (tab separated values) file provided by a web API. Gets tsv
@@ -17,72 +23,407 @@ import de.philliphow.covidimpfde.services.UrlStringRessourceResolver;
  * them. Tsv files to be used by this class must provide a tab separated list of
  * column names in their first line, and an arbitrary number of additional lines
  * with data values separated by tabs. The number of data fields in each line
- * must be equal to the number of header fields.
+ * must be equal to the number of header fields. The header line is resolved
+ * to a {@link TsvSchema} once per file, which is shared by all rows.
+ * 
+ * The data source is queried conditionally, so polling an unchanged web
+ * resource neither downloads nor parses it again. Data sources that only grow
+ * by appended lines can be queried in append-only mode, which downloads and
+ * parses only the new lines. Files are parsed line by line while they are
+ * downloaded, so they are never held in memory as a whole. When a whole file
+ * has to be downloaded again, lines that are unchanged since the last query
+ * (verified by a checksum per line) keep their already parsed element, so only
+ * new and revised lines are parsed.
+ * 
+ * The cache is published as immutable {@link DatasetSnapshot}s. Each refresh
+ * that changes the cache atomically replaces the current snapshot by a new one
+ * with a higher version, so readers never copy or lock the cached data.
  * 
  * @author PhillipHow
  * @param <T> the type of elements extracted from the given data source
  */
 public abstract class AbstractTsvApiWithCache<T extends AbstractTsvRow> {
 
-	private List<T> cache = new ArrayList<>();
+	/**
+	 * Number of already known bytes that are downloaded again on each append-only
+	 * query, to verify that the data source has not been changed before its end
+	 */
+	private static final int APPEND_FETCH_OVERLAP_BYTES = 128;
+
+	/**
+	 * The current state of the cache. Only replaced by refreshes, which are
+	 * serialized.
+	 */
+	private final AtomicReference<DatasetSnapshot<T>> snapshot = new AtomicReference<>(
+			new DatasetSnapshot<>(0, new ArrayList<>()));
+	/**
+	 * Checksum of the tsv line of each cached element, see {@code lineChecksum}
+	 */
+	private long[] cachedLineChecksums = new long[0];
 	private final URL dataSourceUrl;
+	/**
+	 * Resolver for the data source. Kept for the lifetime of this object, as it
+	 * remembers the validators for conditional requests.
+	 */
+	private final UrlStringRessourceResolver ressourceResolver;
+	/**
+	 * If true, the data source is expected to only grow at its end, and only the
+	 * appended bytes are downloaded on each query
+	 */
+	private final boolean appendOnly;
+
+	/**
+	 * The schema of the last successfully parsed file
+	 */
+	private TsvSchema schema = null;
+	/**
+	 * The header line of the last successfully parsed file
+	 */
+	private String headerLine = null;
+	/**
+	 * Byte length of the last successfully parsed file
+	 */
+	private long lastBodyLength = 0;
+	/**
+	 * The last bytes of the last successfully parsed file, null if unknown
+	 */
+	private byte[] lastBodyTail = null;
 
 	public AbstractTsvApiWithCache(URL dataSourceUrl) {
+		this(dataSourceUrl, false);
+	}
+
+	/**
+	 * @param dataSourceUrl the tsv file to query
+	 * @param appendOnly    true if the tsv file only grows by appending lines. New
+	 *                      lines are then downloaded and parsed without the rest of
+	 *                      the file.
+	 */
+	public AbstractTsvApiWithCache(URL dataSourceUrl, boolean appendOnly) {
 		this.dataSourceUrl = dataSourceUrl;
+		this.ressourceResolver = new UrlStringRessourceResolver(dataSourceUrl, true);
+		this.appendOnly = appendOnly;
 	}
 
 	/**
-	 * Builds an element of T from a plain string tsv row.
+	 * Builds an element of T from a split tsv row.
 	 * 
-	 * @param currentTsvRow the row to be converted
-	 * @param headerTsvRow  the first row of the file
+	 * @param currentTsvRow the fields of the row to be converted. Only valid
+	 *                      during this call.
+	 * @param schema        the schema of the file, resolved from its first row
 	 * @return the element of T
 	 */
-	protected abstract T buildOneRowFrom(String currentTsvRow, String headerTsvRow);
+	protected abstract T buildOneRowFrom(TsvTokenizer currentTsvRow, TsvSchema schema);
 
 	/***
-	 * Queries the dataSourceUrl for data and refreshes the cache.
+	 * Queries the dataSourceUrl for data and refreshes the cache. Concurrent
+	 * calls are serialized.
 	 * 
 	 * @return true if new lines have been downloaded, false if no new data has been
 	 *         found
 	 * @throws IOException if the data source could not be read
 	 */
-	public boolean getNewDataIfNecessary() throws IOException {
+	public synchronized boolean getNewDataIfNecessary() throws IOException {
 
 		Logger.debug("Querying {} for new elements", dataSourceUrl);
-		List<T> newData = getFreshData();
 
-		if (newData.size() > cache.size()) {
-			Logger.debug("Data list length has changed: old {} lines, new {} lines", cache.size(), newData.size());
-			cache = newData;
-			return true;
-		} else {
-			Logger.debug("Data list length has not changed - no new elements");
+		boolean hasNewData;
+		if (appendOnly && lastBodyTail != null && lastBodyTail.length > 0)
+			hasNewData = getAppendedDataIfNecessary();
+		else
+			hasNewData = getAllDataIfNecessary(true);
+
+		Logger.debug("{} full responses, {} partial responses, {} not modified responses so far",
+				ressourceResolver.getFullResponseCount(), ressourceResolver.getPartialResponseCount(),
+				ressourceResolver.getNotModifiedResponseCount());
+
+		return hasNewData;
+	}
+
+	/***
+	 * Downloads only the bytes appended to the data source since the last query,
+	 * plus a small overlap to verify that the known part has not changed. Falls
+	 * back to a full download if it has, or if the data source can not serve the
+	 * requested range.
+	 * 
+	 * @return true if new lines have been appended to the cache
+	 * @throws IOException if the data source could not be read
+	 */
+	private boolean getAppendedDataIfNecessary() throws IOException {
+
+		RangeResponse response;
+		try {
+			response = ressourceResolver.getAsBytesSyncFrom(lastBodyLength - lastBodyTail.length);
+		} catch (IOException exception) {
+			Logger.debug("Range request failed, falling back to full download");
+			return getAllDataIfNecessary(false);
+		}
+
+		if (response.isNotModified()) {
+			Logger.debug("Data source has not been modified - no new elements");
+			return false;
+		}
+
+		if (response.isFullContent()) {
+			Logger.info("{} does not serve ranges, reading the full response", dataSourceUrl);
+			return refreshFrom(parseTsvFileOrForgetBody(new ByteArrayInputStream(response.getBytes())));
+		}
+
+		if (!response.isPartialContent() || !startsWithLastBodyTail(response.getBytes())) {
+			Logger.info("{} has not only been appended to, falling back to full download", dataSourceUrl);
+			return getAllDataIfNecessary(false);
+		}
+
+		byte[] overlapAndAppended = response.getBytes();
+		int appendedLength = overlapAndAppended.length - lastBodyTail.length;
+
+		if (lastBodyTail[lastBodyTail.length - 1] != '\n' && appendedLength > 0
+				&& overlapAndAppended[lastBodyTail.length] != '\n') {
+			Logger.info("Last line of {} has been extended, falling back to full download", dataSourceUrl);
+			return getAllDataIfNecessary(false);
+		}
+
+		ParsedRows<T> appendedRows = parseDataRowsOrForgetBody(
+				new ByteArrayInputStream(overlapAndAppended, lastBodyTail.length, appendedLength));
+		rememberBody(overlapAndAppended, lastBodyLength - lastBodyTail.length + overlapAndAppended.length);
+
+		if (appendedRows.rows.isEmpty()) {
+			Logger.debug("No lines have been appended - no new elements");
+			return false;
+		}
+
+		List<T> cache = snapshot.get().getRows();
+		Logger.debug("{} lines have been appended to {} cached lines", appendedRows.rows.size(), cache.size());
+		List<T> newData = new ArrayList<>(cache.size() + appendedRows.rows.size());
+		newData.addAll(cache);
+		newData.addAll(appendedRows.rows);
+		long[] newChecksums = Arrays.copyOf(cachedLineChecksums, newData.size());
+		System.arraycopy(appendedRows.lineChecksums, 0, newChecksums, cache.size(), appendedRows.rows.size());
+		publishSnapshot(newData, newChecksums);
+		return true;
+	}
+
+	/***
+	 * Downloads and parses the whole data source.
+	 * 
+	 * @param conditional true to skip the download if the data source has not been
+	 *                    modified since the last query
+	 * @return true if the cache has been refreshed with more lines
+	 * @throws IOException if the data source could not be read
+	 */
+	private boolean getAllDataIfNecessary(boolean conditional) throws IOException {
+
+		Optional<TsvFileContent<T>> tsvFile;
+		try {
+			tsvFile = conditional ? ressourceResolver.readSyncIfModified(this::parseTsvFile)
+					: Optional.of(ressourceResolver.readSync(this::parseTsvFile));
+		} catch (RuntimeException exception) {
+			forgetBody();
+			throw exception;
+		}
+
+		if (!tsvFile.isPresent()) {
+			Logger.debug("Data source has not been modified - no new elements");
 			return false;
 		}
+
+		return refreshFrom(tsvFile.get());
 	}
 
 	/***
-	 * Synchronously queries the data source and returns the data.
+	 * Refreshes the cache from a completely parsed tsv file.
 	 * 
-	 * @return the parsed data rows as list
-	 * @throws IOException if the data source could not be reached
+	 * @param tsvFile the parsed file
+	 * @return true if the cache has been refreshed with more lines
 	 */
-	private List<T> getFreshData() throws IOException {
-		String tsvFile = new UrlStringRessourceResolver(this.dataSourceUrl).getAsStringSync();
-		List<T> tsvDataRows = new ArrayList<>();
+	private boolean refreshFrom(TsvFileContent<T> tsvFile) {
 
-		Scanner dataRowScanner = new Scanner(tsvFile);
-		String headerLine = dataRowScanner.nextLine();
+		ParsedRows<T> newData = tsvFile.rows;
+		List<T> cache = snapshot.get().getRows();
+		if (newData.rows.size() < cache.size()) {
+			Logger.info("{} has shrunk from {} to {} lines, keeping the cached lines", dataSourceUrl, cache.size(),
+					newData.rows.size());
+			// the cache does not end like the file, so lines appended to it must not be appended to the cache
+			forgetBody();
+			return false;
+		}
 
-		while (dataRowScanner.hasNextLine()) {
-			tsvDataRows.add(this.buildOneRowFrom(dataRowScanner.nextLine(), headerLine));
+		if (!newData.revisedRows.isEmpty()) {
+			Logger.info("{} of {} cached lines of {} have been revised, at indices {}", newData.revisedRows.size(),
+					cache.size(), dataSourceUrl, newData.revisedRows);
+			for (int revisedRow : newData.revisedRows) {
+				Logger.debug("Line {} was {}, is now {}", revisedRow, cache.get(revisedRow),
+						newData.rows.get(revisedRow));
+			}
 		}
+		Logger.debug("{} of {} lines have been reused from the cache", newData.reusedRowCount, newData.rows.size());
 
-		Logger.debug("The following data fields are available: " + headerLine);
+		boolean hasNewData = newData.rows.size() > cache.size();
+		if (hasNewData) {
+			Logger.debug("Data list length has changed: old {} lines, new {} lines", cache.size(),
+					newData.rows.size());
+		} else {
+			Logger.debug("Data list length has not changed - no new elements");
+		}
 
-		dataRowScanner.close();
-		return tsvDataRows;
+		if (hasNewData || !newData.revisedRows.isEmpty())
+			publishSnapshot(newData.rows, newData.lineChecksums);
+
+		// only now the cache matches the file, appended lines may be parsed with its schema
+		this.schema = tsvFile.schema;
+		this.headerLine = tsvFile.headerLine;
+		Logger.debug("The following data fields are available: " + schema);
+		rememberBody(tsvFile.tail, tsvFile.length);
+		return hasNewData;
+	}
+
+	/**
+	 * Replaces the current snapshot by a new one with the next version.
+	 * 
+	 * @param newData          the new cache contents, not modified afterwards
+	 * @param newLineChecksums the checksums of the tsv lines of the new contents
+	 */
+	private void publishSnapshot(List<T> newData, long[] newLineChecksums) {
+		this.cachedLineChecksums = newLineChecksums;
+		DatasetSnapshot<T> newSnapshot = new DatasetSnapshot<>(snapshot.get().getVersion() + 1, newData);
+		snapshot.set(newSnapshot);
+		Logger.debug("Published {} of {}", newSnapshot, dataSourceUrl);
+	}
+
+	/**
+	 * Parses a complete tsv file while it is read from the data source.
+	 */
+	private TsvFileContent<T> parseTsvFile(InputStream tsvStream) throws IOException {
+		TsvStreamReader tsvReader = new TsvStreamReader(tsvStream, APPEND_FETCH_OVERLAP_BYTES);
+
+		String fileHeaderLine = tsvReader.readNonEmptyLine();
+		if (fileHeaderLine == null) {
+			return new TsvFileContent<>(TsvSchema.fromHeaderLine(""), "", new ParsedRows<>(), tsvReader.getBytesRead(),
+					tsvReader.getTail());
+		}
+
+		List<T> cache = snapshot.get().getRows();
+		boolean hasSameHeader = fileHeaderLine.equals(headerLine);
+		if (!hasSameHeader && !cache.isEmpty())
+			Logger.info("Header of {} has changed, parsing all lines again", dataSourceUrl);
+		TsvSchema fileSchema = hasSameHeader ? schema : TsvSchema.fromHeaderLine(fileHeaderLine);
+
+		ParsedRows<T> rows = hasSameHeader ? parseDataRows(tsvReader, fileSchema, cache, cachedLineChecksums)
+				: parseDataRows(tsvReader, fileSchema, new ArrayList<>(), new long[0]);
+		if (!hasSameHeader) {
+			// all lines have been built again, so all cached lines that are still there count as revised
+			for (int index = 0; index < Math.min(cache.size(), rows.rows.size()); index++)
+				rows.revisedRows.add(index);
+		}
+
+		return new TsvFileContent<>(fileSchema, fileHeaderLine, rows, tsvReader.getBytesRead(), tsvReader.getTail());
+	}
+
+	private TsvFileContent<T> parseTsvFileOrForgetBody(InputStream tsvStream) throws IOException {
+		try {
+			return parseTsvFile(tsvStream);
+		} catch (RuntimeException exception) {
+			forgetBody();
+			throw exception;
+		}
+	}
+
+	private ParsedRows<T> parseDataRowsOrForgetBody(InputStream dataLines) throws IOException {
+		try {
+			return parseDataRows(new TsvStreamReader(dataLines, 0), schema, new ArrayList<>(), new long[0]);
+		} catch (RuntimeException exception) {
+			forgetBody();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Parses all data lines of a tsv file. A line that is equal to the line at
+	 * the same index of a previously parsed file keeps its previously built
+	 * element.
+	 * 
+	 * @param tsvReader      reader positioned after the header line
+	 * @param fileSchema     the schema of the file
+	 * @param knownRows      elements built from the previously parsed lines
+	 * @param knownChecksums checksums of the previously parsed lines
+	 * @return the elements of all lines, and which known lines have changed
+	 * @throws IOException if the data source could not be read
+	 */
+	private ParsedRows<T> parseDataRows(TsvStreamReader tsvReader, TsvSchema fileSchema, List<T> knownRows,
+			long[] knownChecksums) throws IOException {
+		ParsedRows<T> parsedRows = new ParsedRows<>();
+		long[] lineChecksums = new long[Math.max(knownRows.size(), 64)];
+		TsvTokenizer dataRow = new TsvTokenizer();
+
+		while (tsvReader.readLine(dataRow)) {
+			boolean isEmptyLine = dataRow.getFieldCount() == 1 && dataRow.isEmpty(0);
+			if (isEmptyLine)
+				continue;
+
+			int index = parsedRows.rows.size();
+			long lineChecksum = lineChecksum(dataRow);
+			if (index < knownRows.size() && knownChecksums[index] == lineChecksum) {
+				parsedRows.rows.add(knownRows.get(index));
+				parsedRows.reusedRowCount++;
+			} else {
+				parsedRows.rows.add(this.buildOneRowFrom(dataRow, fileSchema));
+				if (index < knownRows.size())
+					parsedRows.revisedRows.add(index);
+			}
+
+			if (index == lineChecksums.length)
+				lineChecksums = Arrays.copyOf(lineChecksums, index * 2);
+			lineChecksums[index] = lineChecksum;
+		}
+
+		parsedRows.lineChecksums = Arrays.copyOf(lineChecksums, parsedRows.rows.size());
+		return parsedRows;
+	}
+
+	/**
+	 * @param line a tokenized tsv line
+	 * @return CRC32 of the bytes of the line, combined with its length
+	 */
+	private static long lineChecksum(TsvTokenizer line) {
+		int start = line.getFieldStart(0);
+		int end = line.getFieldEnd(line.getFieldCount() - 1);
+
+		CRC32 crc = new CRC32();
+		crc.update(line.getLineBytes(), start, end - start);
+		return ((long) (end - start) << 32) | crc.getValue();
+	}
+
+	/**
+	 * Forgets everything known about the last file, so that the next conditional
+	 * or range request does not skip a file that could not be parsed.
+	 */
+	private void forgetBody() {
+		ressourceResolver.forgetValidators();
+		lastBodyTail = null;
+	}
+
+	/**
+	 * Remembers the length and the last bytes of a successfully read body, to
+	 * request only the appended bytes next time.
+	 * 
+	 * @param bodyEnd    the last bytes of the body
+	 * @param bodyLength the total length of the body
+	 */
+	private void rememberBody(byte[] bodyEnd, long bodyLength) {
+		int tailLength = Math.min(APPEND_FETCH_OVERLAP_BYTES, bodyEnd.length);
+		this.lastBodyTail = Arrays.copyOfRange(bodyEnd, bodyEnd.length - tailLength, bodyEnd.length);
+		this.lastBodyLength = bodyLength;
+	}
+
+	private boolean startsWithLastBodyTail(byte[] bytes) {
+		if (bytes.length < lastBodyTail.length)
+			return false;
+
+		for (int i = 0; i < lastBodyTail.length; i++) {
+			if (bytes[i] != lastBodyTail[i])
+				return false;
+		}
+		return true;
 	}
 
 	/***
@@ -91,9 +432,72 @@ public abstract class AbstractTsvApiWithCache<T extends AbstractTsvRow> {
 	 * reachable. Note that {@code getNewDataIsNecessary} needs to be called at
 	 * least once successfully for this method to not return an empty list.
 	 * 
-	 * @return the current cache contents
+	 * @return the current cache contents, as unmodifiable list that is not
+	 *         affected by later refreshes
 	 */
 	public List<T> getCurrentData() {
-		return new ArrayList<>(cache);
+		return snapshot.get().getRows();
+	}
+
+	/***
+	 * Gets the current state of the cache along with its version. Like
+	 * {@code getCurrentData}, this never queries the data source.
+	 * 
+	 * @return the current snapshot of the cache
+	 */
+	public DatasetSnapshot<T> getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * @return number of queries that downloaded the full data source
+	 */
+	public int getFullResponseCount() {
+		return ressourceResolver.getFullResponseCount();
+	}
+
+	/**
+	 * @return number of queries that were skipped because the data source was not
+	 *         modified
+	 */
+	public int getNotModifiedResponseCount() {
+		return ressourceResolver.getNotModifiedResponseCount();
+	}
+
+	/**
+	 * A parsed tsv file, along with what is needed to continue reading it from
+	 * its end
+	 */
+	private static class TsvFileContent<T> {
+		private final TsvSchema schema;
+		private final String headerLine;
+		private final ParsedRows<T> rows;
+		private final long length;
+		private final byte[] tail;
+
+		private TsvFileContent(TsvSchema schema, String headerLine, ParsedRows<T> rows, long length, byte[] tail) {
+			this.schema = schema;
+			this.headerLine = headerLine;
+			this.rows = rows;
+			this.length = length;
+			this.tail = tail;
+		}
+	}
+
+	/**
+	 * The elements parsed from the data lines of a tsv file
+	 */
+	private static class ParsedRows<T> {
+		private final List<T> rows = new ArrayList<>();
+		/**
+		 * Checksum of each line, see {@code lineChecksum}
+		 */
+		private long[] lineChecksums = new long[0];
+		/**
+		 * Indices of previously known lines that have changed, or that have been
+		 * built again because the header has changed
+		 */
+		private final List<Integer> revisedRows = new ArrayList<>();
+		private int reusedRowCount = 0;
 	}
 }
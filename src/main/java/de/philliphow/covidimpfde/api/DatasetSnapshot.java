@@ -0,0 +1,61 @@
+package de.philliphow.covidimpfde.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable state of the data cached by an {@link AbstractTsvApiWithCache}.
+ * Each refresh that changes the cache publishes a new snapshot with a higher
+ * version, existing snapshots are never modified. Readers can therefore keep
+ * and share a snapshot without copying it, and derived data can be cached by
+ * snapshot version.
+ *
+ * @author PhillipHow
+ *
+ * @param <T> the type of the cached elements
+ */
+public final class DatasetSnapshot<T> {
+
+	private final long version;
+	private final List<T> rows;
+
+	/**
+	 * @param version the version of this snapshot, higher than the version of
+	 *                every earlier snapshot of the same cache
+	 * @param rows    the cached elements. The list must not be modified after it
+	 *                has been handed to the snapshot.
+	 */
+	DatasetSnapshot(long version, List<T> rows) {
+		this.version = version;
+		this.rows = Collections.unmodifiableList(rows);
+	}
+
+	/**
+	 * @return the version of this snapshot. 0 for the empty snapshot before the
+	 *         first refresh.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the cached elements, as unmodifiable list
+	 */
+	public List<T> getRows() {
+		return rows;
+	}
+
+	public int size() {
+		return rows.size();
+	}
+
+	public boolean isEmpty() {
+		return rows.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "DatasetSnapshot version " + version + " with " + rows.size() + " rows";
+	}
+
+}
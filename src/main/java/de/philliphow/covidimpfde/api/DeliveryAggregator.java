@@ -0,0 +1,149 @@
+package de.philliphow.covidimpfde.api;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
+import de.philliphow.covidimpfde.api.models.Vaccine;
+
+/**
+ * Sums up delivered doses by calendar week and vaccine. Each week and vaccine
+ * is packed into one long key (the index of the week since 1970 in the upper
+ * half, the id of the {@link Vaccine} in the lower half), and the doses are summed
+ * in a {@link LongLongHashMap}. Adding a delivery neither boxes nor allocates.
+ *
+ * Not thread safe.
+ *
+ * @author PhillipHow
+ *
+ */
+public class DeliveryAggregator {
+
+	/**
+	 * 1970-01-05, the first monday after 1970-01-01, as epoch day
+	 */
+	private static final int FIRST_MONDAY_EPOCH_DAY = 4;
+
+	private final LongLongHashMap dosesByWeekAndVaccine;
+
+	public DeliveryAggregator() {
+		this(64);
+	}
+
+	/**
+	 * @param expectedWeeksAndVaccines number of distinct weeks and vaccines
+	 *                                 expected, to avoid resizing
+	 */
+	public DeliveryAggregator(int expectedWeeksAndVaccines) {
+		this.dosesByWeekAndVaccine = new LongLongHashMap(expectedWeeksAndVaccines);
+	}
+
+	/**
+	 * Adds the doses of a delivery to its week and vaccine.
+	 *
+	 * @param delivery the delivery
+	 */
+	public void add(DeliveryDataRow delivery) {
+		add(delivery.getCalendarWeekMondayEpochDay(), delivery.getVaccine(), delivery.getDoses());
+	}
+
+	/**
+	 * Adds doses to a week and vaccine.
+	 *
+	 * @param mondayEpochDay the monday of the week, as days since 1970-01-01
+	 * @param vaccine        the vaccine
+	 * @param doses          the number of doses
+	 */
+	public void add(int mondayEpochDay, Vaccine vaccine, int doses) {
+		dosesByWeekAndVaccine.addTo(packKey(weekIndexOf(mondayEpochDay), vaccine.getId()), doses);
+	}
+
+	/**
+	 * @return number of distinct weeks and vaccines added so far
+	 */
+	public int size() {
+		return dosesByWeekAndVaccine.size();
+	}
+
+	/**
+	 * @param mondayEpochDay the monday of the week, as days since 1970-01-01
+	 * @param vaccine        the vaccine
+	 * @return the doses added for the week and vaccine
+	 */
+	public long getDoses(int mondayEpochDay, Vaccine vaccine) {
+		return dosesByWeekAndVaccine.get(packKey(weekIndexOf(mondayEpochDay), vaccine.getId()), 0);
+	}
+
+	/**
+	 * Creates one delivery per week and vaccine added so far.
+	 *
+	 * @param region the region of the created deliveries
+	 * @return the deliveries, ordered by week and vaccine identifier
+	 */
+	public List<DeliveryDataRow> toDeliveries(String region) {
+		// order the vaccine ids by identifier, so that sorting the keys orders the
+		// vaccines of a week by identifier
+		Integer[] idsByIdentifier = new Integer[Vaccine.getRegisteredCount()];
+		for (int i = 0; i < idsByIdentifier.length; i++) {
+			idsByIdentifier[i] = i;
+		}
+		Arrays.sort(idsByIdentifier, (id1, id2) -> Vaccine.byId(id1).getDeliveryDataIdentifier()
+				.compareTo(Vaccine.byId(id2).getDeliveryDataIdentifier()));
+		int[] rankOfId = new int[idsByIdentifier.length];
+		for (int rank = 0; rank < idsByIdentifier.length; rank++) {
+			rankOfId[idsByIdentifier[rank]] = rank;
+		}
+
+		long[] rankedKeys = dosesByWeekAndVaccine.keys();
+		for (int i = 0; i < rankedKeys.length; i++) {
+			rankedKeys[i] = packKey(weekIndexOfKey(rankedKeys[i]), rankOfId[vaccineIdOfKey(rankedKeys[i])]);
+		}
+		Arrays.sort(rankedKeys);
+
+		List<DeliveryDataRow> deliveries = new ArrayList<>(rankedKeys.length);
+		for (long rankedKey : rankedKeys) {
+			int weekIndex = weekIndexOfKey(rankedKey);
+			int vaccineId = idsByIdentifier[vaccineIdOfKey(rankedKey)];
+			long doses = dosesByWeekAndVaccine.get(packKey(weekIndex, vaccineId), 0);
+			deliveries.add(new DeliveryDataRow(LocalDate.ofEpochDay(mondayEpochDayOf(weekIndex)),
+					Vaccine.byId(vaccineId).getDeliveryDataIdentifier(), region, Math.toIntExact(doses)));
+		}
+		return deliveries;
+	}
+
+	/**
+	 * @param weekIndex index of the week since 1970
+	 * @param vaccineId id of the vaccine
+	 * @return the packed key. Keys are ordered by week, then by vaccine.
+	 */
+	public static long packKey(int weekIndex, int vaccineId) {
+		return ((long) weekIndex << 32) | (vaccineId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * @param mondayEpochDay a monday, as days since 1970-01-01
+	 * @return the index of its week, counted from the first monday of 1970
+	 */
+	public static int weekIndexOf(int mondayEpochDay) {
+		return Math.floorDiv(mondayEpochDay - FIRST_MONDAY_EPOCH_DAY, 7);
+	}
+
+	/**
+	 * @param weekIndex the index of a week, see {@code weekIndexOf}
+	 * @return the monday of the week, as days since 1970-01-01
+	 */
+	public static int mondayEpochDayOf(int weekIndex) {
+		return weekIndex * 7 + FIRST_MONDAY_EPOCH_DAY;
+	}
+
+	private static int weekIndexOfKey(long packedKey) {
+		return (int) (packedKey >> 32);
+	}
+
+	private static int vaccineIdOfKey(long packedKey) {
+		return (int) packedKey;
+	}
+
+}
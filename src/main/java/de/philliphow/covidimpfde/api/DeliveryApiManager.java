@@ -3,12 +3,10 @@ package de.philliphow.covidimpfde.api;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
 import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
 import de.philliphow.covidimpfde.exceptions.ImpfDashboardApiException;
 
@@ -37,8 +35,26 @@ public class DeliveryApiManager extends AbstractTsvApiWithCache<DeliveryDataRow>
 	public static final String RESSOURCE_URL = "https://impfdashboard.de/static/data/germany_deliveries_timeseries_v2.tsv";
 	public static final String DEBUG_LOCAL_RESSOURCE_URL = "test-datasets/debug_delivery_timeseries.tsv";
 
+	/**
+	 * The federal deliveries accumulated from the current local deliveries. Has
+	 * the version of the snapshot of local deliveries it was computed from.
+	 */
+	private volatile DatasetSnapshot<DeliveryDataRow> federalDeliveries = null;
+
+	/**
+	 * The cube of the current local deliveries, with the version of the snapshot
+	 * it was built from
+	 */
+	private volatile DeliveryCube deliveryCube = null;
+
+	/**
+	 * Region of accumulated federal deliveries, like in
+	 * {@code DeliveryDataRow.combineDeliveryParts}
+	 */
+	private static final String FEDERAL_DELIVERY_REGION = "MULTIPLE";
+
 	private DeliveryApiManager(boolean debugMode) {
-		super(getRessourceUrl(debugMode));
+		super(getRessourceUrl(debugMode), true);
 	}
 
 	private DeliveryApiManager() {
@@ -47,14 +63,19 @@ public class DeliveryApiManager extends AbstractTsvApiWithCache<DeliveryDataRow>
 
 	/***
 	 * Queries the delivery data API and refreshed the cache if new data has been
-	 * found.
+	 * found. The federal deliveries and the delivery cube are accumulated right
+	 * away, so {@code getCurrentData} and {@code getDeliveryCube} only hand them
+	 * out.
 	 * 
 	 * @return true, if new data has been found since the last call to this method
 	 */
 	@Override
 	public boolean getNewDataIfNecessary() throws ImpfDashboardApiException {
 		try {
-			return super.getNewDataIfNecessary();
+			boolean hasNewData = super.getNewDataIfNecessary();
+			getFederalSnapshot();
+			getDeliveryCube();
+			return hasNewData;
 		} catch (IOException exception) {
 			throw new ImpfDashboardApiException(exception);
 		}
@@ -72,37 +93,73 @@ public class DeliveryApiManager extends AbstractTsvApiWithCache<DeliveryDataRow>
 	 */
 	@Override
 	public List<DeliveryDataRow> getCurrentData() {
+		return getFederalSnapshot().getRows();
+	}
 
-		/*
-		 * Vaccine data is provided by the API per local state, so the data needs to be
-		 * accumulated to get the federal deliveries.
-		 * Also filter negative deliveries
-		 */
-
-		Map<String, List<DeliveryDataRow>> localDeliveriesGroupedByFederalDelivery = super.getCurrentData().stream()
-				.filter(delivery -> delivery.getDoses() > 0)
-				.collect(Collectors.groupingBy(e -> e.getCalendarWeekMonday() + "/" + e.getVaccineIdentifier()));
-
-		List<DeliveryDataRow> federalDeliveries = new ArrayList<>();
-		localDeliveriesGroupedByFederalDelivery.forEach((key, deliveryParts) -> {
-			LocalDate deliveryDate =deliveryParts.get(0).getCalendarWeekMonday();
-			String deliveryVaccine = deliveryParts.get(0).getVaccineIdentifier();
+	/***
+	 * Gets the federal deliveries of {@code getCurrentData} along with the
+	 * version of the local deliveries they have been accumulated from. They are
+	 * accumulated once per version.
+	 * 
+	 * @return the current federal deliveries
+	 */
+	public DatasetSnapshot<DeliveryDataRow> getFederalSnapshot() {
+		DatasetSnapshot<DeliveryDataRow> localDeliveries = super.getSnapshot();
+		DatasetSnapshot<DeliveryDataRow> currentFederalDeliveries = federalDeliveries;
+
+		if (currentFederalDeliveries == null
+				|| currentFederalDeliveries.getVersion() != localDeliveries.getVersion()) {
+			currentFederalDeliveries = new DatasetSnapshot<>(localDeliveries.getVersion(),
+					toFederalDeliveries(localDeliveries.getRows()));
+			federalDeliveries = currentFederalDeliveries;
+		}
+		return currentFederalDeliveries;
+	}
 
-			DeliveryDataRow deliveryPartsAccumulated = new DeliveryDataRow(deliveryDate, deliveryVaccine, "DE", 0);
-			for (DeliveryDataRow deliveryPart : deliveryParts) {
-				deliveryPartsAccumulated = DeliveryDataRow.combineDeliveryParts(deliveryPartsAccumulated, deliveryPart);
+	/***
+	 * Gets the current local deliveries as {@link DeliveryCube}, to query the
+	 * deliveries by week, vaccine and region. Negative deliveries are filtered,
+	 * like in {@code toFederalDeliveries}. The cube is built once per version.
+	 * 
+	 * @return the cube of the current local deliveries
+	 */
+	public DeliveryCube getDeliveryCube() {
+		DatasetSnapshot<DeliveryDataRow> localDeliveries = super.getSnapshot();
+		DeliveryCube currentCube = deliveryCube;
+
+		if (currentCube == null || currentCube.getVersion() != localDeliveries.getVersion()) {
+			List<DeliveryDataRow> positiveDeliveries = new ArrayList<>(localDeliveries.size());
+			for (DeliveryDataRow delivery : localDeliveries.getRows()) {
+				if (delivery.getDoses() > 0)
+					positiveDeliveries.add(delivery);
 			}
-			federalDeliveries.add(deliveryPartsAccumulated);
-		});
-
-		federalDeliveries.sort((d1, d2) -> d1.getCalendarWeekMonday().compareTo(d2.getCalendarWeekMonday()));
+			currentCube = DeliveryCube.from(positiveDeliveries, localDeliveries.getVersion());
+			deliveryCube = currentCube;
+		}
+		return currentCube;
+	}
 
-		return federalDeliveries;
+	/***
+	 * Vaccine data is provided by the API per local state, so the data needs to be
+	 * accumulated to get the federal deliveries, see {@link DeliveryAggregator}.
+	 * Negative deliveries are filtered.
+	 * 
+	 * @param localDeliveries deliveries per local state
+	 * @return one delivery per week and vaccine, ordered by week and vaccine
+	 *         identifier
+	 */
+	public static List<DeliveryDataRow> toFederalDeliveries(List<DeliveryDataRow> localDeliveries) {
+		DeliveryAggregator federalDeliveries = new DeliveryAggregator();
+		for (DeliveryDataRow delivery : localDeliveries) {
+			if (delivery.getDoses() > 0)
+				federalDeliveries.add(delivery);
+		}
+		return federalDeliveries.toDeliveries(FEDERAL_DELIVERY_REGION);
 	}
 	
 	@Override
-	public DeliveryDataRow buildOneRowFrom(String tsvRow, String headerRow) {
-		return new DeliveryDataRow(tsvRow, headerRow);
+	public DeliveryDataRow buildOneRowFrom(TsvTokenizer tsvDataRow, TsvSchema schema) {
+		return new DeliveryDataRow(tsvDataRow, schema);
 	}
 
 	/***
@@ -0,0 +1,170 @@
+package de.philliphow.covidimpfde.api;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive long keys to primitive long values, using open
+ * addressing with linear probing. Neither keys nor values are boxed, and no
+ * object is allocated per entry. Meant for summing up values by a packed key,
+ * see {@link DeliveryAggregator}.
+ *
+ * Not thread safe.
+ *
+ * @author PhillipHow
+ *
+ */
+public class LongLongHashMap {
+
+	/**
+	 * Marks an empty slot. The key itself is stored outside of the table.
+	 */
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private long[] values;
+	private int size = 0;
+
+	private boolean hasEmptyKey = false;
+	private long emptyKeyValue = 0;
+
+	/**
+	 * Callback for {@code forEach}
+	 */
+	public interface EntryConsumer {
+		void accept(long key, long value);
+	}
+
+	public LongLongHashMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * @param expectedSize number of keys expected, to avoid resizing
+	 */
+	public LongLongHashMap(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < expectedSize * 2)
+			capacity <<= 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * Adds a value to the value of a key. Missing keys are treated as 0.
+	 *
+	 * @param key   the key
+	 * @param delta the value to add
+	 * @return the new value of the key
+	 */
+	public long addTo(long key, long delta) {
+		if (key == EMPTY) {
+			if (!hasEmptyKey) {
+				hasEmptyKey = true;
+				size++;
+			}
+			emptyKeyValue += delta;
+			return emptyKeyValue;
+		}
+
+		int slot = findSlot(key);
+		if (keys[slot] == EMPTY) {
+			keys[slot] = key;
+			values[slot] = delta;
+			if (++size * 2 > keys.length)
+				resize();
+			return delta;
+		}
+		values[slot] += delta;
+		return values[slot];
+	}
+
+	/**
+	 * @param key          the key
+	 * @param defaultValue the value to return if the key is missing
+	 * @return the value of the key
+	 */
+	public long get(long key, long defaultValue) {
+		if (key == EMPTY)
+			return hasEmptyKey ? emptyKeyValue : defaultValue;
+
+		int slot = findSlot(key);
+		return keys[slot] == EMPTY ? defaultValue : values[slot];
+	}
+
+	public boolean containsKey(long key) {
+		return key == EMPTY ? hasEmptyKey : keys[findSlot(key)] != EMPTY;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return all keys, in no particular order
+	 */
+	public long[] keys() {
+		long[] result = new long[size];
+		int i = 0;
+		if (hasEmptyKey)
+			result[i++] = EMPTY;
+		for (long key : keys) {
+			if (key != EMPTY)
+				result[i++] = key;
+		}
+		return result;
+	}
+
+	/**
+	 * Calls the consumer for every entry, in no particular order
+	 *
+	 * @param consumer the consumer
+	 */
+	public void forEach(EntryConsumer consumer) {
+		if (hasEmptyKey)
+			consumer.accept(EMPTY, emptyKeyValue);
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != EMPTY)
+				consumer.accept(keys[slot], values[slot]);
+		}
+	}
+
+	/**
+	 * @return the slot holding the key, or the empty slot where it belongs
+	 */
+	private int findSlot(long key) {
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != key)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	private void resize() {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		allocate(oldKeys.length * 2);
+
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if (oldKeys[slot] != EMPTY) {
+				int newSlot = findSlot(oldKeys[slot]);
+				keys[newSlot] = oldKeys[slot];
+				values[newSlot] = oldValues[slot];
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of packed keys, whose low bits alone would cluster
+	 */
+	private static int mix(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+}
@@ -0,0 +1,115 @@
+package de.philliphow.covidimpfde.api;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.pmw.tinylog.Logger;
+
+/**
+ * The columns of a tsv file, as defined by its header line. A schema is
+ * resolved once per file and shared by all rows of that file, which then only
+ * store their values in column order. Fields are looked up by their column
+ * index, the column names only need to be resolved once per schema.
+ *
+ * @author PhillipHow
+ *
+ */
+public class TsvSchema {
+
+	private final String[] columnNames;
+	private final Map<String, Integer> columnIndices = new HashMap<>();
+
+	/**
+	 * Column indices of the enum based field sets resolved so far, see
+	 * {@code getColumnIndices}
+	 */
+	private final Map<Class<?>, int[]> resolvedFieldSets = new ConcurrentHashMap<>();
+
+	private TsvSchema(String[] columnNames) {
+		this.columnNames = columnNames;
+
+		for (int i = 0; i < columnNames.length; i++) {
+			columnIndices.putIfAbsent(columnNames[i], i);
+		}
+	}
+
+	/**
+	 * Resolves the schema of a tsv file from its header line.
+	 *
+	 * @param headerLine the tab separated column names
+	 * @return the schema
+	 */
+	public static TsvSchema fromHeaderLine(String headerLine) {
+		TsvTokenizer header = new TsvTokenizer().tokenize(headerLine);
+		String[] columnNames = new String[header.getFieldCount()];
+
+		for (int i = 0; i < columnNames.length; i++) {
+			columnNames[i] = header.getString(i);
+		}
+		return new TsvSchema(columnNames);
+	}
+
+	/**
+	 * @param columnNames the column names, in column order
+	 * @return the schema
+	 */
+	public static TsvSchema of(Collection<String> columnNames) {
+		return new TsvSchema(columnNames.toArray(new String[0]));
+	}
+
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+
+	/**
+	 * @param columnName the name of the column in the header line
+	 * @return the index of the column, or -1 if the file has no such column
+	 */
+	public int indexOf(String columnName) {
+		Integer index = columnIndices.get(columnName);
+		return index == null ? -1 : index;
+	}
+
+	public boolean hasColumn(String columnName) {
+		return columnIndices.containsKey(columnName);
+	}
+
+	/**
+	 * Resolves the column index of every constant of an enum that describes the
+	 * fields of a row type. The result is computed once per schema and enum, and
+	 * shared by all rows. Columns missing in this file are reported once.
+	 *
+	 * @param fieldEnum  the enum describing the fields
+	 * @param columnName gets the column name of a field
+	 * @param <E>        the enum type
+	 * @return the column index of each field, indexed by the ordinal of the
+	 *         field. -1 for fields that have no column in this file.
+	 */
+	public <E extends Enum<E>> int[] getColumnIndices(Class<E> fieldEnum, Function<E, String> columnName) {
+		return resolvedFieldSets.computeIfAbsent(fieldEnum, key -> {
+			E[] fields = fieldEnum.getEnumConstants();
+			int[] indices = new int[fields.length];
+
+			for (E field : fields) {
+				indices[field.ordinal()] = indexOf(columnName.apply(field));
+				if (indices[field.ordinal()] == -1)
+					Logger.debug("Column {} for field {} is missing in this file", columnName.apply(field), field);
+			}
+			return indices;
+		});
+	}
+
+	@Override
+	public String toString() {
+		return "TsvSchema " + Arrays.toString(columnNames);
+	}
+
+}
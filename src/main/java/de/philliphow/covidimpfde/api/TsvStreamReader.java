@@ -0,0 +1,214 @@
+package de.philliphow.covidimpfde.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the lines of a tsv file directly from an {@link InputStream}, without
+ * holding the whole file in memory. Lines are split at {@code \n}, a trailing
+ * {@code \r} is removed. The read buffer only grows to the length of the
+ * longest line and is bounded by {@code MAX_LINE_BYTES}.
+ *
+ * Additionally counts the bytes read and remembers the last bytes of the
+ * stream, so that an append-only data source can later be continued from its
+ * end.
+ *
+ * @author PhillipHow
+ *
+ */
+public class TsvStreamReader {
+
+	private static final int INITIAL_BUFFER_BYTES = 8192;
+	/**
+	 * Lines longer than this are rejected, to not let a broken file exhaust the
+	 * memory
+	 */
+	private static final int MAX_LINE_BYTES = 1 << 20;
+
+	private final InputStream in;
+
+	private byte[] buffer = new byte[INITIAL_BUFFER_BYTES];
+	/**
+	 * Start of the unread bytes in the buffer
+	 */
+	private int position = 0;
+	/**
+	 * End of the valid bytes in the buffer
+	 */
+	private int limit = 0;
+	private boolean endOfStream = false;
+	/**
+	 * Bounds of the last line found in the buffer, without line break
+	 */
+	private int lineStart = 0;
+	private int lineEnd = 0;
+
+	private long bytesRead = 0;
+	/**
+	 * Ring buffer holding the last bytes read from the stream
+	 */
+	private final byte[] tail;
+	private int tailEnd = 0;
+
+	/**
+	 * @param in        the stream to read. Not closed by this class.
+	 * @param tailBytes number of bytes at the end of the stream to remember, see
+	 *                  {@code getTail}
+	 */
+	public TsvStreamReader(InputStream in, int tailBytes) {
+		this.in = in;
+		this.tail = new byte[tailBytes];
+	}
+
+	/**
+	 * @return the next line without its line break, or null if the stream has
+	 *         ended
+	 * @throws IOException if the stream could not be read or the line exceeds
+	 *                     the maximum line length
+	 */
+	public String readLine() throws IOException {
+		if (!nextLine())
+			return null;
+
+		return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Splits the next line into fields, without decoding it to a String. The
+	 * fields are slices of the read buffer, only valid until the next line is
+	 * read.
+	 *
+	 * @param tokenizer the tokenizer to split the line with
+	 * @return false if the stream has ended
+	 * @throws IOException if the stream could not be read or the line exceeds
+	 *                     the maximum line length
+	 */
+	public boolean readLine(TsvTokenizer tokenizer) throws IOException {
+		if (!nextLine())
+			return false;
+
+		tokenizer.tokenize(buffer, lineStart, lineEnd);
+		return true;
+	}
+
+	/**
+	 * @return the next line that is not empty, or null if the stream has ended
+	 * @throws IOException if the stream could not be read
+	 */
+	public String readNonEmptyLine() throws IOException {
+		String line = readLine();
+		while (line != null && line.isEmpty()) {
+			line = readLine();
+		}
+		return line;
+	}
+
+	/**
+	 * @return total number of bytes read from the stream so far
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * @return the last bytes read from the stream, at most as many as requested
+	 *         on construction
+	 */
+	public byte[] getTail() {
+		int length = (int) Math.min(tail.length, bytesRead);
+		byte[] result = new byte[length];
+
+		for (int i = 0; i < length; i++) {
+			int ringIndex = (tailEnd - length + i + tail.length) % tail.length;
+			result[i] = tail[ringIndex];
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the next line in the buffer and sets {@code lineStart} and
+	 * {@code lineEnd} to its bounds.
+	 *
+	 * @return false if the stream has ended
+	 */
+	private boolean nextLine() throws IOException {
+		// bytes of the current line already searched for a line break
+		int scanned = 0;
+
+		while (true) {
+			for (int i = position + scanned; i < limit; i++) {
+				if (buffer[i] == '\n') {
+					setLine(position, i);
+					position = i + 1;
+					return true;
+				}
+			}
+
+			scanned = limit - position;
+			if (!fillBuffer()) {
+				if (position == limit)
+					return false;
+
+				setLine(position, limit);
+				position = limit;
+				return true;
+			}
+		}
+	}
+
+	private void setLine(int start, int end) {
+		if (end > start && buffer[end - 1] == '\r')
+			end--;
+		this.lineStart = start;
+		this.lineEnd = end;
+	}
+
+	/**
+	 * Reads more bytes from the stream into the buffer, compacting or growing it
+	 * if necessary.
+	 *
+	 * @return false if the stream has ended
+	 */
+	private boolean fillBuffer() throws IOException {
+		if (endOfStream)
+			return false;
+
+		if (limit == buffer.length) {
+			if (position > 0) {
+				System.arraycopy(buffer, position, buffer, 0, limit - position);
+				limit -= position;
+				position = 0;
+			} else if (buffer.length >= MAX_LINE_BYTES) {
+				throw new IOException("Line exceeds " + MAX_LINE_BYTES + " bytes");
+			} else {
+				byte[] grownBuffer = new byte[Math.min(buffer.length * 2, MAX_LINE_BYTES)];
+				System.arraycopy(buffer, 0, grownBuffer, 0, limit);
+				buffer = grownBuffer;
+			}
+		}
+
+		int read = in.read(buffer, limit, buffer.length - limit);
+		if (read == -1) {
+			endOfStream = true;
+			return false;
+		}
+
+		rememberTail(limit, read);
+		limit += read;
+		bytesRead += read;
+		return true;
+	}
+
+	private void rememberTail(int start, int length) {
+		if (tail.length == 0)
+			return;
+
+		int skip = Math.max(0, length - tail.length);
+		for (int i = start + skip; i < start + length; i++) {
+			tail[tailEnd] = buffer[i];
+			tailEnd = (tailEnd + 1) % tail.length;
+		}
+	}
+
+}
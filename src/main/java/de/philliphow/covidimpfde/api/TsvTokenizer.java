@@ -0,0 +1,286 @@
+package de.philliphow.covidimpfde.api;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Splits one tsv line into its fields. Fields are separated by exactly one tab
+ * byte each, so empty fields are kept and the n-th field always belongs to the
+ * n-th column. Splitting works on the UTF-8 bytes of the line (a tab byte never
+ * occurs inside a multi-byte character) and only records the field boundaries:
+ * fields are handed out as slices of the line, numbers are parsed directly from
+ * these slices without creating a String per field.
+ *
+ * A tokenizer is reused for many lines and is not thread safe. The slices are
+ * only valid until the next call to {@code tokenize}.
+ *
+ * @author PhillipHow
+ *
+ */
+public class TsvTokenizer {
+
+	private static final byte TAB = '\t';
+
+	/**
+	 * Powers of ten that are exactly representable as double
+	 */
+	private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private byte[] line = new byte[0];
+	private int lineStart = 0;
+	private int lineEnd = 0;
+
+	/**
+	 * Positions of the tabs in the current line
+	 */
+	private int[] tabPositions = new int[32];
+	private int tabCount = 0;
+
+	/**
+	 * Splits the given slice of a byte array into fields. The array is not copied.
+	 *
+	 * @param bytes the bytes holding the line, UTF-8 encoded
+	 * @param start index of the first byte of the line
+	 * @param end   index after the last byte of the line, without line break
+	 * @return this tokenizer, to query the fields
+	 */
+	public TsvTokenizer tokenize(byte[] bytes, int start, int end) {
+		this.line = bytes;
+		this.lineStart = start;
+		this.lineEnd = end;
+		this.tabCount = 0;
+
+		for (int i = start; i < end; i++) {
+			if (bytes[i] == TAB) {
+				if (tabCount == tabPositions.length)
+					tabPositions = Arrays.copyOf(tabPositions, tabCount * 2);
+				tabPositions[tabCount++] = i;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Splits the given line into fields.
+	 *
+	 * @param line the line, without line break
+	 * @return this tokenizer, to query the fields
+	 */
+	public TsvTokenizer tokenize(String line) {
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		return tokenize(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * @return number of fields in the current line. A line without tabs has
+	 *         exactly one (possibly empty) field.
+	 */
+	public int getFieldCount() {
+		return tabCount + 1;
+	}
+
+	/**
+	 * @return the bytes the current line is a slice of
+	 */
+	public byte[] getLineBytes() {
+		return line;
+	}
+
+	/**
+	 * @param field index of the field
+	 * @return index of the first byte of the field in {@code getLineBytes}
+	 */
+	public int getFieldStart(int field) {
+		checkField(field);
+		return field == 0 ? lineStart : tabPositions[field - 1] + 1;
+	}
+
+	/**
+	 * @param field index of the field
+	 * @return index after the last byte of the field in {@code getLineBytes}
+	 */
+	public int getFieldEnd(int field) {
+		checkField(field);
+		return field == tabCount ? lineEnd : tabPositions[field];
+	}
+
+	public boolean isEmpty(int field) {
+		return getFieldStart(field) == getFieldEnd(field);
+	}
+
+	/**
+	 * @param field index of the field
+	 * @return the field as String. Creates a new String, prefer the parse methods
+	 *         for numbers.
+	 */
+	public String getString(int field) {
+		int start = getFieldStart(field);
+		return new String(line, start, getFieldEnd(field) - start, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compares a field to an ASCII String without decoding the field.
+	 *
+	 * @param field index of the field
+	 * @param ascii the String to compare with, must only contain ASCII characters
+	 * @return true if the field consists of exactly the given characters
+	 */
+	public boolean fieldEquals(int field, String ascii) {
+		int start = getFieldStart(field);
+		int length = getFieldEnd(field) - start;
+
+		if (length != ascii.length())
+			return false;
+		for (int i = 0; i < length; i++) {
+			if (line[start + i] != ascii.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Parses a field as decimal int, like {@link Integer#parseInt(String)}.
+	 *
+	 * @param field index of the field
+	 * @return the parsed number
+	 * @throws NumberFormatException if the field is not a valid int
+	 */
+	public int parseInt(int field) {
+		long value = parseLong(field);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+			throw numberFormatException(field);
+		return (int) value;
+	}
+
+	/**
+	 * Parses a field as decimal long, like {@link Long#parseLong(String)}.
+	 *
+	 * @param field index of the field
+	 * @return the parsed number
+	 * @throws NumberFormatException if the field is not a valid long
+	 */
+	public long parseLong(int field) {
+		int start = getFieldStart(field);
+		int end = getFieldEnd(field);
+		int i = start;
+		boolean negative = false;
+
+		if (i < end && (line[i] == '-' || line[i] == '+')) {
+			negative = line[i] == '-';
+			i++;
+		}
+		if (i == end)
+			throw numberFormatException(field);
+
+		// accumulate negatively, as Long.MIN_VALUE has no positive counterpart
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = line[i] - '0';
+			if (digit < 0 || digit > 9 || value < limit / 10)
+				throw numberFormatException(field);
+			value *= 10;
+			if (value < limit + digit)
+				throw numberFormatException(field);
+			value -= digit;
+		}
+		return negative ? value : -value;
+	}
+
+	/**
+	 * Parses a field as double, like {@link Double#parseDouble(String)}. Plain
+	 * decimal numbers like {@code 0.178} are converted directly from the bytes,
+	 * everything else falls back to {@code Double.parseDouble}.
+	 *
+	 * @param field index of the field
+	 * @return the parsed number
+	 * @throws NumberFormatException if the field is not a valid double
+	 */
+	public double parseDouble(int field) {
+		int start = getFieldStart(field);
+		int end = getFieldEnd(field);
+		int i = start;
+		boolean negative = false;
+
+		if (i < end && (line[i] == '-' || line[i] == '+')) {
+			negative = line[i] == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean afterPoint = false;
+		for (; i < end; i++) {
+			byte current = line[i];
+			if (current == '.' && !afterPoint) {
+				afterPoint = true;
+			} else if (current >= '0' && current <= '9') {
+				mantissa = mantissa * 10 + (current - '0');
+				digits++;
+				if (afterPoint)
+					fractionDigits++;
+			} else {
+				break;
+			}
+		}
+
+		// exact for mantissas below 2^53 and exactly representable powers of ten
+		if (i == end && digits > 0 && digits <= 15 && fractionDigits < EXACT_POWERS_OF_TEN.length) {
+			double value = mantissa / EXACT_POWERS_OF_TEN[fractionDigits];
+			return negative ? -value : value;
+		}
+
+		return Double.parseDouble(getString(field));
+	}
+
+	/**
+	 * Parses a field as ISO date ({@code yyyy-MM-dd}), like
+	 * {@link LocalDate#parse(CharSequence)}.
+	 *
+	 * @param field index of the field
+	 * @return the date as epoch day, see {@link LocalDate#toEpochDay()}
+	 * @throws java.time.DateTimeException if the field is not a valid date
+	 */
+	public int parseEpochDay(int field) {
+		int start = getFieldStart(field);
+
+		if (getFieldEnd(field) - start == 10 && line[start + 4] == '-' && line[start + 7] == '-'
+				&& areDigits(start, 4) && areDigits(start + 5, 2) && areDigits(start + 8, 2)) {
+			int year = digitsValue(start, 4);
+			int month = digitsValue(start + 5, 2);
+			int day = digitsValue(start + 8, 2);
+			return (int) LocalDate.of(year, month, day).toEpochDay();
+		}
+
+		return (int) LocalDate.parse(getString(field)).toEpochDay();
+	}
+
+	private boolean areDigits(int start, int length) {
+		for (int i = start; i < start + length; i++) {
+			if (line[i] < '0' || line[i] > '9')
+				return false;
+		}
+		return true;
+	}
+
+	private int digitsValue(int start, int length) {
+		int value = 0;
+		for (int i = start; i < start + length; i++) {
+			value = value * 10 + (line[i] - '0');
+		}
+		return value;
+	}
+
+	private void checkField(int field) {
+		if (field < 0 || field > tabCount)
+			throw new IndexOutOfBoundsException("Field " + field + " of " + getFieldCount() + " fields requested");
+	}
+
+	private NumberFormatException numberFormatException(int field) {
+		return new NumberFormatException("For input string: \"" + getString(field) + "\"");
+	}
+
+}
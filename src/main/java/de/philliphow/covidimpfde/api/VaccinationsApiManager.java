@@ -6,6 +6,7 @@ import java.net.URL;
 import java.time.LocalDate;
 
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
 import de.philliphow.covidimpfde.exceptions.ImpfDashboardApiException;
 
 /***
@@ -33,8 +34,14 @@ public class VaccinationsApiManager extends AbstractTsvApiWithCache<VaccinationD
 	private static final String RESSOURCE_URL = "https://impfdashboard.de/static/data/germany_vaccinations_timeseries_v2.tsv";
 	private static final String DEBUG_LOCAL_RESSOURCE_URL = "test-datasets/debug_vaccination_timeseries.tsv";
 
+	/**
+	 * Columnar copy of the cached data, built once per snapshot version from the
+	 * previous one
+	 */
+	private volatile VaccinationTimeSeries timeSeries = null;
+
 	private VaccinationsApiManager(boolean debugMode) {
-		super(getRessourceUrl(debugMode));
+		super(getRessourceUrl(debugMode), true);
 	}
 
 	public VaccinationsApiManager() {
@@ -42,8 +49,8 @@ public class VaccinationsApiManager extends AbstractTsvApiWithCache<VaccinationD
 	}
 
 	@Override
-	public VaccinationDataRow buildOneRowFrom(String tsvDataRow, String firstRow) {
-		return new VaccinationDataRow(tsvDataRow, firstRow);
+	public VaccinationDataRow buildOneRowFrom(TsvTokenizer tsvDataRow, TsvSchema schema) {
+		return new VaccinationDataRow(tsvDataRow, schema);
 	}
 
 
@@ -66,7 +73,23 @@ public class VaccinationsApiManager extends AbstractTsvApiWithCache<VaccinationD
 	 * @return the date of the newest entry in the current cache
 	 */
 	public LocalDate getLastUpdateDate() {
-		return this.getCurrentData().get(this.getCurrentData().size()-1).getDate();
+		VaccinationTimeSeries currentTimeSeries = this.getTimeSeries();
+		return currentTimeSeries.getDate(currentTimeSeries.size() - 1);
+	}
+
+	/***
+	 * @return the current cache as columns, see {@link VaccinationTimeSeries}.
+	 *         Built once per snapshot version. If the new version only appends
+	 *         days, only these are added to a copy of the previous columns.
+	 */
+	public VaccinationTimeSeries getTimeSeries() {
+		DatasetSnapshot<VaccinationDataRow> currentSnapshot = this.getSnapshot();
+		VaccinationTimeSeries currentTimeSeries = timeSeries;
+		if (currentTimeSeries == null || currentTimeSeries.getVersion() != currentSnapshot.getVersion()) {
+			currentTimeSeries = VaccinationTimeSeries.from(currentSnapshot, currentTimeSeries);
+			timeSeries = currentTimeSeries;
+		}
+		return currentTimeSeries;
 	}
 
 	/***
@@ -1,77 +1,52 @@
 package de.philliphow.covidimpfde.api.models;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Scanner;
-
-import org.pmw.tinylog.Logger;
+import de.philliphow.covidimpfde.api.TsvSchema;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
 
 /***
  * An abstraction for a parsed tsv (tab separated values) row. One row consists
- * of multiple raw String values that each are identified by a String key
- * (defined in the first line of a tsv file)
- * 
+ * of multiple values that each are identified by a String key (defined in the
+ * first line of a tsv file). The keys are held by a {@link TsvSchema} shared by
+ * all rows of a file. Rows decode the values they need once on construction
+ * and only keep the decoded values, the raw Strings of the tsv row are not
+ * stored.
+ *
  * @author PhillipHow
  *
  */
-public class AbstractTsvRow {
-
-	private Map<String, String> values = new HashMap<>();
+public abstract class AbstractTsvRow {
 
 	/***
-	 * Constructs an AbstractTsvRow by parsing a raw tsv data row in combination
-	 * with the raw file header row (first row which contains the identifiers for
-	 * the data row values). Both strings need to have an equal number of individual
-	 * tokens.
-	 * 
-	 * @param rowAsString A tsv row of data records
-	 * @param headerRow   A tsv row of header values
+	 * Checks an already split tsv data row against the schema of its file.
+	 * Subclasses decode their values from the row afterwards.
+	 *
+	 * @param row    the fields of a tsv row of data records
+	 * @param schema the schema of the tsv file
+	 * @throws IllegalArgumentException if the number of fields differs from the
+	 *                                  number of columns
 	 */
-	public AbstractTsvRow(String rowAsString, String headerRow) {
-		Scanner scanRow = new Scanner(rowAsString);
-		Scanner scanTitle = new Scanner(headerRow);
-
-		while (scanTitle.hasNext()) {
-			this.values.put(scanTitle.next(), scanRow.next());
-		}
-
-		scanRow.close();
-		scanTitle.close();
+	protected AbstractTsvRow(TsvTokenizer row, TsvSchema schema) {
+		if (row.getFieldCount() != schema.getColumnCount())
+			throw new IllegalArgumentException("Tsv row has " + row.getFieldCount() + " fields, but " + schema
+					+ " has " + schema.getColumnCount());
 	}
 
 	/***
-	 * Constructs a AbstractTsvRow from a given key value map. The keys are the
-	 * entries in the header row of a tsv file.
-	 * 
-	 * @param values
+	 * Constructs a row from plain values, which are decoded by the subclass.
 	 */
-	public AbstractTsvRow(Map<String, String> values) {
-		if (values.size() == 0)
-			Logger.warn("AbstractTsvRow with no elements constructed!");
-		this.values.putAll(values);
-	}
-
-	protected boolean hasField(String key) {
-		return values.containsKey(key);
+	protected AbstractTsvRow() {
 	}
 
-	protected String getRawStringField(String key) {
-		return values.get(key);
-	}
-
-	protected int getIntField(String key) {
-		return Integer.parseInt(this.getRawStringField(key));
-	}
-
-	protected double getDoubleField(String key) {
-		return Double.parseDouble(this.getRawStringField(key));
-	}
-
-	@Override
-	public String toString() {
-		StringBuilder sb = new StringBuilder();
-		this.values.forEach((k, v) -> sb.append(k + ":" + v + " "));
-		return sb.toString();
+	/**
+	 * Appends one value in the form of {@code toString}.
+	 *
+	 * @param sb         the builder to append to
+	 * @param columnName the column name of the value
+	 * @param value      the decoded value
+	 * @return the builder
+	 */
+	protected static StringBuilder appendField(StringBuilder sb, String columnName, Object value) {
+		return sb.append(columnName).append(':').append(value).append(' ');
 	}
 
 }
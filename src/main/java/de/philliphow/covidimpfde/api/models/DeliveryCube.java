@@ -0,0 +1,281 @@
+package de.philliphow.covidimpfde.api.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import de.philliphow.covidimpfde.api.DatasetSnapshot;
+
+/**
+ * Delivered doses by calendar week, vaccine and region, as dense three
+ * dimensional array. Along the week axis, the cube stores cumulative sums, so
+ * the doses delivered in any range of weeks are the difference of two cells.
+ * Besides one slot per vaccine and per region, both axes have an additional
+ * slot holding the sum over all vaccines or regions. Any query for one vaccine
+ * (or all vaccines) delivered to one region (or all regions) between two weeks
+ * is thereby answered in constant time.
+ *
+ * Vaccines are ordered by their identifier, regions by their name. A cube is
+ * immutable and has the version of the dataset it was built from.
+ *
+ * @author PhillipHow
+ *
+ */
+public class DeliveryCube {
+
+	/**
+	 * Index to query all vaccines or all regions at once
+	 */
+	public static final int ALL = -1;
+
+	/**
+	 * Prefix of the region names in the data source, like {@code DE-BY}
+	 */
+	private static final String REGION_PREFIX = "DE-";
+
+	private final long version;
+	private final int firstMondayEpochDay;
+	private final int weekCount;
+	private final String[] vaccineIdentifiers;
+	private final String[] regions;
+	/**
+	 * Doses delivered before each week, indexed by
+	 * {@code cellIndex(week, vaccine, region)}. Has one week more than the cube,
+	 * holding the total of all weeks.
+	 */
+	private final long[] cumulativeDoses;
+
+	private DeliveryCube(long version, int firstMondayEpochDay, int weekCount, String[] vaccineIdentifiers,
+			String[] regions, long[] cumulativeDoses) {
+		this.version = version;
+		this.firstMondayEpochDay = firstMondayEpochDay;
+		this.weekCount = weekCount;
+		this.vaccineIdentifiers = vaccineIdentifiers;
+		this.regions = regions;
+		this.cumulativeDoses = cumulativeDoses;
+	}
+
+	/**
+	 * Builds the cube from deliveries with version 0. Deliveries are not
+	 * filtered, filter negative deliveries beforehand if necessary.
+	 *
+	 * @param deliveries the deliveries, in any order
+	 * @return the cube
+	 */
+	public static DeliveryCube from(List<DeliveryDataRow> deliveries) {
+		return from(deliveries, 0);
+	}
+
+	/**
+	 * Builds the cube from deliveries. Deliveries are not filtered, filter
+	 * negative deliveries beforehand if necessary.
+	 *
+	 * @param deliveries the deliveries, in any order
+	 * @param version    the version of the {@link DatasetSnapshot} the
+	 *                   deliveries stem from
+	 * @return the cube
+	 */
+	public static DeliveryCube from(List<DeliveryDataRow> deliveries, long version) {
+		TreeSet<String> vaccineSet = new TreeSet<>();
+		TreeSet<String> regionSet = new TreeSet<>();
+		int firstMonday = Integer.MAX_VALUE;
+		int lastMonday = Integer.MIN_VALUE;
+		for (DeliveryDataRow delivery : deliveries) {
+			vaccineSet.add(delivery.getVaccineIdentifier());
+			regionSet.add(delivery.getRegion());
+			firstMonday = Math.min(firstMonday, delivery.getCalendarWeekMondayEpochDay());
+			lastMonday = Math.max(lastMonday, delivery.getCalendarWeekMondayEpochDay());
+		}
+
+		String[] vaccineIdentifiers = vaccineSet.toArray(new String[0]);
+		String[] regions = regionSet.toArray(new String[0]);
+		if (deliveries.isEmpty())
+			firstMonday = lastMonday = DeliveryDataRow.getMondayEpochDayFor(0);
+		int weekCount = deliveries.isEmpty() ? 0 : (lastMonday - firstMonday) / 7 + 1;
+		DeliveryCube cube = new DeliveryCube(version, firstMonday, weekCount, vaccineIdentifiers, regions,
+				new long[(weekCount + 1) * (vaccineIdentifiers.length + 1) * (regions.length + 1)]);
+
+		// sum up each week in the cells of the following week, then accumulate
+		long[] doses = cube.cumulativeDoses;
+		for (DeliveryDataRow delivery : deliveries) {
+			int week = (delivery.getCalendarWeekMondayEpochDay() - firstMonday) / 7;
+			int vaccine = Arrays.binarySearch(vaccineIdentifiers, delivery.getVaccineIdentifier());
+			int region = Arrays.binarySearch(regions, delivery.getRegion());
+
+			doses[cube.cellIndex(week + 1, vaccine, region)] += delivery.getDoses();
+			doses[cube.cellIndex(week + 1, ALL, region)] += delivery.getDoses();
+			doses[cube.cellIndex(week + 1, vaccine, ALL)] += delivery.getDoses();
+			doses[cube.cellIndex(week + 1, ALL, ALL)] += delivery.getDoses();
+		}
+		int cellsPerWeek = (vaccineIdentifiers.length + 1) * (regions.length + 1);
+		for (int cell = cellsPerWeek; cell < doses.length; cell++) {
+			doses[cell] += doses[cell - cellsPerWeek];
+		}
+
+		return cube;
+	}
+
+	/**
+	 * @param week    the week, 0 to {@code getWeekCount} inclusive
+	 * @param vaccine the vaccine index or {@code ALL}
+	 * @param region  the region index or {@code ALL}
+	 * @return the index of the cell in {@code cumulativeDoses}
+	 */
+	private int cellIndex(int week, int vaccine, int region) {
+		int vaccineSlot = vaccine == ALL ? vaccineIdentifiers.length : vaccine;
+		int regionSlot = region == ALL ? regions.length : region;
+		return (week * (vaccineIdentifiers.length + 1) + vaccineSlot) * (regions.length + 1) + regionSlot;
+	}
+
+	/**
+	 * Gets the doses delivered during a range of weeks.
+	 *
+	 * @param fromWeek the first week, inclusive
+	 * @param toWeek   the last week, exclusive
+	 * @param vaccine  the vaccine index or {@code ALL}
+	 * @param region   the region index or {@code ALL}
+	 * @return the delivered doses
+	 */
+	public long getDoses(int fromWeek, int toWeek, int vaccine, int region) {
+		if (fromWeek < 0 || toWeek > weekCount || fromWeek > toWeek)
+			throw new IndexOutOfBoundsException("Weeks " + fromWeek + " to " + toWeek + " of " + weekCount);
+		checkIndex(vaccine, vaccineIdentifiers.length);
+		checkIndex(region, regions.length);
+
+		return cumulativeDoses[cellIndex(toWeek, vaccine, region)]
+				- cumulativeDoses[cellIndex(fromWeek, vaccine, region)];
+	}
+
+	/**
+	 * @param week    the week
+	 * @param vaccine the vaccine index or {@code ALL}
+	 * @param region  the region index or {@code ALL}
+	 * @return the doses delivered during the week
+	 */
+	public long getWeekDoses(int week, int vaccine, int region) {
+		return getDoses(week, week + 1, vaccine, region);
+	}
+
+	/**
+	 * Finds the biggest delivery of one vaccine in one week to one region.
+	 *
+	 * @param fromWeek the first week to search, inclusive
+	 * @param toWeek   the last week to search, exclusive
+	 * @param region   the region index, or {@code ALL} to search every region
+	 * @return the delivery with the most doses, the earliest one if there are
+	 *         multiple. null if nothing has been delivered in the range.
+	 */
+	public DeliveryDataRow getBiggestDelivery(int fromWeek, int toWeek, int region) {
+		int firstRegion = region == ALL ? 0 : region;
+		int lastRegion = region == ALL ? regions.length - 1 : region;
+
+		DeliveryDataRow biggestDelivery = null;
+		for (int week = fromWeek; week < toWeek; week++) {
+			for (int vaccine = 0; vaccine < vaccineIdentifiers.length; vaccine++) {
+				for (int currentRegion = firstRegion; currentRegion <= lastRegion; currentRegion++) {
+					long doses = getWeekDoses(week, vaccine, currentRegion);
+					if (doses != 0 && (biggestDelivery == null || doses > biggestDelivery.getDoses()))
+						biggestDelivery = toDelivery(week, vaccine, currentRegion, doses);
+				}
+			}
+		}
+		return biggestDelivery;
+	}
+
+	/**
+	 * Creates one delivery for each week and vaccine with doses delivered to
+	 * the region.
+	 *
+	 * @param region the region index or {@code ALL}
+	 * @return the deliveries, ordered by week and vaccine identifier
+	 */
+	public List<DeliveryDataRow> toDeliveries(int region) {
+		List<DeliveryDataRow> deliveries = new ArrayList<>();
+		for (int week = 0; week < weekCount; week++) {
+			for (int vaccine = 0; vaccine < vaccineIdentifiers.length; vaccine++) {
+				long doses = getWeekDoses(week, vaccine, region);
+				if (doses != 0)
+					deliveries.add(toDelivery(week, vaccine, region, doses));
+			}
+		}
+		return deliveries;
+	}
+
+	private DeliveryDataRow toDelivery(int week, int vaccine, int region, long doses) {
+		return new DeliveryDataRow(getWeekMonday(week), vaccineIdentifiers[vaccine], getRegionName(region),
+				Math.toIntExact(doses));
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public int getWeekCount() {
+		return weekCount;
+	}
+
+	public LocalDate getWeekMonday(int week) {
+		return LocalDate.ofEpochDay(firstMondayEpochDay + week * 7L);
+	}
+
+	/**
+	 * @param date any date
+	 * @return the index of the week of the date, may be out of the range of this
+	 *         cube
+	 */
+	public int weekOf(LocalDate date) {
+		return Math.floorDiv(DeliveryDataRow.getMondayEpochDayFor((int) date.toEpochDay()) - firstMondayEpochDay,
+				7);
+	}
+
+	public int getVaccineCount() {
+		return vaccineIdentifiers.length;
+	}
+
+	public String getVaccineIdentifier(int vaccine) {
+		return vaccineIdentifiers[vaccine];
+	}
+
+	/**
+	 * @param vaccineIdentifier the vaccine, as given in the tsv file
+	 * @return the vaccine index, or -1 if the vaccine has not been delivered
+	 */
+	public int vaccineIndexOf(String vaccineIdentifier) {
+		int vaccine = Arrays.binarySearch(vaccineIdentifiers, vaccineIdentifier);
+		return vaccine >= 0 ? vaccine : -1;
+	}
+
+	public int getRegionCount() {
+		return regions.length;
+	}
+
+	/**
+	 * @param region the region index or {@code ALL}
+	 * @return the region name as given in the tsv file, or {@code MULTIPLE} for
+	 *         all regions
+	 */
+	public String getRegionName(int region) {
+		return region == ALL ? "MULTIPLE" : regions[region];
+	}
+
+	/**
+	 * @param region the region as given in the tsv file, like {@code DE-BY}, or
+	 *               without country prefix, like {@code BY}. Case insensitive.
+	 * @return the region index, or -1 if nothing has been delivered to the region
+	 */
+	public int regionIndexOf(String region) {
+		for (int i = 0; i < regions.length; i++) {
+			if (regions[i].equalsIgnoreCase(region) || regions[i].equalsIgnoreCase(REGION_PREFIX + region))
+				return i;
+		}
+		return -1;
+	}
+
+	private static void checkIndex(int index, int count) {
+		if (index != ALL && (index < 0 || index >= count))
+			throw new IndexOutOfBoundsException("Index " + index + " of " + count);
+	}
+
+}
@@ -2,11 +2,13 @@ package de.philliphow.covidimpfde.api.models;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoField;
-import java.util.HashMap;
-import java.util.Map;
+
+import de.philliphow.covidimpfde.api.TsvSchema;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
 
 /***
- * A representation of a vaccine delivery in a certain region.
+ * A representation of a vaccine delivery in a certain region. All fields are
+ * decoded once on construction.
  * 
  * @author PhillipHow
  *
@@ -41,6 +43,21 @@ public class DeliveryDataRow extends AbstractTsvRow {
 		}
 	}
 
+	/**
+	 * Delivery date, as days since 1970-01-01
+	 */
+	private final int epochDay;
+	/**
+	 * Monday of the delivery week, as days since 1970-01-01
+	 */
+	private final int mondayEpochDay;
+	/**
+	 * The vaccine, resolved once, its identifier is shared by all rows
+	 */
+	private final Vaccine vaccine;
+	private final String region;
+	private final int doses;
+
 	/**
 	 * Constructs a {@code DeliveryDataRow} from a raw tsv data row
 	 * 
@@ -48,7 +65,28 @@ public class DeliveryDataRow extends AbstractTsvRow {
 	 * @param headerRow the header row of the tsv file
 	 */
 	public DeliveryDataRow(String dataRow, String headerRow) {
-		super(dataRow, headerRow);
+		this(new TsvTokenizer().tokenize(dataRow), TsvSchema.fromHeaderLine(headerRow));
+	}
+
+	/**
+	 * Constructs a {@code DeliveryDataRow} from an already split tsv data row
+	 * 
+	 * @param dataRow the fields of the tsv data row
+	 * @param schema  the schema of the tsv file
+	 */
+	public DeliveryDataRow(TsvTokenizer dataRow, TsvSchema schema) {
+		super(dataRow, schema);
+		int[] fieldColumns = schema.getColumnIndices(DeliveryDataField.class, DeliveryDataField::getFieldName);
+		for (DeliveryDataField field : DeliveryDataField.values()) {
+			if (fieldColumns[field.ordinal()] < 0)
+				throw new IllegalArgumentException("Delivery data has no column " + field.fieldName);
+		}
+
+		this.epochDay = dataRow.parseEpochDay(fieldColumns[DeliveryDataField.DATE.ordinal()]);
+		this.mondayEpochDay = getMondayEpochDayFor(epochDay);
+		this.vaccine = Vaccine.byDeliveryDataIdentifier(dataRow.getString(fieldColumns[DeliveryDataField.VACCINE.ordinal()]));
+		this.region = dataRow.getString(fieldColumns[DeliveryDataField.REGION.ordinal()]);
+		this.doses = dataRow.parseInt(fieldColumns[DeliveryDataField.DOSES.ordinal()]);
 	}
 
 	/**
@@ -60,11 +98,15 @@ public class DeliveryDataRow extends AbstractTsvRow {
 	 * @param doses   number of doses delivered
 	 */
 	public DeliveryDataRow(LocalDate date, String vaccine, String region, int doses) {
-		super(DeliveryDataRow.generateKeyValueMap(date, vaccine, region, doses));
+		this.epochDay = (int) date.toEpochDay();
+		this.mondayEpochDay = getMondayEpochDayFor(epochDay);
+		this.vaccine = Vaccine.byDeliveryDataIdentifier(vaccine);
+		this.region = region;
+		this.doses = doses;
 	}
 
 	private LocalDate getDate() {
-		return LocalDate.parse(this.getRawStringField(DeliveryDataField.DATE.getFieldName()));
+		return LocalDate.ofEpochDay(epochDay);
 	}
 	
 	public int getCalendarWeek() {
@@ -72,28 +114,35 @@ public class DeliveryDataRow extends AbstractTsvRow {
 	}
 	
 	public LocalDate getCalendarWeekMonday() {
-		return getMondayFor(this.getDate());
+		return LocalDate.ofEpochDay(mondayEpochDay);
+	}
+
+	/**
+	 * @return the monday of the delivery week, as days since 1970-01-01
+	 */
+	public int getCalendarWeekMondayEpochDay() {
+		return mondayEpochDay;
 	}
 
 	/**
 	 * @return a plain String that is the vaccine name, as provided in the tsv file
 	 */
 	public String getVaccineIdentifier() {
-		return this.getStringField(DeliveryDataField.VACCINE);
+		return vaccine.getDeliveryDataIdentifier();
 	}
 
 	/**
 	 * @return an object of type Vaccine
 	 */
 	public Vaccine getVaccine() {
-		return Vaccine.byDeliveryDataIdentifier(this.getVaccineIdentifier());
+		return vaccine;
 	}
 
 	/**
 	 * @return the number of doses delivered in this delivery
 	 */
 	public int getDoses() {
-		return this.getIntField(DeliveryDataField.DOSES);
+		return doses;
 	}
 
 	/**
@@ -101,15 +150,7 @@ public class DeliveryDataRow extends AbstractTsvRow {
 	 *         to group multiple local deliveries to one big federal delivery.
 	 */
 	public String getRegion() {
-		return this.getStringField(DeliveryDataField.REGION);
-	}
-
-	private String getStringField(DeliveryDataField field) {
-		return this.getRawStringField(field.fieldName);
-	}
-
-	private int getIntField(DeliveryDataField field) {
-		return this.getIntField(field.fieldName);
+		return region;
 	}
 
 	/**
@@ -135,23 +176,18 @@ public class DeliveryDataRow extends AbstractTsvRow {
 		}
 	}
 
-	private static Map<String, String> generateKeyValueMap(LocalDate date, String vaccine, String region, int doses) {
-		Map<String, String> keyValueMap = new HashMap<>();
-		keyValueMap.put(DeliveryDataField.DATE.fieldName, date.toString());
-		keyValueMap.put(DeliveryDataField.VACCINE.fieldName, vaccine);
-		keyValueMap.put(DeliveryDataField.DOSES.fieldName, Integer.toString(doses));
-		keyValueMap.put(DeliveryDataField.REGION.fieldName, region);
-		return keyValueMap;
-	}
-
 	@Override
 	public String toString() {
-		return "DeliveryDataRow " + super.toString();
+		StringBuilder sb = new StringBuilder("DeliveryDataRow ");
+		appendField(sb, DeliveryDataField.DATE.fieldName, getDate());
+		appendField(sb, DeliveryDataField.VACCINE.fieldName, getVaccineIdentifier());
+		appendField(sb, DeliveryDataField.REGION.fieldName, region);
+		appendField(sb, DeliveryDataField.DOSES.fieldName, doses);
+		return sb.toString();
 	}
 
 	private boolean referenceTheSameWeeklyDelivery(DeliveryDataRow other) {
-		return this.getCalendarWeekMonday().equals(other.getCalendarWeekMonday())
-				&& this.getVaccineIdentifier().equals(other.getVaccineIdentifier());
+		return this.mondayEpochDay == other.mondayEpochDay && this.vaccine == other.vaccine;
 	}
 
 	@Override
@@ -171,4 +207,13 @@ public class DeliveryDataRow extends AbstractTsvRow {
 		return monday;
 	}
 
+	/**
+	 * @param epochDay a date as days since 1970-01-01
+	 * @return the monday of the week of the date, as days since 1970-01-01
+	 */
+	public static int getMondayEpochDayFor(int epochDay) {
+		// 1970-01-01 was a thursday
+		return epochDay - Math.floorMod(epochDay + 3, 7);
+	}
+
 }
@@ -0,0 +1,200 @@
+package de.philliphow.covidimpfde.api.models;
+
+import java.util.Arrays;
+
+/**
+ * Order statistics over the values of a daily column, like the doses issued
+ * per day. Keeps the days sorted by value, so the rank of any day is found by
+ * a binary search and the top days are read off the end of the sorted array.
+ * Days are appended one by one as they arrive, each append inserts into the
+ * sorted arrays. The value of a day can be changed later, like the doses of a
+ * calendar week that is still running.
+ *
+ * Days with equal values share their rank. Among them, the earlier day comes
+ * first in {@code getTopDays}.
+ *
+ * Not thread safe while days are added.
+ *
+ * @author PhillipHow
+ *
+ */
+public class RankIndex {
+
+	/**
+	 * Value of each day, indexed by day
+	 */
+	private int[] valuesByDay;
+	/**
+	 * The values, ascending. Equal values are ordered by descending day.
+	 */
+	private int[] sortedValues;
+	/**
+	 * The day of each value in {@code sortedValues}
+	 */
+	private int[] sortedDays;
+	private int size = 0;
+
+	public RankIndex() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedDays number of days expected, to avoid resizing
+	 */
+	public RankIndex(int expectedDays) {
+		int capacity = Math.max(expectedDays, 1);
+		valuesByDay = new int[capacity];
+		sortedValues = new int[capacity];
+		sortedDays = new int[capacity];
+	}
+
+	private RankIndex(RankIndex other) {
+		this.valuesByDay = other.valuesByDay.clone();
+		this.sortedValues = other.sortedValues.clone();
+		this.sortedDays = other.sortedDays.clone();
+		this.size = other.size;
+	}
+
+	/**
+	 * @return an independent copy, to add days to without changing this index
+	 */
+	public RankIndex copy() {
+		return new RankIndex(this);
+	}
+
+	/**
+	 * Appends the next day.
+	 *
+	 * @param value the value of the day
+	 * @return the index of the added day
+	 */
+	public int add(int value) {
+		if (size == valuesByDay.length) {
+			int capacity = size * 2;
+			valuesByDay = Arrays.copyOf(valuesByDay, capacity);
+			sortedValues = Arrays.copyOf(sortedValues, capacity);
+			sortedDays = Arrays.copyOf(sortedDays, capacity);
+		}
+
+		int day = size;
+		valuesByDay[day] = value;
+		insert(value, day);
+		return day;
+	}
+
+	/**
+	 * Changes the value of a day that has already been added.
+	 *
+	 * @param day   index of the day
+	 * @param value the new value of the day
+	 */
+	public void setValue(int day, int value) {
+		int oldValue = getValue(day);
+		if (oldValue == value)
+			return;
+
+		int position = lowerBound(oldValue);
+		while (sortedDays[position] != day)
+			position++;
+		size--;
+		System.arraycopy(sortedValues, position + 1, sortedValues, position, size - position);
+		System.arraycopy(sortedDays, position + 1, sortedDays, position, size - position);
+
+		valuesByDay[day] = value;
+		insert(value, day);
+	}
+
+	/**
+	 * Inserts a value into the sorted arrays, before the values that are equal
+	 * but belong to earlier days. Appended days are the latest, so they go
+	 * before all equal values right away.
+	 */
+	private void insert(int value, int day) {
+		int position = lowerBound(value);
+		while (position < size && sortedValues[position] == value && sortedDays[position] > day)
+			position++;
+
+		System.arraycopy(sortedValues, position, sortedValues, position + 1, size - position);
+		System.arraycopy(sortedDays, position, sortedDays, position + 1, size - position);
+		sortedValues[position] = value;
+		sortedDays[position] = day;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param day index of the day
+	 * @return the value of the day
+	 */
+	public int getValue(int day) {
+		if (day < 0 || day >= size)
+			throw new IndexOutOfBoundsException("Day " + day + " of " + size + " days requested");
+		return valuesByDay[day];
+	}
+
+	/**
+	 * @param day index of the day
+	 * @return 1 if no day has a greater value, 2 if one day has, and so on
+	 */
+	public int getRank(int day) {
+		return getRankOf(getValue(day));
+	}
+
+	/**
+	 * @param value any value
+	 * @return the rank a day with this value would have, 1 + number of days
+	 *         with a greater value
+	 */
+	public int getRankOf(int value) {
+		return size - upperBound(value) + 1;
+	}
+
+	/**
+	 * @param k the number of days
+	 * @return the indices of the k days with the greatest values, the greatest
+	 *         first. Less than k if there are not enough days.
+	 */
+	public int[] getTopDays(int k) {
+		int[] topDays = new int[Math.min(Math.max(k, 0), size)];
+		for (int i = 0; i < topDays.length; i++) {
+			topDays[i] = sortedDays[size - 1 - i];
+		}
+		return topDays;
+	}
+
+	/**
+	 * @return position of the first value not less than the given value
+	 */
+	private int lowerBound(int value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sortedValues[middle] < value)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * @return position of the first value greater than the given value
+	 */
+	private int upperBound(int value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sortedValues[middle] <= value)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+}
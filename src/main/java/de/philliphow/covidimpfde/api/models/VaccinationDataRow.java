@@ -4,12 +4,16 @@ import java.time.LocalDate;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import de.philliphow.covidimpfde.api.TsvSchema;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
+
 /**
  * A representation of the vaccination data for one day. Contains new
  * vaccinations on that day, the total vaccinations, vaccinations by vaccine, first
  * and full dose statistics and the vaccinated population quota. Note that
  * additional data for the indication (the vaccination "reason") is also
- * provided by the API, but not used currently.
+ * provided by the API, but not used currently. All fields are decoded once on
+ * construction, the getters only return the stored values.
  * 
  * @author PhillipHow
  *
@@ -40,8 +44,8 @@ public class VaccinationDataRow extends AbstractTsvRow {
 		PERSONS_TOTAL_SECOND("personen_voll_kumulativ"),
 		PERSONS_TOTAL_THIRD("personen_auffrisch_kumulativ"),
 		
-		POPULATION_QUOTA_FIRST_SHOT("impf_quote_erst"), 
-		POPULATION_QUOTA_SECOND_SHOT("impf_quote_voll");
+		POPULATION_QUOTA_FIRST_SHOT("impf_quote_erst", true), 
+		POPULATION_QUOTA_SECOND_SHOT("impf_quote_voll", true);
 
 		// INDICATION NOT USED CURRENTLY
 
@@ -50,16 +54,46 @@ public class VaccinationDataRow extends AbstractTsvRow {
 		 * date, total shots, etc as string.
 		 */
 		private final String fieldName;
+		/**
+		 * True for fields with decimal values, all other fields except the date are
+		 * ints
+		 */
+		private final boolean isDecimal;
 
 		private VaccinationsDataField(String fieldName) {
+			this(fieldName, false);
+		}
+
+		private VaccinationsDataField(String fieldName, boolean isDecimal) {
 			this.fieldName = fieldName;
+			this.isDecimal = isDecimal;
 		}
 
 		public String getFieldName() {
 			return this.fieldName;
 		}
+
+		public boolean isDecimal() {
+			return this.isDecimal;
+		}
 	}
 
+	private static final VaccinationsDataField[] FIELDS = VaccinationsDataField.values();
+
+	/**
+	 * The decoded value of each int field, indexed by the field ordinal. The date
+	 * is stored as epoch day.
+	 */
+	private final int[] intValues = new int[FIELDS.length];
+	private final double populationQuotaFirstShot;
+	private final double populationQuotaSecondShot;
+	/**
+	 * Bit set of the fields that are provided by this row, by field ordinal.
+	 * Fields are missing if the file has no such column (like
+	 * {@code SHOTS_TODAY_THIRD} in older files) or if the value is not a number.
+	 */
+	private final int presentFields;
+
 	/**
 	 * Constructs a {@code VaccinationsDataRow} by a raw tsv file data row.
 	 * 
@@ -67,18 +101,77 @@ public class VaccinationDataRow extends AbstractTsvRow {
 	 * @param headerRow the raw header row of the tsv file
 	 */
 	public VaccinationDataRow(String dataRow, String headerRow) {
-		super(dataRow, headerRow);
+		this(new TsvTokenizer().tokenize(dataRow), TsvSchema.fromHeaderLine(headerRow));
+	}
+
+	/**
+	 * Constructs a {@code VaccinationsDataRow} by an already split tsv file data
+	 * row.
+	 * 
+	 * @param dataRow the fields of the tsv data row
+	 * @param schema  the schema of the tsv file
+	 */
+	public VaccinationDataRow(TsvTokenizer dataRow, TsvSchema schema) {
+		super(dataRow, schema);
+		int[] fieldColumns = schema.getColumnIndices(VaccinationsDataField.class,
+				VaccinationsDataField::getFieldName);
+
+		int decodedFields = 0;
+		for (VaccinationsDataField field : FIELDS) {
+			int column = fieldColumns[field.ordinal()];
+			if (column < 0 || field.isDecimal())
+				continue;
+			try {
+				intValues[field.ordinal()] = (field == VaccinationsDataField.DATE) ? dataRow.parseEpochDay(column)
+						: dataRow.parseInt(column);
+				decodedFields |= 1 << field.ordinal();
+			} catch (NumberFormatException exception) {
+				// unused or not yet filled columns must not break the row
+			}
+		}
+		if (!isPresent(decodedFields, VaccinationsDataField.DATE))
+			throw new IllegalArgumentException("Vaccination data row without date, " + schema);
+
+		this.populationQuotaFirstShot = decodeDecimal(dataRow,
+				fieldColumns[VaccinationsDataField.POPULATION_QUOTA_FIRST_SHOT.ordinal()]);
+		this.populationQuotaSecondShot = decodeDecimal(dataRow,
+				fieldColumns[VaccinationsDataField.POPULATION_QUOTA_SECOND_SHOT.ordinal()]);
+		if (!Double.isNaN(populationQuotaFirstShot))
+			decodedFields |= 1 << VaccinationsDataField.POPULATION_QUOTA_FIRST_SHOT.ordinal();
+		if (!Double.isNaN(populationQuotaSecondShot))
+			decodedFields |= 1 << VaccinationsDataField.POPULATION_QUOTA_SECOND_SHOT.ordinal();
+
+		this.presentFields = decodedFields;
+	}
+
+	private static double decodeDecimal(TsvTokenizer dataRow, int column) {
+		try {
+			return column < 0 ? Double.NaN : dataRow.parseDouble(column);
+		} catch (NumberFormatException exception) {
+			return Double.NaN;
+		}
+	}
+
+	private static boolean isPresent(int fieldSet, VaccinationsDataField field) {
+		return (fieldSet & (1 << field.ordinal())) != 0;
 	}
 
 	public LocalDate getDate() {
-		return LocalDate.parse(this.getRawStringField(VaccinationsDataField.DATE.fieldName));
+		return LocalDate.ofEpochDay(getEpochDay());
+	}
+
+	/**
+	 * @return the date of this data record, as days since 1970-01-01
+	 */
+	public int getEpochDay() {
+		return intValues[VaccinationsDataField.DATE.ordinal()];
 	}
 
 	/**
 	 * @return total number of shots issued to the day of this data record
 	 */
 	public int getTotalShots() {
-		return this.getIntField(VaccinationsDataField.SHOTS_TOTAL);
+		return this.getIntValue(VaccinationsDataField.SHOTS_TOTAL);
 	}
 
 	/**
@@ -88,14 +181,14 @@ public class VaccinationDataRow extends AbstractTsvRow {
 	 * @return total number of shots by vaccine
 	 */
 	public int getTotalShotsByVaccine(Vaccine vaccine) {
-		return this.getIntField(vaccine.getVaccinationsDataField());
+		return this.getIntValue(vaccine.getVaccinationsDataField());
 	}
 
 	/**
 	 * @return the number of vaccination shots issued on this day
 	 */
 	public int getShotsToday() {
-		return this.getIntField(VaccinationsDataField.SHOTS_TODAY);
+		return this.getIntValue(VaccinationsDataField.SHOTS_TODAY);
 	}
 
 	/**
@@ -103,7 +196,7 @@ public class VaccinationDataRow extends AbstractTsvRow {
 	 *         not received any vaccine yet
 	 */
 	public int getFirstShotsToday() {
-		return this.getIntField(VaccinationsDataField.SHOTS_TODAY_FIRST);
+		return this.getIntValue(VaccinationsDataField.SHOTS_TODAY_FIRST);
 	}
 
 	/**
@@ -111,51 +204,86 @@ public class VaccinationDataRow extends AbstractTsvRow {
 	 *         vaccination process for those people
 	 */
 	public int getSecondShotsToday() {
-		return this.getIntField(VaccinationsDataField.SHOTS_TODAY_SECOND);
+		return this.getIntValue(VaccinationsDataField.SHOTS_TODAY_SECOND);
 	}
 	
 	
 	public int getThirdShotsToday() {
-		return this.getIntField(VaccinationsDataField.SHOTS_TODAY_THIRD);
+		return this.getIntValue(VaccinationsDataField.SHOTS_TODAY_THIRD);
 	}
 
 	public int getPersonsVaccinatedOnce() {
-		return this.getIntField(VaccinationsDataField.PERSONS_TOTAL_FIRST);
+		return this.getIntValue(VaccinationsDataField.PERSONS_TOTAL_FIRST);
 	}
 
 	public int getPersonsVaccinatedFull() {
-		return this.getIntField(VaccinationsDataField.PERSONS_TOTAL_SECOND);
+		return this.getIntValue(VaccinationsDataField.PERSONS_TOTAL_SECOND);
 	}
 	
 	public int getPersonsVaccinatedThrice() {
-		return this.getIntField(VaccinationsDataField.PERSONS_TOTAL_THIRD);
+		return this.getIntValue(VaccinationsDataField.PERSONS_TOTAL_THIRD);
 	}
 
 	/**
 	 * @return the portion of the population who have received at least one dose
 	 */
 	public double getPopulationQuotaVaccinatedOnce() {
-		return this.getDoubleField(VaccinationsDataField.POPULATION_QUOTA_FIRST_SHOT);
+		return this.getDecimalValue(VaccinationsDataField.POPULATION_QUOTA_FIRST_SHOT);
 	}
 
 	/**
 	 * @return the portion of the population who have been fully vaccinated
 	 */
 	public double getPopulationQuotaVaccinatedFull() {
-		return this.getDoubleField(VaccinationsDataField.POPULATION_QUOTA_SECOND_SHOT);
+		return this.getDecimalValue(VaccinationsDataField.POPULATION_QUOTA_SECOND_SHOT);
 	}
 
-	private int getIntField(VaccinationsDataField field) {
-		return this.getIntField(field.fieldName);
+	/**
+	 * @param field the field to check
+	 * @return true if the file of this row provides the field. Newer fields like
+	 *         {@code SHOTS_TODAY_THIRD} are missing in older files.
+	 */
+	public boolean hasField(VaccinationsDataField field) {
+		return isPresent(presentFields, field);
 	}
 
-	private double getDoubleField(VaccinationsDataField field) {
-		return this.getDoubleField(field.fieldName);
+	/**
+	 * @param field an int field
+	 * @return the decoded value of the field
+	 * @throws IllegalStateException if this row does not provide the field
+	 */
+	public int getIntValue(VaccinationsDataField field) {
+		if (!hasField(field))
+			throw new IllegalStateException(field + " is not provided by " + this);
+		return intValues[field.ordinal()];
+	}
+
+	/**
+	 * @param field a decimal field
+	 * @return the decoded value of the field
+	 * @throws IllegalStateException if this row does not provide the field
+	 */
+	public double getDecimalValue(VaccinationsDataField field) {
+		if (!hasField(field))
+			throw new IllegalStateException(field + " is not provided by " + this);
+		return field == VaccinationsDataField.POPULATION_QUOTA_FIRST_SHOT ? populationQuotaFirstShot
+				: populationQuotaSecondShot;
 	}
 
 	@Override
 	public String toString() {
-		return "VaccinationsDataRow " + super.toString();
+		StringBuilder sb = new StringBuilder("VaccinationsDataRow ");
+		for (VaccinationsDataField field : FIELDS) {
+			if (!hasField(field))
+				continue;
+			if (field == VaccinationsDataField.DATE)
+				appendField(sb, field.getFieldName(), getDate());
+			else if (field.isDecimal())
+				appendField(sb, field.getFieldName(), getDecimalValue(field));
+			else
+				appendField(sb, field.getFieldName(), getIntValue(field));
+		}
+		return sb.toString();
 	}
 
 	@Override
@@ -165,10 +293,11 @@ public class VaccinationDataRow extends AbstractTsvRow {
 			return false;
 		VaccinationDataRow other = (VaccinationDataRow) obj;
 
-		Predicate<VaccinationsDataField> fieldsAreEqual = (field) -> this.getRawStringField(field.getFieldName())
-				.equals(other.getRawStringField(field.getFieldName()));
+		Predicate<VaccinationsDataField> fieldsAreEqual = (field) -> other.hasField(field) && (field.isDecimal()
+				? Double.compare(this.getDecimalValue(field), other.getDecimalValue(field)) == 0
+				: this.intValues[field.ordinal()] == other.intValues[field.ordinal()]);
 
-		return Stream.of(VaccinationsDataField.values()).filter(field -> this.hasField(field.getFieldName()))
+		return Stream.of(VaccinationsDataField.values()).filter(field -> this.hasField(field))
 				.allMatch(fieldsAreEqual);
 
 	}
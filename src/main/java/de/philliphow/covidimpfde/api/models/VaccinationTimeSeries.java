@@ -0,0 +1,541 @@
+package de.philliphow.covidimpfde.api.models;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.philliphow.covidimpfde.api.DatasetSnapshot;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
+
+/**
+ * Columnar view on the vaccination data: one primitive array per
+ * {@link VaccinationsDataField}, indexed by the day of the campaign. Scanning
+ * one field across all days reads a single array instead of visiting every
+ * {@link VaccinationDataRow}. Days keep the order of the rows they were built
+ * from. The data source provides one row per day in date order, so the index
+ * of a day is its offset from the first day of the campaign.
+ *
+ * Each int column also has a column of prefix sums, so the sum of a field over
+ * any range of days, and thereby any moving average, is the difference of two
+ * values. Ranking queries are answered by a {@link RankIndex} per field, built
+ * on first use.
+ *
+ * A time series is immutable. {@code upTo} creates shorter views that share
+ * the arrays of the full series. When a new snapshot only appends days, the
+ * time series of the new snapshot is built from the previous one: its columns,
+ * and the rank indices and weekly aggregation built so far, are copied and
+ * only the new days are added.
+ *
+ * @author PhillipHow
+ *
+ */
+public class VaccinationTimeSeries {
+
+	private static final VaccinationsDataField[] FIELDS = VaccinationsDataField.values();
+
+	/**
+	 * Version of the dataset snapshot the columns were built from
+	 */
+	private final long version;
+	/**
+	 * Number of days visible in this view
+	 */
+	private final int length;
+	/**
+	 * Dates of the days, as days since 1970-01-01
+	 */
+	private final int[] epochDays;
+	/**
+	 * One column per int field, indexed by field ordinal. Null for the date and
+	 * decimal fields.
+	 */
+	private final int[][] intColumns;
+	/**
+	 * One column per decimal field, indexed by field ordinal. Null for all other
+	 * fields.
+	 */
+	private final double[][] decimalColumns;
+	/**
+	 * Prefix sums of the int columns, indexed by field ordinal. Element
+	 * {@code day} holds the sum of all days before {@code day}, so each column is
+	 * one element longer than the int column.
+	 */
+	private final long[][] prefixSums;
+	/**
+	 * Bit set of the fields that are provided on every day, by field ordinal
+	 */
+	private final int availableFields;
+	/**
+	 * True if the dates are strictly ascending, which allows binary searches
+	 */
+	private final boolean isOrderedByDate;
+	/**
+	 * Bit set of the int fields whose values never decrease from one day to the
+	 * next, like the cumulative fields, by field ordinal
+	 */
+	private final int nonDecreasingFields;
+	/**
+	 * The rows the columns were built from, to hand out single days as rows
+	 */
+	private final VaccinationDataRow[] rows;
+	/**
+	 * Rank index of each int field by field ordinal, built on first use
+	 */
+	private final RankIndex[] rankIndices = new RankIndex[FIELDS.length];
+	/**
+	 * Doses per calendar week, built on first use
+	 */
+	private WeeklyAggregation weeklyAggregation = null;
+
+	private VaccinationTimeSeries(long version, int length, int[] epochDays, int[][] intColumns, double[][] decimalColumns,
+			long[][] prefixSums, int availableFields, boolean isOrderedByDate, int nonDecreasingFields,
+			VaccinationDataRow[] rows) {
+		this.version = version;
+		this.length = length;
+		this.epochDays = epochDays;
+		this.intColumns = intColumns;
+		this.decimalColumns = decimalColumns;
+		this.prefixSums = prefixSums;
+		this.availableFields = availableFields;
+		this.isOrderedByDate = isOrderedByDate;
+		this.nonDecreasingFields = nonDecreasingFields;
+		this.rows = rows;
+	}
+
+	/**
+	 * Builds the columns from the given rows.
+	 *
+	 * @param vaccinationData one row per day, usually ordered by date
+	 * @return the time series, with version 0
+	 */
+	public static VaccinationTimeSeries from(List<VaccinationDataRow> vaccinationData) {
+		return from(vaccinationData, 0);
+	}
+
+	/**
+	 * Builds the columns from the rows of a dataset snapshot.
+	 *
+	 * @param snapshot the vaccination data, one row per day
+	 * @return the time series, with the version of the snapshot
+	 */
+	public static VaccinationTimeSeries from(DatasetSnapshot<VaccinationDataRow> snapshot) {
+		return from(snapshot.getRows(), snapshot.getVersion());
+	}
+
+	/**
+	 * Builds the columns from the rows of a dataset snapshot, reusing the time
+	 * series of an earlier snapshot if the new snapshot only appends days to it.
+	 *
+	 * @param snapshot the vaccination data, one row per day
+	 * @param previous the time series of an earlier snapshot, or null
+	 * @return the time series, with the version of the snapshot
+	 */
+	public static VaccinationTimeSeries from(DatasetSnapshot<VaccinationDataRow> snapshot,
+			VaccinationTimeSeries previous) {
+		return from(snapshot.getRows(), snapshot.getVersion(), previous);
+	}
+
+	/**
+	 * Builds the columns from the given rows, reusing the time series of earlier
+	 * rows if the given rows only append days to them.
+	 *
+	 * @param vaccinationData the vaccination data, one row per day
+	 * @param version         the version of the time series
+	 * @param previous        the time series of earlier rows, or null
+	 * @return the time series
+	 */
+	public static VaccinationTimeSeries from(List<VaccinationDataRow> vaccinationData, long version,
+			VaccinationTimeSeries previous) {
+		if (previous == null || !previous.isPrefixOf(vaccinationData))
+			return from(vaccinationData, version);
+
+		VaccinationTimeSeries timeSeries = build(previous,
+				vaccinationData.toArray(new VaccinationDataRow[vaccinationData.size()]), version);
+		timeSeries.carryForwardIndicesOf(previous);
+		return timeSeries;
+	}
+
+	private static VaccinationTimeSeries from(List<VaccinationDataRow> vaccinationData, long version) {
+		return build(null, vaccinationData.toArray(new VaccinationDataRow[vaccinationData.size()]), version);
+	}
+
+	/**
+	 * Builds the columns of the given rows.
+	 *
+	 * @param previous a time series of the first rows, whose columns are copied
+	 *                 instead of being built again, or null
+	 * @param rows     all rows
+	 * @param version  the version of the time series
+	 * @return the time series
+	 */
+	private static VaccinationTimeSeries build(VaccinationTimeSeries previous, VaccinationDataRow[] rows,
+			long version) {
+		int length = rows.length;
+		int firstNewDay = previous == null ? 0 : previous.length;
+
+		int availableFields = 0;
+		for (VaccinationsDataField field : FIELDS) {
+			boolean wasAvailable = previous == null ? field != VaccinationsDataField.DATE : previous.hasField(field);
+			if (wasAvailable && Arrays.stream(rows, firstNewDay, length).allMatch(row -> row.hasField(field)))
+				availableFields |= 1 << field.ordinal();
+		}
+
+		int[] epochDays = previous == null ? new int[length] : Arrays.copyOf(previous.epochDays, length);
+		int[][] intColumns = new int[FIELDS.length][];
+		double[][] decimalColumns = new double[FIELDS.length][];
+		long[][] prefixSums = new long[FIELDS.length][];
+		int nonDecreasingFields = 0;
+		for (VaccinationsDataField field : FIELDS) {
+			int ordinal = field.ordinal();
+			if ((availableFields & (1 << ordinal)) == 0)
+				continue;
+			if (field.isDecimal()) {
+				decimalColumns[ordinal] = previous == null ? new double[length]
+						: Arrays.copyOf(previous.decimalColumns[ordinal], length);
+			} else {
+				intColumns[ordinal] = previous == null ? new int[length]
+						: Arrays.copyOf(previous.intColumns[ordinal], length);
+				prefixSums[ordinal] = previous == null ? new long[length + 1]
+						: Arrays.copyOf(previous.prefixSums[ordinal], length + 1);
+				if (previous == null || previous.isNonDecreasing(field))
+					nonDecreasingFields |= 1 << ordinal;
+			}
+		}
+
+		boolean isOrderedByDate = previous == null || previous.isOrderedByDate;
+		for (int day = firstNewDay; day < length; day++) {
+			VaccinationDataRow row = rows[day];
+			epochDays[day] = row.getEpochDay();
+			if (day > 0 && epochDays[day] <= epochDays[day - 1])
+				isOrderedByDate = false;
+
+			for (VaccinationsDataField field : FIELDS) {
+				int ordinal = field.ordinal();
+				int[] column = intColumns[ordinal];
+				if (column != null) {
+					column[day] = row.getIntValue(field);
+					prefixSums[ordinal][day + 1] = prefixSums[ordinal][day] + column[day];
+					if (day > 0 && column[day] < column[day - 1])
+						nonDecreasingFields &= ~(1 << ordinal);
+				} else if (decimalColumns[ordinal] != null) {
+					decimalColumns[ordinal][day] = row.getDecimalValue(field);
+				}
+			}
+		}
+
+		return new VaccinationTimeSeries(version, length, epochDays, intColumns, decimalColumns, prefixSums,
+				availableFields, isOrderedByDate, nonDecreasingFields, rows);
+	}
+
+	/**
+	 * @param vaccinationData rows of a snapshot
+	 * @return true if this is a complete time series, not a view, and the rows
+	 *         start with the same row objects as this time series. The api cache
+	 *         keeps the objects of unchanged rows, so this is true if days have
+	 *         only been appended.
+	 */
+	private boolean isPrefixOf(List<VaccinationDataRow> vaccinationData) {
+		if (length != rows.length || vaccinationData.size() < length)
+			return false;
+		for (int day = 0; day < length; day++) {
+			if (vaccinationData.get(day) != rows[day])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Continues the indices that have been built for an earlier time series of
+	 * the first days of this one with the days after them. The indices of the
+	 * earlier time series are copied, as it may still be in use.
+	 *
+	 * @param previous the earlier time series
+	 */
+	private void carryForwardIndicesOf(VaccinationTimeSeries previous) {
+		RankIndex[] previousRankIndices;
+		WeeklyAggregation previousWeeklyAggregation;
+		synchronized (previous) {
+			previousRankIndices = previous.rankIndices.clone();
+			previousWeeklyAggregation = previous.weeklyAggregation;
+		}
+
+		for (VaccinationsDataField field : FIELDS) {
+			RankIndex previousRankIndex = previousRankIndices[field.ordinal()];
+			int[] column = intColumns[field.ordinal()];
+			if (previousRankIndex == null || column == null)
+				continue;
+
+			RankIndex rankIndex = previousRankIndex.copy();
+			for (int day = previous.length; day < length; day++) {
+				rankIndex.add(column[day]);
+			}
+			rankIndices[field.ordinal()] = rankIndex;
+		}
+
+		if (previousWeeklyAggregation != null && hasField(VaccinationsDataField.SHOTS_TODAY)
+				&& hasField(VaccinationsDataField.SHOTS_TODAY_FIRST)) {
+			WeeklyAggregation aggregation = previousWeeklyAggregation.copy();
+			aggregation.addDays(this, previous.length, length);
+			weeklyAggregation = aggregation;
+		}
+	}
+
+	/**
+	 * @return the version of the dataset snapshot this time series was built
+	 *         from, 0 if it was built from a plain list
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return number of days in this time series
+	 */
+	public int size() {
+		return length;
+	}
+
+	public boolean isEmpty() {
+		return length == 0;
+	}
+
+	/**
+	 * @param field the field to check
+	 * @return true if the field is provided on every day of this time series
+	 */
+	public boolean hasField(VaccinationsDataField field) {
+		return (availableFields & (1 << field.ordinal())) != 0;
+	}
+
+	/**
+	 * @param day index of the day
+	 * @return the date of the day, as days since 1970-01-01
+	 */
+	public int getEpochDay(int day) {
+		checkDay(day);
+		return epochDays[day];
+	}
+
+	public LocalDate getDate(int day) {
+		return LocalDate.ofEpochDay(getEpochDay(day));
+	}
+
+	/**
+	 * @param field an int field
+	 * @param day   index of the day
+	 * @return the value of the field on that day
+	 * @throws IllegalStateException if the field is not provided on every day
+	 */
+	public int getInt(VaccinationsDataField field, int day) {
+		checkDay(day);
+		int[] column = intColumns[field.ordinal()];
+		if (column == null)
+			throw new IllegalStateException(field + " is not an int field provided on every day");
+		return column[day];
+	}
+
+	/**
+	 * @param field a decimal field
+	 * @param day   index of the day
+	 * @return the value of the field on that day
+	 * @throws IllegalStateException if the field is not provided on every day
+	 */
+	public double getDecimal(VaccinationsDataField field, int day) {
+		checkDay(day);
+		double[] column = decimalColumns[field.ordinal()];
+		if (column == null)
+			throw new IllegalStateException(field + " is not a decimal field provided on every day");
+		return column[day];
+	}
+
+	/**
+	 * @param field   an int field
+	 * @param fromDay index of the first day, inclusive
+	 * @param toDay   index of the last day, exclusive
+	 * @return the sum of the field over the days
+	 * @throws IllegalStateException if the field is not provided on every day
+	 */
+	public long getSum(VaccinationsDataField field, int fromDay, int toDay) {
+		if (fromDay < 0 || toDay > length || fromDay > toDay)
+			throw new IndexOutOfBoundsException("Days " + fromDay + " to " + toDay + " of " + length + " requested");
+		long[] prefixSum = prefixSums[field.ordinal()];
+		if (prefixSum == null)
+			throw new IllegalStateException(field + " is not an int field provided on every day");
+		return prefixSum[toDay] - prefixSum[fromDay];
+	}
+
+	/**
+	 * Finds the first day on which a field exceeded a value. Uses a binary search
+	 * if the days are ordered by date and the field never decreases, like the
+	 * cumulative fields usually do. Otherwise, all days are scanned.
+	 *
+	 * @param field an int field
+	 * @param value the value to exceed
+	 * @return index of the first day with a greater value, or -1 if there is none
+	 * @throws IllegalStateException if the field is not provided on every day
+	 */
+	public int getFirstDayAbove(VaccinationsDataField field, double value) {
+		int[] column = intColumns[field.ordinal()];
+		if (column == null)
+			throw new IllegalStateException(field + " is not an int field provided on every day");
+
+		if (isOrderedByDate && isNonDecreasing(field)) {
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (column[middle] > value)
+					high = middle;
+				else
+					low = middle + 1;
+			}
+			return low < length ? low : -1;
+		}
+
+		for (int day = 0; day < length; day++) {
+			if (column[day] > value)
+				return day;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param field an int field
+	 * @return true if the value of the field never decreases from one day to the
+	 *         next
+	 */
+	public boolean isNonDecreasing(VaccinationsDataField field) {
+		return (nonDecreasingFields & (1 << field.ordinal())) != 0;
+	}
+
+	/**
+	 * @param field an int field, usually a daily one
+	 * @param day   index of the day
+	 * @return 1 if the field has its greatest value on that day, 2 if there is
+	 *         one day with a greater value, and so on
+	 * @throws IllegalStateException if the field is not provided on every day
+	 */
+	public int getRank(VaccinationsDataField field, int day) {
+		checkDay(day);
+		return getRankIndex(field).getRank(day);
+	}
+
+	/**
+	 * @param field an int field, usually a daily one
+	 * @param k     the number of days
+	 * @return indices of the k days with the greatest values of the field, the
+	 *         greatest first, the earlier day first on equal values
+	 * @throws IllegalStateException if the field is not provided on every day
+	 */
+	public int[] getTopDays(VaccinationsDataField field, int k) {
+		return getRankIndex(field).getTopDays(k);
+	}
+
+	private synchronized RankIndex getRankIndex(VaccinationsDataField field) {
+		RankIndex rankIndex = rankIndices[field.ordinal()];
+		if (rankIndex == null) {
+			int[] column = intColumns[field.ordinal()];
+			if (column == null)
+				throw new IllegalStateException(field + " is not an int field provided on every day");
+
+			rankIndex = new RankIndex(length);
+			for (int day = 0; day < length; day++) {
+				rankIndex.add(column[day]);
+			}
+			rankIndices[field.ordinal()] = rankIndex;
+		}
+		return rankIndex;
+	}
+
+	/**
+	 * @return the doses issued per calendar week, aggregated on the first call
+	 * @throws IllegalStateException if the daily doses are not provided on every
+	 *                               day
+	 */
+	public synchronized WeeklyAggregation getWeeklyAggregation() {
+		if (weeklyAggregation == null)
+			weeklyAggregation = WeeklyAggregation.from(this);
+		return weeklyAggregation;
+	}
+
+	/**
+	 * @param day index of the day
+	 * @return the row the day has been built from
+	 */
+	public VaccinationDataRow getRow(int day) {
+		checkDay(day);
+		return rows[day];
+	}
+
+	/**
+	 * @param fromDay index of the first day, inclusive
+	 * @param toDay   index of the last day, exclusive
+	 * @return the rows of the given days, as unmodifiable list without copying
+	 */
+	public List<VaccinationDataRow> getRows(int fromDay, int toDay) {
+		if (fromDay < 0 || toDay > length || fromDay > toDay)
+			throw new IndexOutOfBoundsException("Days " + fromDay + " to " + toDay + " of " + length + " requested");
+		return Collections.unmodifiableList(Arrays.asList(rows).subList(fromDay, toDay));
+	}
+
+	/**
+	 * Finds the index of a date by its offset from the first day. Falls back to
+	 * a search if the data source has skipped a day.
+	 *
+	 * @param date the date to find
+	 * @return the index of the day, or -1 if there is no data for that day
+	 */
+	public int indexOf(LocalDate date) {
+		if (length == 0)
+			return -1;
+
+		long offset = date.toEpochDay() - epochDays[0];
+		if (offset >= 0 && offset < length && epochDays[(int) offset] == date.toEpochDay())
+			return (int) offset;
+
+		if (isOrderedByDate) {
+			int index = Arrays.binarySearch(epochDays, 0, length, (int) date.toEpochDay());
+			return index >= 0 ? index : -1;
+		}
+		for (int day = 0; day < length; day++) {
+			if (epochDays[day] == date.toEpochDay())
+				return day;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return true if the dates of the days are strictly ascending
+	 */
+	public boolean isOrderedByDate() {
+		return isOrderedByDate;
+	}
+
+	/**
+	 * Creates a view on the days up to the given date. The view shares the
+	 * columns of this time series, nothing is copied.
+	 *
+	 * @param lastDate the last date to include
+	 * @return the view, or this time series if it does not contain later days
+	 * @throws IllegalStateException if the days are not ordered by date
+	 */
+	public VaccinationTimeSeries upTo(LocalDate lastDate) {
+		if (!isOrderedByDate)
+			throw new IllegalStateException("Only time series ordered by date can be cut at a date");
+
+		int insertionPoint = Arrays.binarySearch(epochDays, 0, length, (int) lastDate.toEpochDay());
+		int viewLength = insertionPoint >= 0 ? insertionPoint + 1 : -insertionPoint - 1;
+
+		if (viewLength == length)
+			return this;
+		return new VaccinationTimeSeries(version, viewLength, epochDays, intColumns, decimalColumns, prefixSums,
+				availableFields, true, nonDecreasingFields, rows);
+	}
+
+	private void checkDay(int day) {
+		if (day < 0 || day >= length)
+			throw new IndexOutOfBoundsException("Day " + day + " of " + length + " days requested");
+	}
+
+}
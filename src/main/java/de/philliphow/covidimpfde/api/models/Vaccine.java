@@ -1,8 +1,10 @@
 package de.philliphow.covidimpfde.api.models;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.pmw.tinylog.Logger;
 
@@ -16,11 +18,42 @@ import de.philliphow.covidimpfde.strings.StrUtil;
  * vaccines. Until then, new vaccine fields in the source data do not break the
  * code, but might be ignored if only vaccines from {@code getAll()} are used.
  * 
+ * There is exactly one instance per vaccine. Each vaccine has a dense id,
+ * starting at 0 with the vaccines of {@code getAll()}, so that statistics per
+ * vaccine can be kept in arrays indexed by the id. Unknown vaccines appearing in
+ * delivery data get the next free id.
+ * 
  * @author PhillipHow
  *
  */
 public class Vaccine {
 
+	private static final Vaccine MODERNA = new Vaccine(0, VaccinationsDataField.SHOTS_TOTAL_MODERNA, "moderna",
+			"Moderna");
+	private static final Vaccine BIONTECH = new Vaccine(1, VaccinationsDataField.SHOTS_TOTAL_BIONTECH, "comirnaty",
+			"Biontech/Pfizer");
+	private static final Vaccine ASTRA = new Vaccine(2, VaccinationsDataField.SHOTS_TOTAL_ASTRA, "astra",
+			"Astra Zeneca");
+	private static final Vaccine JOHNSON = new Vaccine(3, VaccinationsDataField.SHOTS_TOTAL_JOHNSON, "johnson",
+			"Johnson & Johnson");
+
+	private static final List<Vaccine> KNOWN_VACCINES = Collections
+			.unmodifiableList(Arrays.asList(MODERNA, BIONTECH, ASTRA, JOHNSON));
+
+	/**
+	 * Vaccines that appeared in delivery data but are not known in code, by
+	 * identifier
+	 */
+	private static final Map<String, Vaccine> unknownVaccines = new ConcurrentHashMap<>();
+	/**
+	 * All vaccines, indexed by id. Replaced when an unknown vaccine is registered.
+	 */
+	private static volatile Vaccine[] vaccinesById = KNOWN_VACCINES.toArray(new Vaccine[0]);
+
+	/**
+	 * Dense id, the index in {@code vaccinesById}
+	 */
+	private final int id;
 	/**
 	 * The field to query in a {@link VaccinationDataRow} to get the total
 	 * vaccinations with this vaccine
@@ -37,46 +70,96 @@ public class Vaccine {
 	 * Returns all vaccines currently known to be used. Keep in mind that this list
 	 * might not be exhaustive, as new vaccines are added during the campaign.
 	 * 
-	 * @return the list of vaccines
+	 * @return the unmodifiable list of vaccines, ordered by id
 	 */
 	public static List<Vaccine> getAll() {
-		List<Vaccine> vaccines = new ArrayList<>();
-		vaccines.add(new Vaccine(VaccinationsDataField.SHOTS_TOTAL_MODERNA, "moderna", "Moderna"));
-		vaccines.add(new Vaccine(VaccinationsDataField.SHOTS_TOTAL_BIONTECH, "comirnaty", "Biontech/Pfizer"));
-		vaccines.add(new Vaccine(VaccinationsDataField.SHOTS_TOTAL_ASTRA, "astra", "Astra Zeneca"));
-		vaccines.add(new Vaccine(VaccinationsDataField.SHOTS_TOTAL_JOHNSON, "johnson", "Johnson & Johnson"));
-		
-		return vaccines;
+		return KNOWN_VACCINES;
 	}
 
 	/**
 	 * Gets a {@code Vaccine} by the identifier in the
 	 * {@code DeliveryDataField.VACCINE} field of a {@link DeliveryDataRow} Note
 	 * that this also returns new unknown vaccines. In that case,
-	 * vaccinationsDataField is null.
+	 * vaccinationsDataField is null. Unknown vaccines are registered on their
+	 * first appearance, with a warning.
 	 * 
 	 * @param deliveryDataIdentifier
 	 * @return the Vaccine object
 	 */
 	public static Vaccine byDeliveryDataIdentifier(String deliveryDataIdentifier) {
-		Optional<Vaccine> candidate = getAll().stream()
-				.filter(vaccine -> vaccine.getDeliveryDataIdentifier().equals(deliveryDataIdentifier)).findFirst();
-
-		if (candidate.isPresent()) {
-			return candidate.get();
-		} else {
-			Logger.warn("An unkown vaccine identifier appeared in delivery data: {}", deliveryDataIdentifier);
-			return new Vaccine(null, deliveryDataIdentifier, StrUtil.capitalized(deliveryDataIdentifier));
+		switch (deliveryDataIdentifier) {
+		case "moderna":
+			return MODERNA;
+		case "comirnaty":
+			return BIONTECH;
+		case "astra":
+			return ASTRA;
+		case "johnson":
+			return JOHNSON;
+		default:
+			Vaccine unknownVaccine = unknownVaccines.get(deliveryDataIdentifier);
+			return unknownVaccine != null ? unknownVaccine : registerUnknown(deliveryDataIdentifier);
 		}
 	}
 
-	private Vaccine(VaccinationsDataField vaccinationRowField, String deliveryDataIdentifier,
+	private static synchronized Vaccine registerUnknown(String deliveryDataIdentifier) {
+		Vaccine unknownVaccine = unknownVaccines.get(deliveryDataIdentifier);
+		if (unknownVaccine != null)
+			return unknownVaccine;
+
+		Logger.warn("An unkown vaccine identifier appeared in delivery data: {}", deliveryDataIdentifier);
+		Vaccine[] currentVaccines = vaccinesById;
+		unknownVaccine = new Vaccine(currentVaccines.length, null, deliveryDataIdentifier,
+				StrUtil.capitalized(deliveryDataIdentifier));
+
+		Vaccine[] newVaccines = Arrays.copyOf(currentVaccines, currentVaccines.length + 1);
+		newVaccines[unknownVaccine.id] = unknownVaccine;
+		vaccinesById = newVaccines;
+		unknownVaccines.put(deliveryDataIdentifier, unknownVaccine);
+		return unknownVaccine;
+	}
+
+	/**
+	 * Forgets all unknown vaccines registered so far, so their ids are handed out
+	 * again. Only meant for tests that register vaccines, data built with the
+	 * forgotten vaccines must not be used afterwards.
+	 */
+	public static synchronized void forgetUnknownVaccines() {
+		unknownVaccines.clear();
+		vaccinesById = KNOWN_VACCINES.toArray(new Vaccine[0]);
+	}
+
+	/**
+	 * @param id the id of a vaccine
+	 * @return the vaccine with that id
+	 */
+	public static Vaccine byId(int id) {
+		return vaccinesById[id];
+	}
+
+	/**
+	 * @return the number of vaccines registered so far, known and unknown. All
+	 *         ids are lower.
+	 */
+	public static int getRegisteredCount() {
+		return vaccinesById.length;
+	}
+
+	private Vaccine(int id, VaccinationsDataField vaccinationRowField, String deliveryDataIdentifier,
 			String humanReadableName) {
+		this.id = id;
 		this.vaccinationsDataField = vaccinationRowField;
 		this.humanReadableName = humanReadableName;
 		this.deliveryDataIdentifier = deliveryDataIdentifier;
 	}
 
+	/**
+	 * @return the dense id of this vaccine, see {@code getRegisteredCount}
+	 */
+	public int getId() {
+		return id;
+	}
+
 	public String getHumamReadableName() {
 		return humanReadableName;
 	}
@@ -0,0 +1,271 @@
+package de.philliphow.covidimpfde.api.models;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
+
+/**
+ * Doses issued per calendar week, kept in one array slot per week, indexed by
+ * the offset of the week from the earliest week. Days are added one by one,
+ * each day only updates the slot of its week. The weeks are handed out as
+ * {@link WeeklySummary} views on the arrays, nothing is aggregated again. A
+ * {@link VaccinationTimeSeries} of a newer snapshot continues a copy of the
+ * aggregation of the previous one with the appended days. The weeks are
+ * ranked by their doses in a {@link RankIndex} over the week slots, which is
+ * updated with each day.
+ *
+ * Weeks without any day are left out, like in
+ * {@link WeeklySummary#generateFrom(List)}.
+ *
+ * Not thread safe while days are added.
+ *
+ * @author PhillipHow
+ *
+ */
+public class WeeklyAggregation {
+
+	private int firstMondayEpochDay = 0;
+	/**
+	 * Number of week slots in use, from the earliest to the latest week
+	 */
+	private int weekSpan = 0;
+	private int[] weekDoses;
+	private int[] weekFirstDoses;
+	private int[] weekDayCounts;
+	/**
+	 * Offsets of the weeks with at least one day, ascending
+	 */
+	private int[] weeksWithData;
+	private int weekCount = 0;
+	/**
+	 * Doses of each week slot, empty weeks included
+	 */
+	private RankIndex weekRanks;
+
+	public WeeklyAggregation() {
+		this(8);
+	}
+
+	/**
+	 * @param expectedWeeks number of weeks expected, to avoid resizing
+	 */
+	public WeeklyAggregation(int expectedWeeks) {
+		int capacity = Math.max(expectedWeeks, 1);
+		weekDoses = new int[capacity];
+		weekFirstDoses = new int[capacity];
+		weekDayCounts = new int[capacity];
+		weeksWithData = new int[capacity];
+		weekRanks = new RankIndex(capacity);
+	}
+
+	private WeeklyAggregation(WeeklyAggregation other) {
+		this.firstMondayEpochDay = other.firstMondayEpochDay;
+		this.weekSpan = other.weekSpan;
+		this.weekDoses = other.weekDoses.clone();
+		this.weekFirstDoses = other.weekFirstDoses.clone();
+		this.weekDayCounts = other.weekDayCounts.clone();
+		this.weeksWithData = other.weeksWithData.clone();
+		this.weekCount = other.weekCount;
+		this.weekRanks = other.weekRanks.copy();
+	}
+
+	/**
+	 * Aggregates all days of the given time series.
+	 *
+	 * @param vaccinationData the vaccination data, in any order
+	 * @return the aggregation
+	 */
+	public static WeeklyAggregation from(VaccinationTimeSeries vaccinationData) {
+		WeeklyAggregation aggregation = new WeeklyAggregation(vaccinationData.size() / 7 + 2);
+		aggregation.addDays(vaccinationData, 0, vaccinationData.size());
+		return aggregation;
+	}
+
+	/**
+	 * @return an independent copy, to add days to without changing this
+	 *         aggregation
+	 */
+	public WeeklyAggregation copy() {
+		return new WeeklyAggregation(this);
+	}
+
+	/**
+	 * Adds the doses of some days of a time series to their weeks.
+	 *
+	 * @param vaccinationData the vaccination data
+	 * @param fromDay         index of the first day to add, inclusive
+	 * @param toDay           index of the last day to add, exclusive
+	 */
+	public void addDays(VaccinationTimeSeries vaccinationData, int fromDay, int toDay) {
+		for (int day = fromDay; day < toDay; day++) {
+			addDay(vaccinationData.getEpochDay(day), vaccinationData.getInt(VaccinationsDataField.SHOTS_TODAY, day),
+					vaccinationData.getInt(VaccinationsDataField.SHOTS_TODAY_FIRST, day));
+		}
+	}
+
+	/**
+	 * Adds the doses of one day to its week.
+	 *
+	 * @param epochDay   the day
+	 * @param doses      all doses issued on that day
+	 * @param firstDoses first doses issued on that day
+	 */
+	public void addDay(int epochDay, int doses, int firstDoses) {
+		int monday = DeliveryDataRow.getMondayEpochDayFor(epochDay);
+		if (weekSpan == 0)
+			firstMondayEpochDay = monday;
+		else if (monday < firstMondayEpochDay)
+			prependWeeks((firstMondayEpochDay - monday) / 7);
+
+		int week = (monday - firstMondayEpochDay) / 7;
+		if (week >= weekDoses.length)
+			resize(Math.max(week + 1, weekDoses.length * 2));
+		weekSpan = Math.max(weekSpan, week + 1);
+
+		weekDoses[week] += doses;
+		weekFirstDoses[week] += firstDoses;
+		if (weekDayCounts[week]++ == 0)
+			addWeekWithData(week);
+
+		while (weekRanks.size() < weekSpan)
+			weekRanks.add(0);
+		weekRanks.setValue(week, weekDoses[week]);
+	}
+
+	private void addWeekWithData(int week) {
+		if (weekCount == weeksWithData.length)
+			weeksWithData = Arrays.copyOf(weeksWithData, weekCount * 2);
+
+		// days usually arrive in order, so the week usually goes to the end
+		int position = weekCount;
+		while (position > 0 && weeksWithData[position - 1] > week) {
+			weeksWithData[position] = weeksWithData[position - 1];
+			position--;
+		}
+		weeksWithData[position] = week;
+		weekCount++;
+	}
+
+	private void prependWeeks(int count) {
+		int capacity = Math.max(weekSpan + count, weekDoses.length);
+		weekDoses = shifted(weekDoses, count, capacity);
+		weekFirstDoses = shifted(weekFirstDoses, count, capacity);
+		weekDayCounts = shifted(weekDayCounts, count, capacity);
+		for (int i = 0; i < weekCount; i++) {
+			weeksWithData[i] += count;
+		}
+		firstMondayEpochDay -= count * 7;
+		weekSpan += count;
+
+		// all slots have moved, rank them again
+		weekRanks = new RankIndex(capacity);
+		for (int week = 0; week < weekSpan; week++) {
+			weekRanks.add(weekDoses[week]);
+		}
+	}
+
+	private int[] shifted(int[] array, int count, int capacity) {
+		int[] shiftedArray = new int[capacity];
+		System.arraycopy(array, 0, shiftedArray, count, weekSpan);
+		return shiftedArray;
+	}
+
+	private void resize(int capacity) {
+		weekDoses = Arrays.copyOf(weekDoses, capacity);
+		weekFirstDoses = Arrays.copyOf(weekFirstDoses, capacity);
+		weekDayCounts = Arrays.copyOf(weekDayCounts, capacity);
+	}
+
+	/**
+	 * @return number of weeks with at least one day
+	 */
+	public int getWeekCount() {
+		return weekCount;
+	}
+
+	/**
+	 * @param index index of the week among the weeks with data, the earliest
+	 *              first
+	 * @return the summary of the week
+	 */
+	public WeeklySummary getWeek(int index) {
+		return summaryOf(weeksWithData[checkIndex(index)]);
+	}
+
+	/**
+	 * @param index index of the week among the weeks with data, the earliest
+	 *              first
+	 * @return 1 if no week has more doses, 2 if one week has, and so on
+	 */
+	public int getRank(int index) {
+		return weekRanks.getRank(weeksWithData[checkIndex(index)]);
+	}
+
+	/**
+	 * @return the week with the most doses, the earliest of them if several
+	 *         weeks have as many
+	 * @throws NoSuchElementException if no day has been added
+	 */
+	public WeeklySummary getBestWeek() {
+		if (weekCount == 0)
+			throw new NoSuchElementException("No weeks have been added");
+		// the earliest slot always has data, so empty weeks never come first
+		return summaryOf(weekRanks.getTopDays(1)[0]);
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= weekCount)
+			throw new IndexOutOfBoundsException("Week " + index + " of " + weekCount + " weeks requested");
+		return index;
+	}
+
+	private WeeklySummary summaryOf(int week) {
+		return new WeeklySummary(LocalDate.ofEpochDay(firstMondayEpochDay + week * 7L), weekDoses[week],
+				weekFirstDoses[week]);
+	}
+
+	/**
+	 * @return all weeks with data, ordered by week, as unmodifiable view
+	 */
+	public List<WeeklySummary> getWeeks() {
+		return new AbstractList<WeeklySummary>() {
+			@Override
+			public WeeklySummary get(int index) {
+				return getWeek(index);
+			}
+
+			@Override
+			public int size() {
+				return weekCount;
+			}
+		};
+	}
+
+	/**
+	 * @param n number of weeks
+	 * @return the last n weeks with data, the newest first, as unmodifiable view.
+	 *         Less than n if there are not enough weeks.
+	 */
+	public List<WeeklySummary> getLastNWeeks(int n) {
+		int size = Math.min(Math.max(n, 0), weekCount);
+		int lastWeek = weekCount - 1;
+		return new AbstractList<WeeklySummary>() {
+			@Override
+			public WeeklySummary get(int index) {
+				if (index < 0 || index >= size)
+					throw new IndexOutOfBoundsException("Week " + index + " of " + size + " weeks requested");
+				return getWeek(lastWeek - index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+}
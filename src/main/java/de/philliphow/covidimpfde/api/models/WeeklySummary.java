@@ -2,11 +2,8 @@ package de.philliphow.covidimpfde.api.models;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoField;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * A small class to encapsulate all vaccination doses during a calendar week.
@@ -20,7 +17,7 @@ public class WeeklySummary {
 	private final int weekTotalDoses;
 	private final int weekTotalFirstDoses; 
 
-	private WeeklySummary(LocalDate weekMonday, int weekTotalDoses, int weekTotalFirstDoses) {
+	WeeklySummary(LocalDate weekMonday, int weekTotalDoses, int weekTotalFirstDoses) {
 		this.weekMonday = weekMonday;
 		this.weekTotalDoses = weekTotalDoses;
 		this.weekTotalFirstDoses = weekTotalFirstDoses;
@@ -50,40 +47,22 @@ public class WeeklySummary {
 	 * Generates all weekly summaries from the given list of
 	 * {@link VaccinationDataRow}s
 	 * 
-	 * @param vaccinationData vaccination data entries to include
+	 * @param vaccinationData vaccination data entries to include, ordered by date
 	 * @return all weekly summaries
 	 */
 	public static List<WeeklySummary> generateFrom(List<VaccinationDataRow> vaccinationData) {
-		Map<LocalDate, Integer> calenderWeekMap = getDosesByCalendarWeek(vaccinationData, vaccinationDataRow -> vaccinationDataRow.getShotsToday());
-		Map<LocalDate, Integer> calendarWeekFirstShotsMap = getDosesByCalendarWeek(vaccinationData, vaccinationDataRow -> vaccinationDataRow.getFirstShotsToday());
-		
-		return calenderWeekMap.entrySet().stream()
-				.map(weekEntry -> new WeeklySummary(weekEntry.getKey(), weekEntry.getValue(), calendarWeekFirstShotsMap.get(weekEntry.getKey())))
-				.collect(Collectors.toList());
+		return generateFrom(VaccinationTimeSeries.from(vaccinationData));
 	}
 
 	/**
-	 * Helper method to group the doses by calendar week
+	 * Generates all weekly summaries from the columns of the given
+	 * {@link VaccinationTimeSeries}, see {@link WeeklyAggregation}.
 	 * 
-	 * @param vaccinationData vaccination data entries to include
-	 * @param doseFieldGetter a function which extracts the dose value from the VaccinationDataRow
-	 * @return a map that maps all calendar weeks (indicated by their mondays) to
-	 *         the issued doses in that week
+	 * @param vaccinationData vaccination data to include
+	 * @return all weekly summaries, ordered by week
 	 */
-	private static Map<LocalDate, Integer> getDosesByCalendarWeek(List<VaccinationDataRow> vaccinationData, Function<VaccinationDataRow, Integer> doseFieldGetter) {
-		Map<LocalDate, Integer> calendarWeekMap = new TreeMap<>();
-		for (VaccinationDataRow vaccinationDataRow : vaccinationData) {
-			LocalDate dataRowMonday = getMondayFor(vaccinationDataRow.getDate());
-			calendarWeekMap.putIfAbsent(dataRowMonday, 0);
-			calendarWeekMap.put(dataRowMonday, calendarWeekMap.get(dataRowMonday) + doseFieldGetter.apply(vaccinationDataRow));
-		}
-		return calendarWeekMap;
-	}
-
-	private static LocalDate getMondayFor(LocalDate date) {
-		int dayOfWeek = date.getDayOfWeek().getValue();
-		LocalDate monday = date.minusDays(dayOfWeek - 1);
-		return monday;
+	public static List<WeeklySummary> generateFrom(VaccinationTimeSeries vaccinationData) {
+		return new ArrayList<>(vaccinationData.getWeeklyAggregation().getWeeks());
 	}
 
 }
@@ -1,13 +1,12 @@
 package de.philliphow.covidimpfde.logic;
 
-import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
 import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
 import de.philliphow.covidimpfde.api.models.Vaccine;
@@ -18,56 +17,155 @@ import de.philliphow.covidimpfde.strings.messagegenerators.DeliveryUpdateString;
  * {@link DeliveryDataRow}s. Used by the {@link DeliveryUpdateString} to
  * assemble the delivery overview.
  * 
+ * Sums and the biggest delivery are answered from a {@link DeliveryCube}, so
+ * an interpretation can cover any region of the cube. All conclusions are drawn
+ * once, in one pass over the vaccines of the cube, when the interpretation is
+ * constructed. The getters only hand them out.
+ * 
  * @author PhillipHow
  *
  */
 public class DeliveryDataInterpretation {
 
-	/**
-	 * The data to be used
-	 */
-	private final List<DeliveryDataRow> data;
 	/**
 	 * A reference to the latest delivery in the data set, as this is needed quite
 	 * often
 	 */
 	private final DeliveryDataRow latestDelivery;
+	/**
+	 * The deliveries, latest first, as view of the data
+	 */
+	private final List<DeliveryDataRow> deliveriesLatestFirst;
+	private final String regionName;
+	private final boolean isFederal;
+
+	private final int totalDeliveredDoses;
+	private final int lastWeekDeliveredDoses;
+	private final int lastWeekNumberOfSuppliers;
+	private final Map<Vaccine, Integer> dosesDeliveredByVaccine;
+	private final Map<Vaccine, Double> shareByVaccine;
+	private final DeliveryDataRow biggestDelivery;
 
+	/**
+	 * @param allDeliveries the deliveries, not copied. Must not be modified
+	 *                      afterwards, like the lists returned by the api caches.
+	 */
 	public DeliveryDataInterpretation(List<DeliveryDataRow> allDeliveries) {
-		this.data = new ArrayList<>(allDeliveries);
-		this.latestDelivery = this.data.get(this.data.size() - 1);
+		this(allDeliveries, DeliveryCube.from(allDeliveries), DeliveryCube.ALL, -1);
+	}
+
+	/**
+	 * Interprets the deliveries to one region of a cube, up to the week of the
+	 * latest delivery. Use {@code DeliveryCube::toDeliveries} for the
+	 * deliveries, possibly leaving out the latest ones.
+	 * 
+	 * @param regionDeliveries the deliveries to the region, ordered by week. Not
+	 *                         copied, must not be modified afterwards.
+	 * @param cube             the cube the deliveries stem from
+	 * @param region           the region index in the cube, or
+	 *                         {@code DeliveryCube.ALL}
+	 */
+	public DeliveryDataInterpretation(List<DeliveryDataRow> regionDeliveries, DeliveryCube cube, int region) {
+		this(regionDeliveries, cube, region, cube.weekOf(regionDeliveries.get(regionDeliveries.size() - 1)
+				.getCalendarWeekMonday()) + 1);
+	}
+
+	/**
+	 * @param toWeek the weeks of the cube to use, exclusive. -1 for all weeks, as
+	 *               the deliveries might be in any order.
+	 */
+	private DeliveryDataInterpretation(List<DeliveryDataRow> deliveries, DeliveryCube cube, int region,
+			int toWeek) {
+		this.latestDelivery = deliveries.get(deliveries.size() - 1);
+		this.deliveriesLatestFirst = reversed(deliveries);
+		this.regionName = cube.getRegionName(region);
+		this.isFederal = region == DeliveryCube.ALL;
+
+		int weeks = toWeek == -1 ? cube.getWeekCount() : toWeek;
+		int latestWeek = cube.weekOf(latestDelivery.getCalendarWeekMonday());
+
+		// one pass over the vaccines, summing up per vaccine id
+		long[] dosesByVaccineId = new long[Vaccine.getRegisteredCount()];
+		long totalDoses = 0;
+		long lastWeekDoses = 0;
+		int lastWeekSuppliers = 0;
+		for (int vaccine = 0; vaccine < cube.getVaccineCount(); vaccine++) {
+			long vaccineDoses = cube.getDoses(0, weeks, vaccine, region);
+			long vaccineLastWeekDoses = cube.getWeekDoses(latestWeek, vaccine, region);
+
+			Vaccine vaccineObject = Vaccine.byDeliveryDataIdentifier(cube.getVaccineIdentifier(vaccine));
+			dosesByVaccineId[vaccineObject.getId()] = vaccineDoses;
+			totalDoses += vaccineDoses;
+			lastWeekDoses += vaccineLastWeekDoses;
+			if (vaccineLastWeekDoses != 0)
+				lastWeekSuppliers++;
+		}
+
+		this.totalDeliveredDoses = Math.toIntExact(totalDoses);
+		this.lastWeekDeliveredDoses = Math.toIntExact(lastWeekDoses);
+		this.lastWeekNumberOfSuppliers = lastWeekSuppliers;
+
+		Map<Vaccine, Integer> dosesByVaccine = new HashMap<>();
+		Map<Vaccine, Double> sharesByVaccine = new HashMap<>();
+		for (int id = 0; id < dosesByVaccineId.length; id++) {
+			if (dosesByVaccineId[id] != 0) {
+				dosesByVaccine.put(Vaccine.byId(id), Math.toIntExact(dosesByVaccineId[id]));
+				sharesByVaccine.put(Vaccine.byId(id), (double) dosesByVaccineId[id] / totalDeliveredDoses);
+			}
+		}
+		this.dosesDeliveredByVaccine = Collections.unmodifiableMap(dosesByVaccine);
+		this.shareByVaccine = Collections.unmodifiableMap(sharesByVaccine);
+
+		this.biggestDelivery = cube.getBiggestDelivery(0, weeks, region);
+	}
+
+	private static <T> List<T> reversed(List<T> list) {
+		return new AbstractList<T>() {
+
+			@Override
+			public T get(int index) {
+				return list.get(list.size() - 1 - index);
+			}
+
+			@Override
+			public int size() {
+				return list.size();
+			}
+		};
 	}
 
 	public DeliveryDataRow getLatestDelivery() {
 		return latestDelivery;
 	}
 
+	/**
+	 * @return the name of the region as given in the tsv file, or
+	 *         {@code MULTIPLE} if all regions are interpreted
+	 */
+	public String getRegionName() {
+		return regionName;
+	}
+
+	public boolean isFederal() {
+		return isFederal;
+	}
+
 	public int getTotalDeliveredDoses() {
-		return data.stream().mapToInt(delivery -> delivery.getDoses()).sum();
+		return totalDeliveredDoses;
 	}
 	
 	/**
 	 * @return the total number of doses delivered during the last week 
 	 */
 	public int getLastWeekDelivieredDoses() {
-		return getLastWeeksDeliveries().stream().mapToInt(delivery -> delivery.getDoses()).sum();
+		return lastWeekDeliveredDoses;
 	}
 	
 	/*
 	 * @return the number of suppliers that delivered during the last week
 	 */
 	public int getLastWeekNumberOfSuppliers() {
-		return getLastWeeksDeliveries().stream()
-					.map(delivery -> delivery.getVaccineIdentifier())
-					.collect(Collectors.toSet())
-					.size();
-	}
-	
-	private List<DeliveryDataRow> getLastWeeksDeliveries() {
-		LocalDate lastMonday = latestDelivery.getCalendarWeekMonday();
-		return data.stream()
-					.filter(delivery -> delivery.getCalendarWeekMonday().equals(lastMonday))
-					.collect(Collectors.toList());
+		return lastWeekNumberOfSuppliers;
 	}
 
 	/**
@@ -78,20 +176,11 @@ public class DeliveryDataInterpretation {
 	 * {@code Vaccine::getVaccinationsDataField} might resolve to null if vaccine is
 	 * not yet known.
 	 * 
-	 * @return a map which contains the total number of delivered doses by vaccine
+	 * @return an unmodifiable map which contains the total number of delivered
+	 *         doses by vaccine
 	 */
 	public Map<Vaccine, Integer> getDosesDeliveredByVaccine() {
-		Map<Vaccine, Integer> deliveryByVaccine = new HashMap<>();
-
-		for (DeliveryDataRow deliveryDataRow : data) {
-			Vaccine vaccine = deliveryDataRow.getVaccine();
-			int doses = deliveryDataRow.getDoses();
-
-			deliveryByVaccine.putIfAbsent(vaccine, 0);
-			deliveryByVaccine.put(vaccine, deliveryByVaccine.get(vaccine) + doses);
-		}
-
-		return deliveryByVaccine;
+		return dosesDeliveredByVaccine;
 	}
 
 	/**
@@ -102,44 +191,28 @@ public class DeliveryDataInterpretation {
 	 * {@code Vaccine::getVaccinationsDataField} might resolve to null if vaccine is
 	 * not yet known.
 	 * 
-	 * @return a map which contains the delivery number share between 0 and 1 of
-	 *         each vaccine
+	 * @return an unmodifiable map which contains the delivery number share
+	 *         between 0 and 1 of each vaccine
 	 */
 	public Map<Vaccine, Double> getShareByVaccine() {
-		int totalDoses = getTotalDeliveredDoses();
-		Map<Vaccine, Integer> dosesByVaccine = getDosesDeliveredByVaccine();
-		Map<Vaccine, Double> shareByVaccine = new HashMap<>();
-
-		dosesByVaccine.forEach((vaccine, doses) -> {
-			shareByVaccine.put(vaccine, (double) doses / totalDoses);
-		});
-
 		return shareByVaccine;
 	}
 
 	/**
-	 * @return the biggest delivery so far
+	 * @return the biggest delivery of one vaccine in one week to one region so
+	 *         far
 	 */
 	public DeliveryDataRow getBiggestDelivery() {
-		DeliveryDataRow biggestDelivery = null;
-
-		for (DeliveryDataRow current : data) {
-			if (biggestDelivery == null || current.getDoses() > biggestDelivery.getDoses())
-				biggestDelivery = current;
-		}
-
 		return biggestDelivery;
 	}
 
 	/**
 	 * @param n number of deliveries to be returned.
-	 * @return the last deliveries. Might be less then n if not enough delivery
-	 *         records are present
+	 * @return the last deliveries, latest first, as unmodifiable view. Might be
+	 *         less then n if not enough delivery records are present
 	 */
 	public List<DeliveryDataRow> getLastNDeliveries(int n) {
-		List<DeliveryDataRow> listToReturn = new ArrayList<>(data);
-		Collections.reverse(listToReturn);
-		return listToReturn.subList(0, Math.min(n, listToReturn.size()));
+		return deliveriesLatestFirst.subList(0, Math.min(n, deliveriesLatestFirst.size()));
 	}
 
 }
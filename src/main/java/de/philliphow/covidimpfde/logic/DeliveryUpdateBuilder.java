@@ -1,8 +1,11 @@
 package de.philliphow.covidimpfde.logic;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
+import de.philliphow.covidimpfde.api.DatasetSnapshot;
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
 import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
 import de.philliphow.covidimpfde.strings.messagegenerators.DeliveryUpdateString;
 import de.philliphow.covidimpfde.telegram.commands.DeliveryCommand;
@@ -13,14 +16,140 @@ import de.philliphow.covidimpfde.telegram.commands.DeliveryCommand;
  * {@link DeliveryDataInterpretation} for that. See {@link UpdateMessageBuilder}
  * for more documentation on the desired behavior of this class.
  * 
+ * If the content data is set as versioned federal deliveries or as region of
+ * a cube, the interpretation is shared with all other updates on the same
+ * data and debug date, see {@link InterpretationCache}, and the rendered text
+ * is cached, see {@link ResponseCache}.
+ * 
  * @author PhillipHow
  *
  */
 public class DeliveryUpdateBuilder extends UpdateMessageBuilder<DeliveryDataRow> {
 
+	/**
+	 * Number of rendered texts kept per cache, see {@link ResponseCache}
+	 */
+	private static final int CACHED_RESPONSES = 64;
+	/**
+	 * Number of interpretations kept per cache, see {@link InterpretationCache}
+	 */
+	private static final int CACHED_INTERPRETATIONS = 64;
+
+	private static final InterpretationCache<DeliveryDataInterpretation> FEDERAL_INTERPRETATIONS = new InterpretationCache<>(
+			CACHED_INTERPRETATIONS);
+	private static final InterpretationCache<DeliveryDataInterpretation> REGIONAL_INTERPRETATIONS = new InterpretationCache<>(
+			CACHED_INTERPRETATIONS);
+	private static final ResponseCache FEDERAL_RESPONSES = new ResponseCache(CACHED_RESPONSES);
+	private static final ResponseCache REGIONAL_RESPONSES = new ResponseCache(CACHED_RESPONSES);
+
+	/**
+	 * The federal deliveries the content data stems from, null if not given
+	 */
+	private DatasetSnapshot<DeliveryDataRow> federalDeliveries = null;
+	/**
+	 * The cube the content data stems from, null for federal deliveries
+	 */
+	private DeliveryCube cube = null;
+	/**
+	 * The region of the content data in the cube
+	 */
+	private int region = DeliveryCube.ALL;
+
+	/**
+	 * Restricts the update to the deliveries to one region. The content data are
+	 * the deliveries of that region, which are only listed if the update is not
+	 * cached yet.
+	 * 
+	 * @param cube   the cube of all deliveries
+	 * @param region the region index in the cube
+	 * @return the builder
+	 */
+	public DeliveryUpdateBuilder setRegion(DeliveryCube cube, int region) {
+		this.federalDeliveries = null;
+		this.cube = cube;
+		this.region = region;
+		this.setContentData(null);
+		return this;
+	}
+
+	/**
+	 * Sets the content data to versioned federal deliveries, like the ones of
+	 * {@code DeliveryApiManager::getFederalSnapshot}.
+	 * 
+	 * @param federalDeliveries the federal deliveries
+	 * @return the builder
+	 */
+	public DeliveryUpdateBuilder setFederalDeliveries(DatasetSnapshot<DeliveryDataRow> federalDeliveries) {
+		this.cube = null;
+		this.region = DeliveryCube.ALL;
+		this.federalDeliveries = federalDeliveries;
+		this.setContentData(federalDeliveries.getRows());
+		return this;
+	}
+
+	/**
+	 * @return the cache of the texts rendered from versioned federal deliveries
+	 */
+	public static ResponseCache getFederalResponseCache() {
+		return FEDERAL_RESPONSES;
+	}
+
+	@Override
+	protected boolean hasContentData() {
+		return cube != null || super.hasContentData();
+	}
+
+	@Override
+	protected String getMessageText() {
+		LocalDate debugDate = getDebugDate();
+		boolean isSubbed = getIsSubbed();
+		int subCount = getSubCount();
+		if (federalDeliveries != null) {
+			DatasetSnapshot<DeliveryDataRow> currentDeliveries = federalDeliveries;
+			return FEDERAL_RESPONSES.get(currentDeliveries, currentDeliveries.getVersion(), debugDate, isSubbed,
+					subCount, () -> {
+						DeliveryDataInterpretation dataInterpretation = FEDERAL_INTERPRETATIONS.get(currentDeliveries,
+								currentDeliveries.getVersion(), debugDate,
+								() -> new DeliveryDataInterpretation(upTo(currentDeliveries.getRows(), debugDate)));
+						return new DeliveryUpdateString(dataInterpretation, isSubbed, subCount).getTextAsMarkdown();
+					});
+		} else if (cube != null) {
+			DeliveryCube currentCube = cube;
+			int currentRegion = region;
+			return REGIONAL_RESPONSES.get(currentCube, currentCube.getVersion(), currentRegion, debugDate, isSubbed,
+					subCount, () -> {
+						DeliveryDataInterpretation dataInterpretation = REGIONAL_INTERPRETATIONS.get(currentCube,
+								currentCube.getVersion(), currentRegion, debugDate,
+								() -> new DeliveryDataInterpretation(
+										upTo(currentCube.toDeliveries(currentRegion), debugDate), currentCube,
+										currentRegion));
+						return new DeliveryUpdateString(dataInterpretation, isSubbed, subCount).getTextAsMarkdown();
+					});
+		} else {
+			return super.getMessageText();
+		}
+	}
+
+	/**
+	 * @return the deliveries of weeks starting up to the date, not copied if
+	 *         there are no later deliveries
+	 */
+	private List<DeliveryDataRow> upTo(List<DeliveryDataRow> deliveries, LocalDate lastDate) {
+		if (deliveries.stream().noneMatch(delivery -> getDateFor(delivery).isAfter(lastDate)))
+			return deliveries;
+
+		List<DeliveryDataRow> deliveriesUpToDate = new ArrayList<>(deliveries.size());
+		for (DeliveryDataRow delivery : deliveries) {
+			if (!getDateFor(delivery).isAfter(lastDate))
+				deliveriesUpToDate.add(delivery);
+		}
+		return deliveriesUpToDate;
+	}
+
 	@Override
 	public String getMessageText(List<DeliveryDataRow> allDataRows, boolean isSubbed, int subCount) {
-		DeliveryDataInterpretation dataInterpretation = new DeliveryDataInterpretation(allDataRows);
+		DeliveryDataInterpretation dataInterpretation = cube == null ? new DeliveryDataInterpretation(allDataRows)
+				: new DeliveryDataInterpretation(allDataRows, cube, region);
 		return new DeliveryUpdateString(dataInterpretation, isSubbed, subCount).getTextAsMarkdown();
 	}
 
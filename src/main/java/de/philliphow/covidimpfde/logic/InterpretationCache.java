@@ -0,0 +1,127 @@
+package de.philliphow.covidimpfde.logic;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
+
+/**
+ * Memoizes data interpretations per dataset version, region and cutoff date,
+ * so all chats asking for the same data share one interpretation, computed on
+ * the first request. Interpretations are immutable and can therefore be
+ * handed out to any number of threads. Once the cache is full, the least
+ * recently used interpretation is evicted. Like in the {@link ResponseCache},
+ * interpretations are computed outside the lock, so a slow interpretation does
+ * not hold up requests for others.
+ *
+ * Only the interpretations of the latest dataset are kept. A dataset is the
+ * object the api managers build once per snapshot version, like a
+ * {@link de.philliphow.covidimpfde.api.models.VaccinationTimeSeries}, and is
+ * compared by identity along with its version, so datasets of different
+ * managers never share interpretations. The interpretations are only replaced
+ * by the ones of a newer version. Requests still holding an older dataset, like
+ * during a refresh, are interpreted without touching the cache.
+ *
+ * @author PhillipHow
+ *
+ * @param <I> the type of the interpretations
+ */
+public class InterpretationCache<I> {
+
+	private final int maxInterpretations;
+	/**
+	 * The interpretations of the latest dataset, the least recently used first
+	 */
+	private final Map<Long, I> interpretations;
+
+	private Object dataset = null;
+	private long version = -1;
+
+	/**
+	 * @param maxInterpretations number of interpretations to keep
+	 */
+	public InterpretationCache(int maxInterpretations) {
+		this.maxInterpretations = maxInterpretations;
+		this.interpretations = new LinkedHashMap<Long, I>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, I> eldest) {
+				return size() > InterpretationCache.this.maxInterpretations;
+			}
+		};
+	}
+
+	/**
+	 * Gets the interpretation of a dataset that is not split by region.
+	 *
+	 * @param dataset     the dataset to interpret
+	 * @param version     the snapshot version of the dataset
+	 * @param cutoff      the last date included into the interpretation
+	 * @param interpreter computes the interpretation if it is not cached
+	 * @return the cached or computed interpretation
+	 */
+	public I get(Object dataset, long version, LocalDate cutoff, Supplier<I> interpreter) {
+		return get(dataset, version, DeliveryCube.ALL, cutoff, interpreter);
+	}
+
+	/**
+	 * Gets the interpretation of one region of a dataset.
+	 *
+	 * @param dataset     the dataset to interpret
+	 * @param version     the snapshot version of the dataset
+	 * @param region      the region index, or {@link DeliveryCube#ALL}
+	 * @param cutoff      the last date included into the interpretation
+	 * @param interpreter computes the interpretation if it is not cached
+	 * @return the cached or computed interpretation
+	 */
+	public I get(Object dataset, long version, int region, LocalDate cutoff, Supplier<I> interpreter) {
+		Long key = toKey(region, cutoff);
+
+		synchronized (this) {
+			if (version > this.version) {
+				interpretations.clear();
+				this.dataset = dataset;
+				this.version = version;
+			}
+			I interpretation = isCurrent(dataset, version) ? interpretations.get(key) : null;
+			if (interpretation != null)
+				return interpretation;
+		}
+
+		// interpret outside the lock, so other interpretations can be served meanwhile
+		I interpretation = interpreter.get();
+		synchronized (this) {
+			if (!isCurrent(dataset, version))
+				return interpretation;
+			// another request may have interpreted the same data meanwhile, share its result
+			I cachedInterpretation = interpretations.get(key);
+			if (cachedInterpretation != null)
+				return cachedInterpretation;
+			interpretations.put(key, interpretation);
+		}
+		return interpretation;
+	}
+
+	/**
+	 * @return number of interpretations cached for the latest dataset
+	 */
+	public synchronized int size() {
+		return interpretations.size();
+	}
+
+	/**
+	 * @return true if the cache holds the interpretations of this dataset version
+	 */
+	private boolean isCurrent(Object dataset, long version) {
+		return this.dataset == dataset && this.version == version;
+	}
+
+	private static long toKey(int region, LocalDate cutoff) {
+		return ((long) region << 32) | (cutoff.toEpochDay() & 0xFFFFFFFFL);
+	}
+
+}
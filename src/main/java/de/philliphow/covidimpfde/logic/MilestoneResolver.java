@@ -0,0 +1,172 @@
+package de.philliphow.covidimpfde.logic;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
+
+/**
+ * Resolves population quota milestones, like "60% of the population have
+ * received a first dose", to dates. A milestone that has been reached resolves
+ * to the first day on which it was exceeded, found by a binary search over the
+ * cumulative column of the {@link VaccinationTimeSeries}. Other milestones are
+ * estimated from the moving average of the matching daily column. Used by the
+ * {@link VaccinationDataInterpretation}.
+ *
+ * @author PhillipHow
+ *
+ */
+public class MilestoneResolver {
+
+	/**
+	 * The kinds of milestones, each with the cumulative field counting the
+	 * persons and the daily field counting the doses
+	 */
+	public enum MilestoneKind {
+		FIRST_SHOT(VaccinationsDataField.PERSONS_TOTAL_FIRST, VaccinationsDataField.SHOTS_TODAY_FIRST),
+		FULL(VaccinationsDataField.PERSONS_TOTAL_SECOND, VaccinationsDataField.SHOTS_TODAY_SECOND),
+		BOOSTER(VaccinationsDataField.PERSONS_TOTAL_THIRD, VaccinationsDataField.SHOTS_TODAY_THIRD);
+
+		private final VaccinationsDataField personsField;
+		private final VaccinationsDataField dailyShotsField;
+
+		private MilestoneKind(VaccinationsDataField personsField, VaccinationsDataField dailyShotsField) {
+			this.personsField = personsField;
+			this.dailyShotsField = dailyShotsField;
+		}
+
+		public VaccinationsDataField getPersonsField() {
+			return personsField;
+		}
+
+		public VaccinationsDataField getDailyShotsField() {
+			return dailyShotsField;
+		}
+	}
+
+	/**
+	 * A milestone resolved to a date
+	 */
+	public static class Milestone {
+
+		private final MilestoneKind kind;
+		private final double quota;
+		private final LocalDate date;
+		private final boolean isReached;
+
+		private Milestone(MilestoneKind kind, double quota, LocalDate date, boolean isReached) {
+			this.kind = kind;
+			this.quota = quota;
+			this.date = date;
+			this.isReached = isReached;
+		}
+
+		public MilestoneKind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the population quota, between 0 and 1
+		 */
+		public double getQuota() {
+			return quota;
+		}
+
+		/**
+		 * @return the date the milestone was reached, or the estimated date
+		 */
+		public LocalDate getDate() {
+			return date;
+		}
+
+		/**
+		 * @return true if the data shows the milestone has been reached, false if
+		 *         the date is an estimation
+		 */
+		public boolean isReached() {
+			return isReached;
+		}
+	}
+
+	private final VaccinationTimeSeries data;
+	private final int population;
+
+	/**
+	 * @param data       the vaccination data, ordered by date for binary searches
+	 * @param population the population the quotas refer to
+	 */
+	public MilestoneResolver(VaccinationTimeSeries data, int population) {
+		this.data = data;
+		this.population = population;
+	}
+
+	/**
+	 * Resolves several milestones of one kind, as of the latest day.
+	 *
+	 * @param kind       the kind of the milestones
+	 * @param quotas     the population quotas, between 0 and 1
+	 * @param windowDays number of days of the moving average for estimations
+	 * @return the milestones, in the order of the quotas
+	 */
+	public List<Milestone> resolve(MilestoneKind kind, double[] quotas, int windowDays) {
+		List<Milestone> milestones = new ArrayList<>(quotas.length);
+		for (double quota : quotas) {
+			milestones.add(resolve(kind, quota, windowDays, data.size() - 1));
+		}
+		return milestones;
+	}
+
+	/**
+	 * Resolves a milestone as it would have been resolved on a given day.
+	 *
+	 * @param kind       the kind of the milestone
+	 * @param quota      the population quota, between 0 and 1
+	 * @param windowDays number of days of the moving average for estimations
+	 * @param asOfDay    index of the day to resolve the milestone on
+	 * @return the milestone
+	 */
+	public Milestone resolve(MilestoneKind kind, double quota, int windowDays, int asOfDay) {
+		double goal = population * quota;
+		int personsAsOfDay = data.getRow(asOfDay).getIntValue(kind.getPersonsField());
+
+		if (personsAsOfDay > goal) {
+			// goal has already been reached, find out when
+			return new Milestone(kind, quota, getDateReached(kind.getPersonsField(), goal), true);
+		} else {
+			double movingAverage = getMovingAverage(kind.getDailyShotsField(), windowDays, asOfDay);
+			int daysNeeded = (int) ((goal - personsAsOfDay) / movingAverage);
+			return new Milestone(kind, quota, data.getDate(asOfDay).plus(daysNeeded, ChronoUnit.DAYS), false);
+		}
+	}
+
+	/**
+	 * @param field a cumulative field
+	 * @param goal  the value to exceed
+	 * @return the first date at which the field exceeded the goal
+	 */
+	public LocalDate getDateReached(VaccinationsDataField field, double goal) {
+		int day = data.getFirstDayAbove(field, goal);
+		if (day == -1)
+			throw new IllegalStateException(field + " never exceeded " + goal);
+		return data.getDate(day);
+	}
+
+	/**
+	 * @param field      the daily field to average
+	 * @param windowDays number of days to average
+	 * @param lastDay    index of the last day to include
+	 * @return average of the field during the {@code windowDays} days up to
+	 *         {@code lastDay}. Averages over less days if the data starts later.
+	 */
+	public double getMovingAverage(VaccinationsDataField field, int windowDays, int lastDay) {
+		if (windowDays <= 0)
+			throw new IllegalArgumentException("Moving average needs at least one day, not " + windowDays);
+
+		int firstDay = Math.max(lastDay - windowDays + 1, 0);
+		return 1.0 * data.getSum(field, firstDay, lastDay + 1) / (lastDay + 1 - firstDay);
+	}
+
+}
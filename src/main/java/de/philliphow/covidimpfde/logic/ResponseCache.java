@@ -0,0 +1,174 @@
+package de.philliphow.covidimpfde.logic;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
+
+/**
+ * Bounded cache of rendered update texts, evicting the least recently used
+ * text once it is full. A text only depends on the dataset it was rendered
+ * from, the region, the debug date, whether the chat is subscribed, the
+ * number of subscribers and the current day, as dates are worded relative to
+ * today. The cache holds the texts of the latest dataset version and the
+ * current day only, it is emptied when a newer version or the next day comes
+ * in. Requests still holding an older version, like during a refresh, get their
+ * text rendered without touching the cache.
+ *
+ * Like in the {@link InterpretationCache}, a dataset is the object an api
+ * manager builds once per snapshot version, compared by identity along with
+ * its version.
+ *
+ * @author PhillipHow
+ *
+ */
+public class ResponseCache {
+
+	/**
+	 * Identifies one text within a dataset version and day
+	 */
+	private static final class Key {
+
+		private final int region;
+		private final LocalDate debugDate;
+		private final boolean isSubbed;
+		private final int subCount;
+
+		private Key(int region, LocalDate debugDate, boolean isSubbed, int subCount) {
+			this.region = region;
+			this.debugDate = debugDate;
+			this.isSubbed = isSubbed;
+			this.subCount = subCount;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key))
+				return false;
+			Key otherKey = (Key) other;
+			return region == otherKey.region && isSubbed == otherKey.isSubbed && subCount == otherKey.subCount
+					&& debugDate.equals(otherKey.debugDate);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(region, debugDate, isSubbed, subCount);
+		}
+	}
+
+	private final int maxTexts;
+	private final Map<Key, String> texts;
+
+	private Object dataset = null;
+	private long version = -1;
+	private LocalDate day = null;
+
+	private long hitCount = 0;
+	private long missCount = 0;
+
+	/**
+	 * @param maxTexts number of texts to keep
+	 */
+	public ResponseCache(int maxTexts) {
+		this.maxTexts = maxTexts;
+		this.texts = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+				return size() > ResponseCache.this.maxTexts;
+			}
+		};
+	}
+
+	/**
+	 * Gets the text of an update that is not split by region.
+	 *
+	 * @param dataset   the dataset the update is rendered from
+	 * @param version   the snapshot version of the dataset
+	 * @param debugDate the last date included into the update
+	 * @param isSubbed  true if the receiving chat is subscribed
+	 * @param subCount  number of subscribers shown in the update, -1 for none
+	 * @param renderer  renders the text if it is not cached
+	 * @return the cached or rendered text
+	 */
+	public String get(Object dataset, long version, LocalDate debugDate, boolean isSubbed, int subCount,
+			Supplier<String> renderer) {
+		return get(dataset, version, DeliveryCube.ALL, debugDate, isSubbed, subCount, renderer);
+	}
+
+	/**
+	 * Gets the text of an update on one region.
+	 *
+	 * @param dataset   the dataset the update is rendered from
+	 * @param version   the snapshot version of the dataset
+	 * @param region    the region index, or {@link DeliveryCube#ALL}
+	 * @param debugDate the last date included into the update
+	 * @param isSubbed  true if the receiving chat is subscribed
+	 * @param subCount  number of subscribers shown in the update, -1 for none
+	 * @param renderer  renders the text if it is not cached
+	 * @return the cached or rendered text
+	 */
+	public String get(Object dataset, long version, int region, LocalDate debugDate, boolean isSubbed,
+			int subCount, Supplier<String> renderer) {
+		LocalDate today = LocalDate.now();
+		Key key = new Key(region, debugDate, isSubbed, subCount);
+
+		synchronized (this) {
+			if (version > this.version
+					|| (version == this.version && dataset == this.dataset && today.isAfter(this.day))) {
+				texts.clear();
+				this.dataset = dataset;
+				this.version = version;
+				this.day = today;
+			}
+			String text = isCurrent(dataset, version, today) ? texts.get(key) : null;
+			if (text != null) {
+				hitCount++;
+				return text;
+			}
+			missCount++;
+		}
+
+		// render outside the lock, so other texts can be served meanwhile
+		String text = renderer.get();
+		synchronized (this) {
+			if (isCurrent(dataset, version, today))
+				texts.put(key, text);
+		}
+		return text;
+	}
+
+	/**
+	 * @return true if the cache holds the texts of this dataset version and day
+	 */
+	private boolean isCurrent(Object dataset, long version, LocalDate today) {
+		return this.dataset == dataset && this.version == version && today.equals(this.day);
+	}
+
+	/**
+	 * @return number of requests answered from the cache so far
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return number of requests that needed to render their text so far
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return number of texts currently cached
+	 */
+	public synchronized int size() {
+		return texts.size();
+	}
+
+}
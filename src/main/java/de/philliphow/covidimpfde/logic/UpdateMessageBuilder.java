@@ -1,7 +1,6 @@
 package de.philliphow.covidimpfde.logic;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,7 +24,8 @@ public abstract class UpdateMessageBuilder<T> {
 	 */
 	private String chatId = null;
 	/**
-	 * List of data rows that form the source material for this update
+	 * List of data rows that form the source material for this update. Not
+	 * copied, as the lists handed out by the api caches are immutable.
 	 */
 	private List<T> allDataRows = null;
 	/**
@@ -77,8 +77,13 @@ public abstract class UpdateMessageBuilder<T> {
 		return this;
 	}
 
+	/**
+	 * @param allDataRows the source data. Must not be modified afterwards, like
+	 *                    the unmodifiable lists returned by the api caches.
+	 * @return the builder
+	 */
 	public UpdateMessageBuilder<T> setContentData(List<T> allDataRows) {
-		this.allDataRows = new ArrayList<>(allDataRows);
+		this.allDataRows = allDataRows;
 		return this;
 	}
 	
@@ -99,27 +104,88 @@ public abstract class UpdateMessageBuilder<T> {
 		return this;
 	}
 
+	protected boolean getIsSubbed() {
+		return isSubbed;
+	}
+
+	protected int getSubCount() {
+		return subCount;
+	}
+
+	protected LocalDate getDebugDate() {
+		return debugDate;
+	}
+
+	/**
+	 * Generates the update String from the content data up to the debug date.
+	 * Builders that can answer from a cache override this.
+	 * 
+	 * @return a String in markdown format with the update
+	 */
+	protected String getMessageText() {
+		// usually no data row is after the debug date, then the rows are used as they are
+		boolean hasRowsAfterDebugDate = this.allDataRows.stream()
+				.anyMatch(vaccDataRow -> getDateFor(vaccDataRow).isAfter(debugDate));
+		List<T> vaccinationDataToUse = !hasRowsAfterDebugDate ? this.allDataRows
+				: this.allDataRows.stream()
+						.filter(vaccDataRow -> getDateFor(vaccDataRow).isBefore(debugDate)
+								|| getDateFor(vaccDataRow).isEqual(debugDate))
+						.collect(Collectors.toList());
+
+		return getMessageText(vaccinationDataToUse, this.isSubbed, this.subCount);
+	}
+
+	/**
+	 * @return true if the source material of the update has been set. Builders
+	 *         that only build their content data when they have to render the
+	 *         update override this.
+	 */
+	protected boolean hasContentData() {
+		return allDataRows != null;
+	}
+
 	private boolean isReady() {
-		return chatId != null && allDataRows != null;
+		return chatId != null && hasContentData();
 	}
 
 	public SendMessage build() {
 		if (!isReady())
 			throw new UnsupportedOperationException("data and chatId need to be set to build UpdateMessage!");
 
+		return buildFor(chatId, buildText());
+	}
+
+	/**
+	 * Renders the update text without building a message, so the same text can
+	 * be sent to many chats, see {@code buildFor}. The chatId does not need to
+	 * be set.
+	 * 
+	 * @return the update text in markdown format
+	 */
+	public String buildText() {
+		if (!hasContentData())
+			throw new UnsupportedOperationException("data needs to be set to build UpdateMessage!");
+
 		if (!this.debugDate.equals(LocalDate.now()))
 			Logger.debug("Including only updates up to {}", debugDate);
 
-		List<T> vaccinationDataToUse = this.allDataRows.stream()
-				.filter(vaccDataRow -> getDateFor(vaccDataRow).isBefore(debugDate)
-						|| getDateFor(vaccDataRow).isEqual(debugDate))
-				.collect(Collectors.toList());
+		return getMessageText();
+	}
 
+	/**
+	 * Builds a message with an already rendered update text. Used to send the
+	 * same update to many chats, rendering it only once.
+	 * 
+	 * @param chatId the telegram id of the chat receiving the update
+	 * @param text   the update text, as returned by {@code buildText}
+	 * @return the message
+	 */
+	public static SendMessage buildFor(String chatId, String text) {
 		SendMessage message = new SendMessage();
 		message.enableMarkdown(true);
 		message.setDisableWebPagePreview(true);
 		message.setChatId(chatId);
-		message.setText(getMessageText(vaccinationDataToUse, this.isSubbed, this.subCount));
+		message.setText(text);
 
 		return message;
 	}
@@ -3,18 +3,23 @@ package de.philliphow.covidimpfde.logic;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
 import de.philliphow.covidimpfde.api.models.Vaccine;
+import de.philliphow.covidimpfde.api.models.WeeklyAggregation;
 import de.philliphow.covidimpfde.api.models.WeeklySummary;
+import de.philliphow.covidimpfde.logic.MilestoneResolver.Milestone;
+import de.philliphow.covidimpfde.logic.MilestoneResolver.MilestoneKind;
 import de.philliphow.covidimpfde.strings.messagegenerators.VaccinationUpdateString;
 
 /**
  * Class that draws meaningful conclusions from a {@link List} of
  * {@link VaccinationDataRow}s. Used by {@link VaccinationUpdateString} to
- * assemble the vaccination update String.
+ * assemble the vaccination update String. Scans over all days read the
+ * primitive columns of a {@link VaccinationTimeSeries}.
  * 
  * @author PhillipHow
  *
@@ -26,6 +31,14 @@ public class VaccinationDataInterpretation {
 	 * date estimation
 	 */
 	public static final int MOVING_AVERAGE_DAY_COUNT = 14;
+	/**
+	 * Shorter window for moving averages, reacting faster to changes
+	 */
+	public static final int MOVING_AVERAGE_DAY_COUNT_SHORT = 7;
+	/**
+	 * Longer window for moving averages, smoothing out holidays
+	 */
+	public static final int MOVING_AVERAGE_DAY_COUNT_LONG = 28;
 
 	/**
 	 * German population See www.destatis.de
@@ -35,15 +48,29 @@ public class VaccinationDataInterpretation {
 	/**
 	 * The data to be used
 	 */
-	private final List<VaccinationDataRow> data;
+	private final VaccinationTimeSeries data;
+	/**
+	 * Index of the latest day in {@code data}
+	 */
+	private final int latestDay;
 	/**
 	 * Reference to the latest vaccination update, as this is needed quite often
 	 */
 	private final VaccinationDataRow latestUpdate;
+	/**
+	 * Resolves milestones and moving averages on {@code data}
+	 */
+	private final MilestoneResolver milestoneResolver;
 
 	public VaccinationDataInterpretation(List<VaccinationDataRow> vaccinations) {
-		this.data = new ArrayList<>(vaccinations);
-		this.latestUpdate = data.get(data.size() - 1);
+		this(VaccinationTimeSeries.from(vaccinations));
+	}
+
+	public VaccinationDataInterpretation(VaccinationTimeSeries vaccinations) {
+		this.data = vaccinations;
+		this.latestDay = data.size() - 1;
+		this.latestUpdate = data.getRow(latestDay);
+		this.milestoneResolver = new MilestoneResolver(data, GERMAN_POPULATION);
 	}
 
 	public VaccinationDataRow getLatestUpdate() {
@@ -93,12 +120,10 @@ public class VaccinationDataInterpretation {
 	 *         the week before
 	 */
 	public int getLatestUpdateDiffOneWeekAgo() {
-		VaccinationDataRow latest = latestUpdate;
-		int oneWeekAgoIndex = data.size() - 1 - 7;
+		int oneWeekAgoIndex = latestDay - 7;
 		if (oneWeekAgoIndex < 0)
 			return latestUpdate.getShotsToday();
-		VaccinationDataRow oneWeekEarlier = data.get(data.size() - 8);
-		return latest.getShotsToday() - oneWeekEarlier.getShotsToday();
+		return latestUpdate.getShotsToday() - data.getInt(VaccinationsDataField.SHOTS_TODAY, oneWeekAgoIndex);
 	}
 
 	/**
@@ -165,10 +190,10 @@ public class VaccinationDataInterpretation {
 	 */
 	public int getLatestUpdateDiffBy(Vaccine vaccine) {
 		int lastUpdateNumber = latestUpdate.getTotalShotsByVaccine(vaccine);
-		int beforeLastUpdateIndex = data.size() - 2;
+		int beforeLastUpdateIndex = latestDay - 1;
 		if (beforeLastUpdateIndex < 0)
 			return 0;
-		int beforeLastUpdateNumber = data.get(beforeLastUpdateIndex).getTotalShotsByVaccine(vaccine);
+		int beforeLastUpdateNumber = data.getInt(vaccine.getVaccinationsDataField(), beforeLastUpdateIndex);
 
 		return lastUpdateNumber - beforeLastUpdateNumber;
 	}
@@ -189,16 +214,25 @@ public class VaccinationDataInterpretation {
 	 * @return the day ranking of the latest update
 	 */
 	public int getLatestUpdateDayRanking() {
+		return getDayRanking(VaccinationsDataField.SHOTS_TODAY, latestDay);
+	}
 
-		int todayShots = latestUpdate.getShotsToday();
-		int betterDays = 0;
-		for (VaccinationDataRow currentDay : data) {
-			if (currentDay.getShotsToday() > todayShots) {
-				betterDays++;
-			}
-		}
+	/**
+	 * Get the "day ranking" of a day by any daily field, like first shots or
+	 * booster shots. A day ranking of 1 indicates that the field had its greatest
+	 * value on this day.
+	 * 
+	 * @param field a daily field
+	 * @param date  the day to rank
+	 * @return the day ranking of the day
+	 * @throws IllegalArgumentException if there is no data for {@code date}
+	 */
+	public int getDayRanking(VaccinationsDataField field, LocalDate date) {
+		return getDayRanking(field, dayOf(date));
+	}
 
-		return betterDays + 1;
+	private int getDayRanking(VaccinationsDataField field, int day) {
+		return data.getRank(field, day);
 	}
 
 	/**
@@ -207,7 +241,24 @@ public class VaccinationDataInterpretation {
 	 * @return data row of the most productive day
 	 */
 	public VaccinationDataRow getBestDay() {
-		return data.stream().max((d1, d2) -> Integer.compare(d1.getShotsToday(), d2.getShotsToday())).get();
+		return getTopDays(VaccinationsDataField.SHOTS_TODAY, 1).get(0);
+	}
+
+	/**
+	 * Gets the best days by any daily field, like first shots or booster shots.
+	 * 
+	 * @param field a daily field
+	 * @param k     number of days
+	 * @return the data rows of the k days with the greatest values of the field,
+	 *         the best day first
+	 */
+	public List<VaccinationDataRow> getTopDays(VaccinationsDataField field, int k) {
+		int[] topDays = data.getTopDays(field, k);
+		List<VaccinationDataRow> topRows = new ArrayList<>(topDays.length);
+		for (int day : topDays) {
+			topRows.add(data.getRow(day));
+		}
+		return topRows;
 	}
 
 	/**
@@ -222,34 +273,57 @@ public class VaccinationDataInterpretation {
 	 *         {@code MOVING_AVERAGE_DAY_COUNT} days
 	 */
 	public double getMovingFirstShotAverage() {
-		int dayCounter = 0;
-		int currentVaccinationDayIndex = data.size() - 1;
-		int firstDosesInPeriod = 0;
-
-		while (dayCounter < MOVING_AVERAGE_DAY_COUNT && currentVaccinationDayIndex >= 0) {
-			firstDosesInPeriod += data.get(currentVaccinationDayIndex).getFirstShotsToday();
-			dayCounter++;
-			currentVaccinationDayIndex--;
-		}
+		return getMovingFirstShotAverage(MOVING_AVERAGE_DAY_COUNT);
+	}
 
-		return 1.0 * firstDosesInPeriod / dayCounter;
+	/**
+	 * @param windowDays number of days to average, like
+	 *                   {@code MOVING_AVERAGE_DAY_COUNT_SHORT}
+	 * @return Average number of first doses issued each day during the last
+	 *         {@code windowDays} days
+	 */
+	public double getMovingFirstShotAverage(int windowDays) {
+		return getMovingAverage(VaccinationsDataField.SHOTS_TODAY_FIRST, windowDays, latestDay);
 	}
 	
 	public double getMovingTotalShotsAverage() {
-		
-		int dayCounter = 0;
-		int currentVaccinationDayIndex = data.size() - 1;
-		int dosesInPeriod = 0;
-
-		while (dayCounter < MOVING_AVERAGE_DAY_COUNT && currentVaccinationDayIndex >= 0) {
-			dosesInPeriod += data.get(currentVaccinationDayIndex).getShotsToday();
-			dayCounter++;
-			currentVaccinationDayIndex--;
-		}
+		return getMovingTotalShotsAverage(MOVING_AVERAGE_DAY_COUNT);
+	}
 
-		return 1.0 * dosesInPeriod / dayCounter;
+	/**
+	 * @param windowDays number of days to average
+	 * @return Average number of doses issued each day during the last
+	 *         {@code windowDays} days
+	 */
+	public double getMovingTotalShotsAverage(int windowDays) {
+		return getMovingAverage(VaccinationsDataField.SHOTS_TODAY, windowDays, latestDay);
+	}
+
+	/**
+	 * Gets the moving average of a daily field as it was on a past day.
+	 * 
+	 * @param field      the daily field to average
+	 * @param windowDays number of days to average
+	 * @param lastDate   the last day to include
+	 * @return average of the field during the {@code windowDays} days up to
+	 *         {@code lastDate}. Averages over less days if the data starts
+	 *         later.
+	 * @throws IllegalArgumentException if there is no data for {@code lastDate}
+	 */
+	public double getMovingAverage(VaccinationsDataField field, int windowDays, LocalDate lastDate) {
+		return getMovingAverage(field, windowDays, dayOf(lastDate));
+	}
+
+	private double getMovingAverage(VaccinationsDataField field, int windowDays, int lastDay) {
+		return milestoneResolver.getMovingAverage(field, windowDays, lastDay);
+	}
+
+	private int dayOf(LocalDate date) {
+		int day = data.indexOf(date);
+		if (day == -1)
+			throw new IllegalArgumentException("No vaccination data for " + date);
+		return day;
 	}
-		
 
 	/**
 	 * Estimates the date to which a certain part of the german population
@@ -266,19 +340,43 @@ public class VaccinationDataInterpretation {
 	 *         are similar to the last {@code MOVING_AVERAGE_DAY_COUNT} days
 	 */
 	public LocalDate getOneShotPopQuotaVaccinatedEstimation(double herdImmunityFactor) {
-		double firstShotMovingAverage = getMovingFirstShotAverage();
-		int alreadyVaccinatedOnce = latestUpdate.getPersonsVaccinatedOnce();
-		double vaccinationGoal = GERMAN_POPULATION * herdImmunityFactor;
-		double peopleThatStillNeedToBeVaccinated = vaccinationGoal - alreadyVaccinatedOnce;
-		
-		if (alreadyVaccinatedOnce > vaccinationGoal) {
-			// goal has already been reached, find out when
-			return data.stream().filter(row -> row.getPersonsVaccinatedOnce() > vaccinationGoal).findFirst().get()
-					.getDate();
-		} else {
-			int daysNeeded = (int) (peopleThatStillNeedToBeVaccinated / firstShotMovingAverage);
-			return getLatestUpdate().getDate().plus(daysNeeded, ChronoUnit.DAYS);
-		}
+		return getOneShotPopQuotaVaccinatedEstimation(herdImmunityFactor, MOVING_AVERAGE_DAY_COUNT, latestDay);
+	}
+
+	/**
+	 * Estimates the date to which a certain part of the german population is
+	 * vaccinated once, as the estimation would have been on a past day. See
+	 * {@code getOneShotPopQuotaVaccinatedEstimation(double)}.
+	 * 
+	 * @param herdImmunityFactor number between 0 and 1, how big the percentage of
+	 *                           people vaccinated once should be
+	 * @param windowDays         number of days of the moving average of first
+	 *                           shots
+	 * @param asOf               the day of the estimation
+	 * @return the estimated date, or the date the goal was reached if it had been
+	 *         reached by {@code asOf}
+	 * @throws IllegalArgumentException if there is no data for {@code asOf}
+	 */
+	public LocalDate getOneShotPopQuotaVaccinatedEstimation(double herdImmunityFactor, int windowDays,
+			LocalDate asOf) {
+		return getOneShotPopQuotaVaccinatedEstimation(herdImmunityFactor, windowDays, dayOf(asOf));
+	}
+
+	private LocalDate getOneShotPopQuotaVaccinatedEstimation(double herdImmunityFactor, int windowDays, int asOfDay) {
+		return milestoneResolver.resolve(MilestoneKind.FIRST_SHOT, herdImmunityFactor, windowDays, asOfDay).getDate();
+	}
+
+	/**
+	 * Resolves population quota milestones of one kind, as of the latest update,
+	 * using the {@code MOVING_AVERAGE_DAY_COUNT} days moving average for
+	 * estimations.
+	 * 
+	 * @param kind   first shot, full or booster milestones
+	 * @param quotas the population quotas, between 0 and 1
+	 * @return the milestones, in the order of the quotas
+	 */
+	public List<Milestone> getMilestones(MilestoneKind kind, double[] quotas) {
+		return milestoneResolver.resolve(kind, quotas, MOVING_AVERAGE_DAY_COUNT);
 	}
 	
 	@SuppressWarnings("unused")
@@ -290,21 +388,19 @@ public class VaccinationDataInterpretation {
 		
 		if (totalShotsGiven > shotGoal) {
 			// goal has already been reached, find out when
-			return data.stream().filter(row -> row.getTotalShots() > shotGoal).findFirst().get()
-					.getDate();
+			return milestoneResolver.getDateReached(VaccinationsDataField.SHOTS_TOTAL, shotGoal);
 		} else {
 			int daysNeeded = (int) (shotsThatAreStillNeeded / shotMovingAverage);
 			return getLatestUpdate().getDate().plus(daysNeeded, ChronoUnit.DAYS);
 		}
 		
 	}
-	
 
 	/**
 	 * @return all updates during the last 7 days
 	 */
 	public List<VaccinationDataRow> getLastWeek() {
-		return data.subList(Math.max(data.size() - 7, 0), data.size());
+		return data.getRows(Math.max(data.size() - 7, 0), data.size());
 	}
 
 	/**
@@ -312,11 +408,28 @@ public class VaccinationDataInterpretation {
 	 * @return the last n {@link WeeklySummary}s, with the newest first
 	 */
 	public List<WeeklySummary> getLastNWeeklySummarys(int n) {
-		List<WeeklySummary> weeklySummarys = WeeklySummary.generateFrom(data);
-		Collections.reverse(weeklySummarys);
+		return data.getWeeklyAggregation().getLastNWeeks(n);
+	}
 
-		return weeklySummarys.subList(0, Math.min(n, weeklySummarys.size()));
+	/**
+	 * Get the "week ranking" of the calendar week of the latest update. A week
+	 * ranking of 1 indicates that this has been the most productive calendar week
+	 * (by doses issued) of the vaccination campaign, etc.
+	 * 
+	 * @return the week ranking of the latest calendar week
+	 */
+	public int getLatestWeekRanking() {
+		WeeklyAggregation weeks = data.getWeeklyAggregation();
+		return weeks.getRank(weeks.getWeekCount() - 1);
+	}
 
+	/**
+	 * Gets the most productive calendar week so far (by doses issued)
+	 * 
+	 * @return summary of the most productive calendar week
+	 */
+	public WeeklySummary getBestWeek() {
+		return data.getWeeklyAggregation().getBestWeek();
 	}
 	
 
@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
 import de.philliphow.covidimpfde.strings.messagegenerators.VaccinationUpdateString;
 import de.philliphow.covidimpfde.telegram.commands.VaccinationCommand;
 
@@ -14,11 +15,71 @@ import de.philliphow.covidimpfde.telegram.commands.VaccinationCommand;
  * that. See {@link UpdateMessageBuilder} for more documentation on the desired
  * behavior of this class.
  * 
+ * If the content data is set as {@link VaccinationTimeSeries}, the
+ * interpretation is shared with all other updates on the same time series and
+ * debug date, see {@link InterpretationCache}, and the rendered text is
+ * cached, see {@link ResponseCache}.
+ * 
  * @author PhillipHow
  *
  */
 public class VaccinationUpdateBuilder extends UpdateMessageBuilder<VaccinationDataRow> {
 
+	/**
+	 * Number of rendered texts kept, see {@link ResponseCache}
+	 */
+	private static final int CACHED_RESPONSES = 64;
+	/**
+	 * Number of interpretations kept, see {@link InterpretationCache}
+	 */
+	private static final int CACHED_INTERPRETATIONS = 64;
+
+	private static final InterpretationCache<VaccinationDataInterpretation> INTERPRETATIONS = new InterpretationCache<>(
+			CACHED_INTERPRETATIONS);
+	private static final ResponseCache RESPONSES = new ResponseCache(CACHED_RESPONSES);
+
+	/**
+	 * The time series the content data stems from, null if only rows are given
+	 */
+	private VaccinationTimeSeries timeSeries = null;
+
+	/**
+	 * Sets the content data to the days of a time series, like the one of
+	 * {@code VaccinationsApiManager::getTimeSeries}.
+	 * 
+	 * @param timeSeries the vaccination data, ordered by date
+	 * @return the builder
+	 */
+	public VaccinationUpdateBuilder setTimeSeries(VaccinationTimeSeries timeSeries) {
+		this.timeSeries = timeSeries;
+		this.setContentData(timeSeries.getRows(0, timeSeries.size()));
+		return this;
+	}
+
+	/**
+	 * @return the cache of the texts rendered from time series
+	 */
+	public static ResponseCache getResponseCache() {
+		return RESPONSES;
+	}
+
+	@Override
+	protected String getMessageText() {
+		if (timeSeries == null || !timeSeries.isOrderedByDate())
+			return super.getMessageText();
+
+		VaccinationTimeSeries currentTimeSeries = timeSeries;
+		LocalDate debugDate = getDebugDate();
+		boolean isSubbed = getIsSubbed();
+		int subCount = getSubCount();
+		return RESPONSES.get(currentTimeSeries, currentTimeSeries.getVersion(), debugDate, isSubbed, subCount, () -> {
+			VaccinationDataInterpretation vaccinationDataInterpretation = INTERPRETATIONS.get(currentTimeSeries,
+					currentTimeSeries.getVersion(), debugDate,
+					() -> new VaccinationDataInterpretation(currentTimeSeries.upTo(debugDate)));
+			return new VaccinationUpdateString(vaccinationDataInterpretation, isSubbed, subCount).getTextAsMarkdown();
+		});
+	}
+
 	@Override
 	public String getMessageText(List<VaccinationDataRow> allDataRows, boolean isSubbed, int subCount) {
 		VaccinationDataInterpretation vaccinationDataInterpretation = new VaccinationDataInterpretation(allDataRows);
@@ -1,32 +1,106 @@
 package de.philliphow.covidimpfde.services;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
 import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.pmw.tinylog.Logger;
 
-import com.turbomanage.httpclient.BasicHttpClient;
-import com.turbomanage.httpclient.HttpResponse;
-import com.turbomanage.httpclient.ParameterMap;
-import com.turbomanage.httpclient.RequestLogger;
-
 /**
  * Class to read resources found under an {@link URL}. Provides synchronous read
- * access to download them to a {@link String}. URL can also point to local
- * files, if required.
+ * access to download them to a {@link String}, or to process them as a stream
+ * without holding them in memory. URL can also point to local files, if
+ * required.
+ * 
+ * Web resources are fetched conditionally: the validators ({@code ETag} and
+ * {@code Last-Modified}) of the last response are remembered and sent with the
+ * next request, so an unchanged resource is answered with a bodyless
+ * {@code 304 Not Modified}. Keep one instance per URL to benefit from this.
+ * Resources that only grow at their end can also be read partially, starting
+ * at a given byte offset (HTTP {@code Range} requests, or a seek for local
+ * files). Full downloads can optionally be transferred compressed (gzip or
+ * deflate), they are decompressed while being read.
  * 
  * @author PhillipHow
  *
  */
 public class UrlStringRessourceResolver {
 
+	/**
+	 * Processes the content of a resource while it is being read.
+	 * 
+	 * @param <R> the result of the processing
+	 */
+	public interface RessourceReader<R> {
+		/**
+		 * @param ressourceStream the (decompressed) resource content. Closed by the
+		 *                        caller after this method returns.
+		 * @return the result of the processing
+		 * @throws IOException if the stream could not be read
+		 */
+		public R read(InputStream ressourceStream) throws IOException;
+	}
+
+	private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+	private static final int READ_TIMEOUT_MILLIS = 8000;
+
 	/**
 	 * The resource URL
 	 */
 	private final URL url;
+	/**
+	 * If true, full downloads of web resources accept a gzip or deflate
+	 * compressed transfer
+	 */
+	private final boolean acceptCompression;
+
+	/**
+	 * The {@code ETag} header of the last full response, null if unknown
+	 */
+	private String entityTag = null;
+	/**
+	 * The {@code Last-Modified} header of the last full response, null if unknown
+	 */
+	private String lastModified = null;
+
+	/**
+	 * Number of requests answered with a full body (HTTP 200)
+	 */
+	private int fullResponseCount = 0;
+	/**
+	 * Number of requests answered with HTTP 304 (resource unchanged)
+	 */
+	private int notModifiedResponseCount = 0;
+	/**
+	 * Number of range requests answered with HTTP 206 (partial content)
+	 */
+	private int partialResponseCount = 0;
+
+	/**
+	 * Bytes transferred over the network by the last request, before
+	 * decompression
+	 */
+	private long lastTransferredBytes = 0;
+	/**
+	 * Bytes of the last response body, after decompression
+	 */
+	private long lastDecodedBytes = 0;
+	private long totalTransferredBytes = 0;
+	private long totalDecodedBytes = 0;
 
 	/**
 	 * Constructs the resource.
@@ -35,37 +109,353 @@ public class UrlStringRessourceResolver {
 	 *                      local file
 	 */
 	public UrlStringRessourceResolver(URL dataSourceUrl) {
+		this(dataSourceUrl, false);
+	}
+
+	/**
+	 * Constructs the resource.
+	 * 
+	 * @param dataSourceUrl     the URL of the resource. Can be a web resource or a
+	 *                          local file
+	 * @param acceptCompression true to let the server compress full downloads
+	 *                          with gzip or deflate
+	 */
+	public UrlStringRessourceResolver(URL dataSourceUrl, boolean acceptCompression) {
 		this.url = dataSourceUrl;
+		this.acceptCompression = acceptCompression;
 	}
 
 	public String getAsStringSync() throws IOException {
 		
-		String protocol = this.url.getProtocol();
-		if (protocol.equals("https") || protocol.equals("http"))
+		if (isWebResource())
 			return getHttpRessourceAsStringSync();
 		else
 			return getLocalResourceAsStringSync();
 	}
+
+	/**
+	 * Like {@code getAsStringSync}, but returns nothing if the resource has not
+	 * changed since the last call. Only web resources support this, local files
+	 * are always read.
+	 * 
+	 * @return the resource as String, or an empty optional if the server answered
+	 *         with 304 Not Modified
+	 * @throws IOException if the resource is not reachable
+	 */
+	public Optional<String> getAsStringSyncIfModified() throws IOException {
+		return getAsBytesSyncIfModified().map(bytes -> new String(bytes, StandardCharsets.UTF_8).trim());
+	}
+
+	/**
+	 * Like {@code getAsStringSyncIfModified}, but returns the untouched bytes of
+	 * the resource.
+	 * 
+	 * @return the resource as bytes, or an empty optional if the server answered
+	 *         with 304 Not Modified
+	 * @throws IOException if the resource is not reachable
+	 */
+	public Optional<byte[]> getAsBytesSyncIfModified() throws IOException {
+		return readSyncIfModified(UrlStringRessourceResolver::readFully);
+	}
+
+	/**
+	 * Downloads the resource, even if it has not been modified since the last
+	 * request.
+	 * 
+	 * @return the resource as bytes
+	 * @throws IOException if the resource is not reachable
+	 */
+	public byte[] getAsBytesSync() throws IOException {
+		return readSync(UrlStringRessourceResolver::readFully);
+	}
+
+	/**
+	 * Streams the resource through the given reader if it has changed since the
+	 * last call. The resource is never held in memory as a whole by this class.
+	 * 
+	 * @param reader processes the resource content
+	 * @param <R>    the result type of the reader
+	 * @return the result of the reader, or an empty optional if the server
+	 *         answered with 304 Not Modified
+	 * @throws IOException if the resource is not reachable
+	 */
+	public <R> Optional<R> readSyncIfModified(RessourceReader<R> reader) throws IOException {
+		return readSync(true, reader);
+	}
+
+	/**
+	 * Streams the resource through the given reader, even if it has not been
+	 * modified since the last request.
+	 * 
+	 * @param reader processes the resource content
+	 * @param <R>    the result type of the reader
+	 * @return the result of the reader
+	 * @throws IOException if the resource is not reachable
+	 */
+	public <R> R readSync(RessourceReader<R> reader) throws IOException {
+		return readSync(false, reader).get();
+	}
+
+	/**
+	 * Reads the resource starting at the given byte offset. Web resources are
+	 * requested conditionally with a {@code Range} header.
+	 * 
+	 * @param firstByte the offset of the first byte to read
+	 * @return the requested bytes, the whole resource if the server ignored the
+	 *         range, or a response stating that the resource has not been
+	 *         modified or that the range could not be served
+	 * @throws IOException if the resource is not reachable
+	 */
+	public RangeResponse getAsBytesSyncFrom(long firstByte) throws IOException {
+
+		if (!isWebResource())
+			return getLocalResourceBytesFrom(firstByte);
+
+		HttpURLConnection connection = openHttpConnection(true, firstByte);
+
+		try {
+			int status = connection.getResponseCode();
+			if (status == HttpURLConnection.HTTP_NOT_MODIFIED)
+				return RangeResponse.notModified();
+
+			String contentRange = connection.getHeaderField("Content-Range");
+			if (status == HttpURLConnection.HTTP_PARTIAL && contentRange != null
+					&& contentRange.startsWith("bytes " + firstByte + "-")) {
+				acceptResponse(connection);
+				return RangeResponse.partialContent(readBody(connection, UrlStringRessourceResolver::readFully));
+			}
+
+			// the server ignored the range, its answer is the whole resource
+			if (status == HttpURLConnection.HTTP_OK) {
+				acceptResponse(connection);
+				return RangeResponse.fullContent(readBody(connection, UrlStringRessourceResolver::readFully));
+			}
+
+			return RangeResponse.rangeNotServed();
+		} finally {
+			connection.disconnect();
+		}
+	}
 	
 	public String getHttpRessourceAsStringSync() throws IOException {
 		
-		BasicHttpClient httpClient = new BasicHttpClient(url.toString());
-		httpClient.setRequestLogger(new HttpClientDisabledLogger());
-	
-		
-		httpClient.addHeader("Accept-Encoding", "");
-		HttpResponse response = httpClient.get("", new ParameterMap());
-		
-		if (response == null)
-			throw new IOException("Ressource not readable!");
+		byte[] body = readSync(UrlStringRessourceResolver::readFully);
 		
-		return response.getBodyAsString().trim();
-			
+		return new String(body, StandardCharsets.UTF_8).trim();
+	}
+
+	/**
+	 * Forgets the remembered validators, so that the next conditional request
+	 * downloads the full resource again. Call this if a downloaded body could not
+	 * be processed.
+	 */
+	public void forgetValidators() {
+		this.entityTag = null;
+		this.lastModified = null;
+	}
+
+	/**
+	 * @return number of requests that were answered with the full resource
+	 */
+	public int getFullResponseCount() {
+		return fullResponseCount;
+	}
+
+	/**
+	 * @return number of conditional requests that were answered with 304 Not
+	 *         Modified
+	 */
+	public int getNotModifiedResponseCount() {
+		return notModifiedResponseCount;
+	}
+
+	/**
+	 * @return number of range requests that were answered with partial content
+	 */
+	public int getPartialResponseCount() {
+		return partialResponseCount;
+	}
+
+	/**
+	 * @return bytes transferred over the network by the last request
+	 */
+	public long getLastTransferredBytes() {
+		return lastTransferredBytes;
+	}
+
+	/**
+	 * @return size of the last response body after decompression. Equal to
+	 *         {@code getLastTransferredBytes} if the body was not compressed.
+	 */
+	public long getLastDecodedBytes() {
+		return lastDecodedBytes;
+	}
+
+	public long getTotalTransferredBytes() {
+		return totalTransferredBytes;
+	}
+
+	public long getTotalDecodedBytes() {
+		return totalDecodedBytes;
+	}
+
+	private boolean isWebResource() {
+		String protocol = this.url.getProtocol();
+		return protocol.equals("https") || protocol.equals("http");
+	}
+
+	private <R> Optional<R> readSync(boolean conditional, RessourceReader<R> reader) throws IOException {
+
+		if (!isWebResource()) {
+			CountingInputStream localInput = new CountingInputStream(url.openStream());
+			try {
+				return Optional.of(reader.read(localInput));
+			} finally {
+				localInput.close();
+				recordTransfer(localInput.getCount(), localInput.getCount());
+			}
+		}
+
+		HttpURLConnection connection = openHttpConnection(conditional, -1);
+
+		try {
+			if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED)
+				return Optional.empty();
+
+			acceptResponse(connection);
+			return Optional.of(readBody(connection, reader));
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Sends a GET request for the resource and reads the response headers. A
+	 * response with content is only counted, and its validators remembered, once
+	 * the caller accepts it, see {@code acceptResponse}.
+	 * 
+	 * @param conditional true to send the remembered validators
+	 * @param firstByte   if not negative, only the bytes from this offset on are
+	 *                    requested
+	 * @return the connection, ready to read the body from
+	 * @throws IOException if the resource is not reachable
+	 */
+	private HttpURLConnection openHttpConnection(boolean conditional, long firstByte) throws IOException {
+
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+		connection.setReadTimeout(READ_TIMEOUT_MILLIS);
 	
+		// ranges refer to the encoded bytes, so partial downloads are never compressed
+		if (acceptCompression && firstByte < 0)
+			connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+		else
+			connection.setRequestProperty("Accept-Encoding", "identity");
+		if (conditional && entityTag != null)
+			connection.setRequestProperty("If-None-Match", entityTag);
+		if (conditional && lastModified != null)
+			connection.setRequestProperty("If-Modified-Since", lastModified);
+		if (firstByte >= 0)
+			connection.setRequestProperty("Range", "bytes=" + firstByte + "-");
+
+		int status = connection.getResponseCode();
+		
+		if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+			notModifiedResponseCount++;
+			recordTransfer(0, 0);
+		} else if (status == 416) {
+			// range not satisfiable, the caller falls back to a full download
+		} else if (status >= 400) {
+			connection.disconnect();
+			throw new IOException("Ressource not readable! HTTP status " + status);
+		}
 		
+		return connection;
+	}
+
+	/**
+	 * Counts a response that is going to be read and remembers its validators.
+	 * 
+	 * @param connection the connection with the accepted response
+	 * @throws IOException if the response headers could not be read
+	 */
+	private void acceptResponse(HttpURLConnection connection) throws IOException {
+		if (connection.getResponseCode() == HttpURLConnection.HTTP_PARTIAL)
+			partialResponseCount++;
+		else
+			fullResponseCount++;
+		entityTag = connection.getHeaderField("ETag");
+		lastModified = connection.getHeaderField("Last-Modified");
+	}
+
+	/**
+	 * Reads the body of a response through the given reader, decompressing it if
+	 * necessary.
+	 */
+	private <R> R readBody(HttpURLConnection connection, RessourceReader<R> reader) throws IOException {
+		DecompressingRequestHandler requestHandler = new DecompressingRequestHandler();
+		CountingInputStream decodedInput = new CountingInputStream(requestHandler.openInput(connection));
+
+		try {
+			return reader.read(decodedInput);
+		} finally {
+			decodedInput.close();
+			recordTransfer(requestHandler.getTransferredBytes(), decodedInput.getCount());
+		}
+	}
+
+	private void recordTransfer(long transferredBytes, long decodedBytes) {
+		this.lastTransferredBytes = transferredBytes;
+		this.lastDecodedBytes = decodedBytes;
+		this.totalTransferredBytes += transferredBytes;
+		this.totalDecodedBytes += decodedBytes;
+
+		Logger.debug("Read {}: {} bytes transferred, {} bytes decoded", url, transferredBytes, decodedBytes);
 	}
 	
-	
+	private RangeResponse getLocalResourceBytesFrom(long firstByte) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(getLocalFile(), "r");
+
+		try {
+			if (file.length() < firstByte)
+				return RangeResponse.rangeNotServed();
+
+			byte[] bytes = new byte[(int) (file.length() - firstByte)];
+			file.seek(firstByte);
+			file.readFully(bytes);
+			recordTransfer(bytes.length, bytes.length);
+			return RangeResponse.partialContent(bytes);
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * @return the file of a local resource, with the path decoded like
+	 *         {@code url.openStream} does
+	 */
+	private File getLocalFile() {
+		try {
+			URI uri = url.toURI();
+			// relative file urls like "file:data.tsv" are opaque, Paths only resolves absolute ones
+			return uri.isOpaque() ? new File(uri.getSchemeSpecificPart()) : Paths.get(uri).toFile();
+		} catch (URISyntaxException exception) {
+			// not encoded at all, like "file:my data.tsv"
+			return new File(url.getPath());
+		}
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+
+		while ((read = in.read(buffer)) != -1) {
+			bytes.write(buffer, 0, read);
+		}
+		return bytes.toByteArray();
+	}
+
 	/**
 	 * Tries to download the resource at the given URL and returns it as string.
 	 * Snippet taken from
@@ -94,29 +484,134 @@ public class UrlStringRessourceResolver {
 	
 	
 	
-	private class HttpClientDisabledLogger implements RequestLogger {
+	/**
+	 * The outcome of a range request, see {@code getAsBytesSyncFrom}
+	 */
+	public static class RangeResponse {
 
-		@Override
-		public boolean isLoggingEnabled() {
-			return false;
+		/**
+		 * The delivered bytes, null if nothing was delivered
+		 */
+		private final byte[] bytes;
+		private final boolean notModified;
+		/**
+		 * True if the bytes are the whole resource instead of the requested range
+		 */
+		private final boolean fullContent;
+
+		private RangeResponse(byte[] bytes, boolean notModified, boolean fullContent) {
+			this.bytes = bytes;
+			this.notModified = notModified;
+			this.fullContent = fullContent;
+		}
+
+		private static RangeResponse partialContent(byte[] bytes) {
+			return new RangeResponse(bytes, false, false);
+		}
+
+		private static RangeResponse fullContent(byte[] bytes) {
+			return new RangeResponse(bytes, false, true);
+		}
+
+		private static RangeResponse notModified() {
+			return new RangeResponse(null, true, false);
+		}
+
+		private static RangeResponse rangeNotServed() {
+			return new RangeResponse(null, false, false);
+		}
+
+		/**
+		 * @return true if the resource has not changed since the last request
+		 */
+		public boolean isNotModified() {
+			return notModified;
+		}
+
+		/**
+		 * @return true if the requested bytes have been delivered
+		 */
+		public boolean isPartialContent() {
+			return bytes != null && !fullContent;
+		}
+
+		/**
+		 * @return true if the whole resource has been delivered, because the
+		 *         server does not support ranges
+		 */
+		public boolean isFullContent() {
+			return fullContent;
+		}
+
+		/**
+		 * @return the delivered bytes, null if nothing has been delivered
+		 */
+		public byte[] getBytes() {
+			return bytes;
+		}
+
+	}
+
+	/**
+	 * Request handler that decompresses gzip or deflate encoded responses while
+	 * they are read, and counts the bytes transferred over the network.
+	 */
+	private class DecompressingRequestHandler {
+
+		private CountingInputStream transferredInput = null;
+
+		public InputStream openInput(HttpURLConnection urlConnection) throws IOException {
+			transferredInput = new CountingInputStream(urlConnection.getInputStream());
+			String contentEncoding = urlConnection.getContentEncoding();
+
+			if ("gzip".equalsIgnoreCase(contentEncoding))
+				return new GZIPInputStream(transferredInput);
+			else if ("deflate".equalsIgnoreCase(contentEncoding))
+				return new InflaterInputStream(transferredInput);
+			else
+				return transferredInput;
+		}
+
+		private long getTransferredBytes() {
+			return transferredInput == null ? 0 : transferredInput.getCount();
+		}
+
+	}
+
+	private static class CountingInputStream extends FilterInputStream {
+
+		private long count = 0;
+
+		private CountingInputStream(InputStream in) {
+			super(in);
 		}
 
 		@Override
-		public void log(String msg) {
-			// unused
+		public int read() throws IOException {
+			int result = super.read();
+			if (result != -1)
+				count++;
+			return result;
 		}
 
 		@Override
-		public void logRequest(HttpURLConnection urlConnection, Object content) throws IOException {
-			// unused
+		public int read(byte[] b, int off, int len) throws IOException {
+			int result = super.read(b, off, len);
+			if (result != -1)
+				count += result;
+			return result;
 		}
 
 		@Override
-		public void logResponse(HttpResponse httpResponse) {
-			// unused
+		public long skip(long n) throws IOException {
+			long result = super.skip(n);
+			count += result;
+			return result;
 		}
-		
-		
-		
+
+		private long getCount() {
+			return count;
+		}
+
 	}
 }
@@ -0,0 +1,174 @@
+package de.philliphow.covidimpfde.strings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A markdown template with {@code %s} placeholders, like a format String for
+ * {@link String#format}. The template is split into its literal segments once,
+ * when it is compiled. Rendering appends the segments and the values into one
+ * {@link StringBuilder}, using a {@link Writer} that fills the placeholders in
+ * order. Numbers are appended by {@link StrUtil} without intermediate Strings.
+ *
+ * For example, {@code compile("*%s* Dosen von %s\n")} renders like
+ * {@code String.format("*%s* Dosen von %s\n", StrUtil.number(doses), name)}
+ * with {@code template.writeTo(sb).number(doses).text(name).end()}.
+ *
+ * @author PhillipHow
+ *
+ */
+public final class MessageTemplate {
+
+	private static final String PLACEHOLDER = "%s";
+
+	/**
+	 * The literal text before, between and after the placeholders. One more
+	 * than there are placeholders.
+	 */
+	private final String[] segments;
+
+	private MessageTemplate(String[] segments) {
+		this.segments = segments;
+	}
+
+	/**
+	 * @param template the template, with {@code %s} as placeholder. Other format
+	 *                 specifiers are not supported.
+	 * @return the compiled template
+	 * @throws IllegalArgumentException if the template contains a % that does
+	 *                                  not start a placeholder
+	 */
+	public static MessageTemplate compile(String template) {
+		List<String> segments = new ArrayList<>();
+		int segmentStart = 0;
+		int percentIndex = template.indexOf('%');
+		while (percentIndex != -1) {
+			if (!template.startsWith(PLACEHOLDER, percentIndex))
+				throw new IllegalArgumentException(
+						"Only " + PLACEHOLDER + " placeholders are supported, at " + percentIndex + " of " + template);
+			segments.add(template.substring(segmentStart, percentIndex));
+			segmentStart = percentIndex + PLACEHOLDER.length();
+			percentIndex = template.indexOf('%', segmentStart);
+		}
+		segments.add(template.substring(segmentStart));
+		return new MessageTemplate(segments.toArray(new String[0]));
+	}
+
+	public int getPlaceholderCount() {
+		return segments.length - 1;
+	}
+
+	/**
+	 * Starts rendering the template. Appends the text up to the first
+	 * placeholder.
+	 *
+	 * @param sb the builder to append to
+	 * @return a writer to fill the placeholders
+	 */
+	public Writer writeTo(StringBuilder sb) {
+		sb.append(segments[0]);
+		return new Writer(sb);
+	}
+
+	/**
+	 * Renders the template with text values, like {@link String#format}.
+	 *
+	 * @param values one value per placeholder
+	 * @return the rendered template
+	 */
+	public String render(CharSequence... values) {
+		Writer writer = writeTo(new StringBuilder());
+		for (CharSequence value : values) {
+			writer.text(value);
+		}
+		return writer.end().toString();
+	}
+
+	/**
+	 * Fills the placeholders of the template in order. Each value is followed
+	 * by the literal text up to the next placeholder.
+	 */
+	public final class Writer {
+
+		private final StringBuilder sb;
+		private int placeholder = 0;
+
+		private Writer(StringBuilder sb) {
+			this.sb = sb;
+		}
+
+		public Writer text(CharSequence value) {
+			nextPlaceholder();
+			sb.append(value);
+			return nextSegment();
+		}
+
+		/**
+		 * @param value the value, formatted like {@code StrUtil::number}
+		 * @return the writer
+		 */
+		public Writer number(int value) {
+			nextPlaceholder();
+			StrUtil.appendNumber(sb, value);
+			return nextSegment();
+		}
+
+		/**
+		 * @param value the value, formatted like {@code StrUtil::difference}
+		 * @return the writer
+		 */
+		public Writer difference(int value) {
+			nextPlaceholder();
+			StrUtil.appendDifference(sb, value);
+			return nextSegment();
+		}
+
+		/**
+		 * @param value the value, formatted like {@code StrUtil::percent}
+		 * @return the writer
+		 */
+		public Writer percent(double value) {
+			nextPlaceholder();
+			StrUtil.appendPercent(sb, value);
+			return nextSegment();
+		}
+
+		/**
+		 * Fills the placeholder with anything the content appends, like a list
+		 * of other rendered templates.
+		 *
+		 * @param content appends the value to the given builder
+		 * @return the writer
+		 */
+		public Writer append(Consumer<StringBuilder> content) {
+			nextPlaceholder();
+			content.accept(sb);
+			return nextSegment();
+		}
+
+		/**
+		 * Finishes rendering.
+		 *
+		 * @return the builder the template has been appended to
+		 * @throws IllegalStateException if not all placeholders have been filled
+		 */
+		public StringBuilder end() {
+			if (placeholder != getPlaceholderCount())
+				throw new IllegalStateException(
+						"Only " + placeholder + " of " + getPlaceholderCount() + " placeholders have been filled");
+			return sb;
+		}
+
+		private void nextPlaceholder() {
+			if (placeholder == getPlaceholderCount())
+				throw new IllegalStateException("Template has only " + getPlaceholderCount() + " placeholders");
+		}
+
+		private Writer nextSegment() {
+			sb.append(segments[++placeholder]);
+			return this;
+		}
+	}
+
+}
@@ -17,6 +17,15 @@ import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
  */
 public class StrUtil {
 
+	/**
+	 * Number formats with 0 and 2 fraction digits. {@link NumberFormat} is not
+	 * thread safe, so each thread gets its own instances, created once.
+	 */
+	private static final ThreadLocal<NumberFormat> FORMAT_NO_DECIMALS = ThreadLocal
+			.withInitial(() -> formatWithDecimals(0));
+	private static final ThreadLocal<NumberFormat> FORMAT_TWO_DECIMALS = ThreadLocal
+			.withInitial(() -> formatWithDecimals(2));
+
 	/**
 	 * Formats numbers to be readable on first glance, for example 23,5K
 	 * 
@@ -24,26 +33,94 @@ public class StrUtil {
 	 * @return the formatted number
 	 */
 	public static String number(int num) {
+		return appendNumber(new StringBuilder(12), num).toString();
+	}
 
-		String shortNumberAbs = shortNumber(Math.abs(num));
-		String prefix = (num < 0) ? "-" : "";
-		
-		return prefix + shortNumberAbs; 
+	/**
+	 * Like {@code number}, but appends the formatted number to the given
+	 * {@link StringBuilder}, without intermediate Strings.
+	 * 
+	 * @param sb  the builder to append to
+	 * @param num positive or negative
+	 * @return the builder
+	 */
+	public static StringBuilder appendNumber(StringBuilder sb, int num) {
+		if (num < 0)
+			sb.append('-');
+		appendShortNumber(sb, Math.abs(num));
+		return sb;
 	}
-	
+
 	/**
-	 * Takes a positive integer and formats it to be readable at first glance, fopr example 23,5K
-	 * @param num
-	 * @return
+	 * Takes a positive integer and formats it to be readable at first glance,
+	 * for example 23,5K. Rounds half to even, like {@link NumberFormat}, using
+	 * integer arithmetic. Only where a tie can not be represented exactly as
+	 * double, the formatter is asked, so the result stays the same.
+	 * 
+	 * @param sb  the builder to append to
+	 * @param num the number
 	 */
-	private static String shortNumber(int num) {
-		if (num < 1000)
-			return formatWithDecimals(0).format(1.0 * num);
+	private static void appendShortNumber(StringBuilder sb, int num) {
+		if (num < 0) {
+			// Integer.MIN_VALUE has no positive counterpart
+			sb.append(FORMAT_NO_DECIMALS.get().format(1.0 * num));
+			return;
+		}
+
+		if (num < 1000) {
+			sb.append(num);
+			return;
+		}
+
+		if (num < 1000000) {
+			appendGrouped(sb, roundHalfEven(num, 1000));
+			sb.append('K');
+			return;
+		}
+
+		if (num % 10000 == 5000) {
+			sb.append(FORMAT_TWO_DECIMALS.get().format(1.0 * num / 1000000)).append('M');
+			return;
+		}
+
+		long hundredths = roundHalfEven(num, 10000);
+		appendGrouped(sb, hundredths / 100);
+		int decimals = (int) (hundredths % 100);
+		if (decimals != 0) {
+			sb.append(',').append((char) ('0' + decimals / 10));
+			if (decimals % 10 != 0)
+				sb.append((char) ('0' + decimals % 10));
+		}
+		sb.append('M');
+	}
 
-		if (num < 1000000)
-			return formatWithDecimals(0).format(1.0 * num / 1000) + "K";
+	/**
+	 * @return num / divisor, rounded half to even
+	 */
+	private static long roundHalfEven(int num, int divisor) {
+		long quotient = num / divisor;
+		int remainder = num % divisor;
+		if (remainder * 2 > divisor || (remainder * 2 == divisor && quotient % 2 == 1))
+			quotient++;
+		return quotient;
+	}
 
-		return formatWithDecimals(2).format(1.0 * num / 1000000) + "M";
+	/**
+	 * Appends a positive number with German digit grouping, like 1.234
+	 */
+	private static void appendGrouped(StringBuilder sb, long num) {
+		if (num < 1000) {
+			sb.append(num);
+			return;
+		}
+		appendGrouped(sb, num / 1000);
+		int group = (int) (num % 1000);
+		sb.append('.');
+		if (group < 100)
+			sb.append('0');
+		if (group < 10)
+			sb.append('0');
+		sb.append(group);
 	}
 
 	/**
@@ -53,11 +130,20 @@ public class StrUtil {
 	 * @return the formatted number
 	 */
 	public static String difference(int deltaNum) {
-		if (deltaNum >= 0)
-			return "+" + number(Math.abs(deltaNum));
-		else
-			return "-" + number(Math.abs(deltaNum));
+		return appendDifference(new StringBuilder(12), deltaNum).toString();
+	}
 
+	/**
+	 * Like {@code difference}, but appends the formatted number to the given
+	 * {@link StringBuilder}.
+	 * 
+	 * @param sb       the builder to append to
+	 * @param deltaNum the difference
+	 * @return the builder
+	 */
+	public static StringBuilder appendDifference(StringBuilder sb, int deltaNum) {
+		sb.append(deltaNum >= 0 ? '+' : '-');
+		return appendNumber(sb, Math.abs(deltaNum));
 	}
 
 	/**
@@ -68,11 +154,19 @@ public class StrUtil {
 	 * @return the formatted String
 	 */
 	public static String percent(double num) {
-		NumberFormat formatter = NumberFormat.getInstance(Locale.GERMAN);
-		formatter.setGroupingUsed(true);
-		formatter.setMaximumFractionDigits(2);
+		return appendPercent(new StringBuilder(10), num).toString();
+	}
 
-		return formatter.format(num * 100) + "%";
+	/**
+	 * Like {@code percent}, but appends the formatted share to the given
+	 * {@link StringBuilder}.
+	 * 
+	 * @param sb  the builder to append to
+	 * @param num 1 means 100%
+	 * @return the builder
+	 */
+	public static StringBuilder appendPercent(StringBuilder sb, double num) {
+		return sb.append(FORMAT_TWO_DECIMALS.get().format(num * 100)).append('%');
 	}
 
 	/**
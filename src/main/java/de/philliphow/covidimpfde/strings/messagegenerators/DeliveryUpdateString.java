@@ -3,6 +3,7 @@ package de.philliphow.covidimpfde.strings.messagegenerators;
 import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
 import de.philliphow.covidimpfde.api.models.Vaccine;
 import de.philliphow.covidimpfde.logic.DeliveryDataInterpretation;
+import de.philliphow.covidimpfde.strings.MessageTemplate;
 import de.philliphow.covidimpfde.strings.StrUtil;
 
 /**
@@ -19,6 +20,18 @@ public class DeliveryUpdateString implements MessageStringGenerator {
 	 * How many deliveries should appear in the lastDeliveries section
 	 */
 	private final static int LAST_DELIVERIES_SHOW_N = 8;
+
+	private static final MessageTemplate HEADER = MessageTemplate.compile(
+			"%s\n----------------------\nEine neue Lieferung wurden registriert - *%s* wurden insgesamt *%s* Dosen "
+			+ "von *%s* Lieferanten geliefert!\n\n");
+	private static final MessageTemplate REGIONAL_TITLE = MessageTemplate.compile("*Neuer Stoff für %s ist da!*");
+	private static final MessageTemplate VACCINES_OVERVIEW = MessageTemplate.compile("Insgesamt: -- *%s*\n*%s*\n");
+	private static final MessageTemplate VACCINE_UPDATE = MessageTemplate.compile("%s: *%s* (*%s*)\n");
+	private static final MessageTemplate BIGGEST_DELIVERY = MessageTemplate
+			.compile("Die größte Lieferung bis jetzt --\n*%s* Dosen %s von *%s*\n\n");
+	private static final MessageTemplate LAST_DELIVERIES = MessageTemplate.compile("Letzte Lieferungen --\n%s\n");
+	private static final MessageTemplate DELIVERY_ROW = MessageTemplate.compile("*%s* von %s (*%s*)\n");
+
 	/**
 	 * the data interpreter containing the vaccination data
 	 */
@@ -43,76 +56,76 @@ public class DeliveryUpdateString implements MessageStringGenerator {
 	@Override
 	public String getTextAsMarkdown() {
 
-		StringBuilder sb = new StringBuilder();
-		sb.append(getHeader());
-		sb.append(getLastDeliveries());
-		sb.append(getBiggestDelivery());
-		sb.append(getVaccinesOverview());
-		sb.append(getFooter());
+		StringBuilder sb = new StringBuilder(1024);
+		appendHeader(sb);
+		appendLastDeliveries(sb);
+		appendBiggestDelivery(sb);
+		appendVaccinesOverview(sb);
+		appendFooter(sb);
 
 		return sb.toString();
 	}
 
-	private String getHeader() {
-		String deliveryDate = StrUtil.week(data.getLatestDelivery().getCalendarWeekMonday());
-		String numberOfDoses = StrUtil.number(data.getLastWeekDelivieredDoses());
-		String numSuppliers = StrUtil.number(data.getLastWeekNumberOfSuppliers());
+	private void appendHeader(StringBuilder sb) {
+		HEADER.writeTo(sb)
+				.append(this::appendTitle)
+				.text(StrUtil.week(data.getLatestDelivery().getCalendarWeekMonday()))
+				.number(data.getLastWeekDelivieredDoses())
+				.number(data.getLastWeekNumberOfSuppliers())
+				.end();
+	}
 
-		return String.format(
-				"*Neuer Stoff ist da!*\n----------------------\nEine neue Lieferung wurden registriert - *%s* wurden insgesamt *%s* Dosen "
-				+ "von *%s* Lieferanten geliefert!\n\n",
-				deliveryDate, numberOfDoses, numSuppliers);
+	private void appendTitle(StringBuilder sb) {
+		if (data.isFederal())
+			sb.append("*Neuer Stoff ist da!*");
+		else
+			REGIONAL_TITLE.writeTo(sb).text(data.getRegionName()).end();
 	}
 	
-	private String getVaccinesOverview() {
-		StringBuilder sb = new StringBuilder();
-		data.getDosesDeliveredByVaccine().entrySet().forEach(vaccineDeliveries -> sb
-				.append(getVaccineUpdate(vaccineDeliveries.getKey(), vaccineDeliveries.getValue())));
-
-		String vaccineShareString = sb.toString();
-		String totalDoses = StrUtil.number(data.getTotalDeliveredDoses());
-
-		return String.format("Insgesamt: -- *%s*\n*%s*\n", totalDoses, vaccineShareString);
-
+	private void appendVaccinesOverview(StringBuilder sb) {
+		VACCINES_OVERVIEW.writeTo(sb)
+				.number(data.getTotalDeliveredDoses())
+				.append(vaccineShares -> data.getDosesDeliveredByVaccine().entrySet().forEach(
+						vaccineDeliveries -> appendVaccineUpdate(vaccineShares, vaccineDeliveries.getKey(),
+								vaccineDeliveries.getValue())))
+				.end();
 	}
 
-	private String getVaccineUpdate(Vaccine vaccine, int doses) {
-		String vaccineName = vaccine.getHumamReadableName();
-		String totalDoses = StrUtil.number(doses);
-		String share = StrUtil.percent(data.getShareByVaccine().get(vaccine));
-
-		return String.format("%s: *%s* (*%s*)\n", vaccineName, totalDoses, share);
+	private void appendVaccineUpdate(StringBuilder sb, Vaccine vaccine, int doses) {
+		VACCINE_UPDATE.writeTo(sb)
+				.text(vaccine.getHumamReadableName())
+				.number(doses)
+				.percent(data.getShareByVaccine().get(vaccine))
+				.end();
 	}
 
-	private String getBiggestDelivery() {
+	private void appendBiggestDelivery(StringBuilder sb) {
 		DeliveryDataRow biggestDelivery = data.getBiggestDelivery();
-		String deliveryVaccineName = biggestDelivery.getVaccine().getHumamReadableName();
-		String deliveryDoses = StrUtil.number(biggestDelivery.getDoses());
-		String date = StrUtil.week(biggestDelivery.getCalendarWeekMonday());
 
-		return String.format("Die größte Lieferung bis jetzt --\n*%s* Dosen %s von *%s*\n\n", deliveryDoses, date,
-				deliveryVaccineName);
+		BIGGEST_DELIVERY.writeTo(sb)
+				.number(biggestDelivery.getDoses())
+				.text(StrUtil.week(biggestDelivery.getCalendarWeekMonday()))
+				.text(biggestDelivery.getVaccine().getHumamReadableName())
+				.end();
 	}
 
-	private String getLastDeliveries() {
-		StringBuilder sb = new StringBuilder();
-		data.getLastNDeliveries(LAST_DELIVERIES_SHOW_N).forEach(delivery -> sb.append(getOneDeliveryRow(delivery)));
-		String deliveryListString = sb.toString();
-
-		return String.format("Letzte Lieferungen --\n%s\n", deliveryListString);
-
+	private void appendLastDeliveries(StringBuilder sb) {
+		LAST_DELIVERIES.writeTo(sb)
+				.append(deliveryList -> data.getLastNDeliveries(LAST_DELIVERIES_SHOW_N)
+						.forEach(delivery -> appendOneDeliveryRow(deliveryList, delivery)))
+				.end();
 	}
 
-	private String getOneDeliveryRow(DeliveryDataRow delivery) {
-		String doses = StrUtil.number(delivery.getDoses());
-		String vaccine = delivery.getVaccine().getHumamReadableName();
-		String date = StrUtil.week(delivery.getCalendarWeekMonday());
-
-		return String.format("*%s* von %s (*%s*)\n", doses, vaccine, date);
+	private void appendOneDeliveryRow(StringBuilder sb, DeliveryDataRow delivery) {
+		DELIVERY_ROW.writeTo(sb)
+				.number(delivery.getDoses())
+				.text(delivery.getVaccine().getHumamReadableName())
+				.text(StrUtil.week(delivery.getCalendarWeekMonday()))
+				.end();
 	}
 
-	private String getFooter() {
-		return new MessageFooter(isSubbed, subCount).getTextAsMarkdown();
+	private void appendFooter(StringBuilder sb) {
+		new MessageFooter(isSubbed, subCount).appendTo(sb);
 	}
 
 }
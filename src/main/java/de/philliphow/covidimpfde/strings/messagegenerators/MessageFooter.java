@@ -1,12 +1,16 @@
 package de.philliphow.covidimpfde.strings.messagegenerators;
 
-import de.philliphow.covidimpfde.strings.StrUtil;
+import de.philliphow.covidimpfde.strings.MessageTemplate;
 
 public class MessageFooter implements MessageStringGenerator {
 
 	private static final String DATA_SOURCE = "https://impfdashboard.de/";
 	private static final String GITHUB_LINK = "https://github.com/PhillipHow/CovidImpfDeBot";
 
+	private static final String LINKS = MessageTemplate
+			.compile("[Datenquelle](%s) | [Github](%s) | /impf | /lieferung\n").render(DATA_SOURCE, GITHUB_LINK);
+	private static final MessageTemplate SUB_COUNT = MessageTemplate.compile("(Aktuelle Bot-Abonnenten: *%s*)");
+
 	private final boolean isSubbed;
 	private final int subCount;
 
@@ -17,10 +21,17 @@ public class MessageFooter implements MessageStringGenerator {
 
 	@Override
 	public String getTextAsMarkdown() {
-		StringBuilder sb = new StringBuilder();
+		return appendTo(new StringBuilder(256)).toString();
+	}
 
-		sb.append(String.format("[Datenquelle](%s) | [Github](%s) | /impf | /lieferung\n", DATA_SOURCE,
-				GITHUB_LINK));
+	/**
+	 * Appends the footer to the given builder, see {@code getTextAsMarkdown}.
+	 * 
+	 * @param sb the builder to append to
+	 * @return the builder
+	 */
+	public StringBuilder appendTo(StringBuilder sb) {
+		sb.append(LINKS);
 
 		if (!isSubbed) {
 			sb.append("Wöchentliche Updates erhalten - /sub ");
@@ -31,9 +42,9 @@ public class MessageFooter implements MessageStringGenerator {
 		sb.append("\n");
 		
 		if (subCount != -1)
-			sb.append(String.format("(Aktuelle Bot-Abonnenten: *%s*)", StrUtil.number(subCount)));
+			SUB_COUNT.writeTo(sb).number(subCount).end();
 
-		return sb.toString();
+		return sb;
 	}
 
 }
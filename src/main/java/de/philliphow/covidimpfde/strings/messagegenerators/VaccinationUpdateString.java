@@ -5,8 +5,12 @@ import java.util.List;
 
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
 import de.philliphow.covidimpfde.api.models.Vaccine;
+import de.philliphow.covidimpfde.api.models.WeeklySummary;
 import de.philliphow.covidimpfde.logic.DeliveryDataInterpretation;
+import de.philliphow.covidimpfde.logic.MilestoneResolver.Milestone;
+import de.philliphow.covidimpfde.logic.MilestoneResolver.MilestoneKind;
 import de.philliphow.covidimpfde.logic.VaccinationDataInterpretation;
+import de.philliphow.covidimpfde.strings.MessageTemplate;
 import de.philliphow.covidimpfde.strings.StrUtil;
 
 /**
@@ -29,6 +33,32 @@ public class VaccinationUpdateString implements MessageStringGenerator {
 	 * Population quota milestones to list
 	 */
 	private static double[] POP_QUOTA_MILESTONES = {0.5, 0.6, 0.7, 0.8, 0.9};
+
+	private static final MessageTemplate HEADLINE = MessageTemplate.compile("*%s*\n-----------------------\n");
+	private static final MessageTemplate HEADER = MessageTemplate.compile(
+			"*%s* wurden *%s Dosen* verteilt. Dies entspricht einer Veränderung von *%s* im Vergleich zu vor einer Woche. *%s* davon sind Booster-Impfungen.\n\n");
+	private static final MessageTemplate SHOTS_UPDATE_WITH_DIFF = MessageTemplate.compile(
+			"Dosen insgesamt: *%s*\n1/2 Dosen: *%s* (*%s*), *%s*\n2/2 Dosen: *%s* (*%s*), *%s*\n3/2 Dosen: *%s* (*%s*), *%s*\n\n");
+	private static final MessageTemplate SHOTS_UPDATE = MessageTemplate.compile(
+			"Dosen insgesamt: *%s*\n1/2 Dosen: *%s* (*%s*)\n2/2 Dosen: *%s* (*%s*)\n3/2 Dosen: *%s* (*%s*)\n\n");
+	private static final MessageTemplate VACCINE_UPDATE_WITH_DIFF = MessageTemplate.compile("%s: *%s* (*%s*), *%s*\n");
+	private static final MessageTemplate VACCINE_UPDATE = MessageTemplate.compile("%s: *%s* (*%s*)\n");
+	private static final MessageTemplate RECORD_DAY_RANKING = MessageTemplate.compile(
+			"*%s* entspricht dem *%s Tag* seit Beginn der Impfkampagne. Der beste Tag war *%s* mit *%s* Impfungen an einem Tag.\n\n");
+	private static final MessageTemplate NEW_RECORD_DAY = MessageTemplate
+			.compile("Der heutige Tag stellt mit *%s* Dosen einen neuen Impfrekord auf!\n\n");
+	private static final MessageTemplate MILESTONE_REACHED = MessageTemplate.compile("*%s*: %s ✅\n");
+	private static final MessageTemplate MILESTONE = MessageTemplate.compile("*%s*: %s\n");
+	private static final MessageTemplate MILESTONE_BASIS = MessageTemplate.compile(
+			"_(beruht auf Erstimpfgeschwindigkeit der letzten zwei Wochen: durschnittlich %s erstmalig geimpfte Menschen pro Tag)_\n");
+	private static final MessageTemplate WEEK_DAY = MessageTemplate.compile("%s - *%s*\n");
+	private static final MessageTemplate CALENDAR_WEEKS_SUMMARY = MessageTemplate
+			.compile("*Wochenübersicht vergebene Dosen*\n_(in Klammern: nur Erst-Dosen)_\n%s\n");
+	private static final MessageTemplate CALENDAR_WEEK = MessageTemplate.compile("%s - *%s* (*%s*)\n");
+	private static final MessageTemplate RECORD_WEEK_RANKING = MessageTemplate.compile(
+			"Mit *%s* Dosen entspricht diese Woche der *%s Woche* seit Beginn der Impfkampagne. Die beste Woche war die *%s* mit *%s* Dosen.\n\n");
+	private static final MessageTemplate NEW_RECORD_WEEK = MessageTemplate
+			.compile("Diese Woche stellt mit *%s* Dosen einen neuen Wochenrekord auf!\n\n");
 	
 	/**
 	 * the data interpreter containing the vaccination data
@@ -54,178 +84,171 @@ public class VaccinationUpdateString implements MessageStringGenerator {
 
 	@Override
 	public String getTextAsMarkdown() {
-		StringBuilder sb = new StringBuilder();
+		StringBuilder sb = new StringBuilder(2048);
 
-		sb.append(getHeadline());
+		appendHeadline(sb);
 
 		if (dataInterpreter.latestUpdateIsSunday()) {
-			sb.append(getFirstSecondShotUpdate(false));
-			sb.append(getVaccinesUpdate(false));
-			sb.append(getWeekSummary());
-			sb.append(getCalendarWeeksSummary());
-			sb.append(getMilestoneEstimations());
+			appendFirstSecondShotUpdate(sb, false);
+			appendVaccinesUpdate(sb, false);
+			appendWeekSummary(sb);
+			appendCalendarWeeksSummary(sb);
+			appendRecordWeeksUpdate(sb);
+			appendMilestoneEstimations(sb);
 		} else {
-			sb.append(getHeader());
-			sb.append(getVaccinesUpdate(true));
-			sb.append(getFirstSecondShotUpdate(true));
-			//sb.append(getRecordDaysUpdate());				//disabled for now - not interesting anymore
-			sb.append(getMilestoneEstimations());
+			appendHeader(sb);
+			appendVaccinesUpdate(sb, true);
+			appendFirstSecondShotUpdate(sb, true);
+			appendRecordDaysUpdate(sb);
+			appendMilestoneEstimations(sb);
 		}
 
-		sb.append(getFooter());
+		appendFooter(sb);
 
 		return sb.toString();
 	}
 	
-	private String getHeadline() {
+	private void appendHeadline(StringBuilder sb) {
 		String updateType = dataInterpreter.latestUpdateIsSunday() ? "Wöchentliches Impf-Update (jetzt mit Booster-Impfungen!)" : "Impf-Update (jetzt mit Booster-Impfungen!)";
 		
-		return String.format("*%s*\n-----------------------\n", updateType);
+		HEADLINE.writeTo(sb).text(updateType).end();
 	}
 
-	private String getHeader() {
+	private void appendHeader(StringBuilder sb) {
+		HEADER.writeTo(sb)
+				.text(StrUtil.capitalized(StrUtil.date(dataInterpreter.getLatestUpdate().getDate())))
+				.number(dataInterpreter.getLatestUpdateShotsToday())
+				.difference(dataInterpreter.getLatestUpdateDiffOneWeekAgo())
+				.number(dataInterpreter.getLatestUpdateThirdShots())
+				.end();
+	}
 
-		String dateString = StrUtil.capitalized(StrUtil.date(dataInterpreter.getLatestUpdate().getDate()));
-		String updateShots = StrUtil.number(dataInterpreter.getLatestUpdateShotsToday());
-		String oneWeekAgoDiff = StrUtil.difference(dataInterpreter.getLatestUpdateDiffOneWeekAgo());
-		String boosterShots = StrUtil.number(dataInterpreter.getLatestUpdateThirdShots());
+	private void appendFirstSecondShotUpdate(StringBuilder sb, boolean showDiff) {
 
-		return String.format(
-				"*%s* wurden *%s Dosen* verteilt. Dies entspricht einer Veränderung von *%s* im Vergleich zu vor einer Woche. *%s* davon sind Booster-Impfungen.\n\n",
-				dateString, updateShots, oneWeekAgoDiff, boosterShots);
-	}
+		MessageTemplate.Writer writer = (showDiff ? SHOTS_UPDATE_WITH_DIFF : SHOTS_UPDATE).writeTo(sb)
+				.number(dataInterpreter.getTotalShots());
 
-	private String getFirstSecondShotUpdate(boolean showDiff) {
-
-		String shotsTotal = StrUtil.number(dataInterpreter.getTotalShots());
-		String firstShotNumber = StrUtil.number(dataInterpreter.getTotalPersonsVaccinatedOnce());
-		String firstShotsDiff = StrUtil.difference(dataInterpreter.getLatestUpdateNewFirstShots());
-		String firstShotsPercent = StrUtil.percent(dataInterpreter.getPopulationQuotaVaccinatedOnce());
-		String secondShotsNumber = StrUtil.number(dataInterpreter.getTotalPersonsVaccintedTwice());
-		String secondShotsDiff = StrUtil.difference(dataInterpreter.getLatestUpdateNewSecondShots());
-		String secondShotsPercent = StrUtil.percent(dataInterpreter.getPopulationQuotaVaccinatedFull());
-		String thirdShotNumber = StrUtil.number(dataInterpreter.getTotalPersonsVaccinatedThrice());
-		String thirdShotDiff = StrUtil.difference(dataInterpreter.getLatestUpdateNewThirdShots());
-		String thirdShotPercent = StrUtil.percent(dataInterpreter.getPopulationQuotaVaccinatedThrice());
-		
+		writer.number(dataInterpreter.getTotalPersonsVaccinatedOnce())
+				.percent(dataInterpreter.getPopulationQuotaVaccinatedOnce());
 		if (showDiff)
-			return String.format("Dosen insgesamt: *%s*\n1/2 Dosen: *%s* (*%s*), *%s*\n2/2 Dosen: *%s* (*%s*), *%s*\n3/2 Dosen: *%s* (*%s*), *%s*\n\n",
-					shotsTotal,
-					firstShotNumber, firstShotsPercent, firstShotsDiff, 
-					secondShotsNumber, secondShotsPercent, secondShotsDiff, 
-					thirdShotNumber, thirdShotPercent, thirdShotDiff);
-		else
-			return String.format("Dosen insgesamt: *%s*\n1/2 Dosen: *%s* (*%s*)\n2/2 Dosen: *%s* (*%s*)\n3/2 Dosen: *%s* (*%s*)\n\n",
-					shotsTotal,
-					firstShotNumber, firstShotsPercent, 
-					secondShotsNumber, secondShotsPercent, 
-					thirdShotNumber, thirdShotPercent);
-	
+			writer.difference(dataInterpreter.getLatestUpdateNewFirstShots());
+
+		writer.number(dataInterpreter.getTotalPersonsVaccintedTwice())
+				.percent(dataInterpreter.getPopulationQuotaVaccinatedFull());
+		if (showDiff)
+			writer.difference(dataInterpreter.getLatestUpdateNewSecondShots());
+
+		writer.number(dataInterpreter.getTotalPersonsVaccinatedThrice())
+				.percent(dataInterpreter.getPopulationQuotaVaccinatedThrice());
+		if (showDiff)
+			writer.difference(dataInterpreter.getLatestUpdateNewThirdShots());
+
+		writer.end();
 	}
 
-	private String getVaccinesUpdate(boolean showDiff) {
+	private void appendVaccinesUpdate(StringBuilder sb, boolean showDiff) {
 
-		StringBuilder sb = new StringBuilder();
-		Vaccine.getAll().forEach(vaccine -> sb.append(getVaccineUpdate(vaccine, showDiff)));
+		Vaccine.getAll().forEach(vaccine -> appendVaccineUpdate(sb, vaccine, showDiff));
 		sb.append("\n");
-		return sb.toString();
 	}
 
-	private String getVaccineUpdate(Vaccine vaccine, boolean showDiff) {
+	private void appendVaccineUpdate(StringBuilder sb, Vaccine vaccine, boolean showDiff) {
 
-		String vaccineName = vaccine.getHumamReadableName();
-		String shotsTotal = StrUtil.number(dataInterpreter.getLatestUpdate().getTotalShotsByVaccine(vaccine));
-		String dayDiff = StrUtil.difference(dataInterpreter.getLatestUpdateDiffBy(vaccine));
-		String percentVaccine = StrUtil.percent(dataInterpreter.getVaccineShare(vaccine));
+		MessageTemplate.Writer writer = (showDiff ? VACCINE_UPDATE_WITH_DIFF : VACCINE_UPDATE).writeTo(sb)
+				.text(vaccine.getHumamReadableName())
+				.number(dataInterpreter.getLatestUpdate().getTotalShotsByVaccine(vaccine))
+				.percent(dataInterpreter.getVaccineShare(vaccine));
 
 		if (showDiff)
-			return String.format("%s: *%s* (*%s*), *%s*\n", vaccineName, shotsTotal, percentVaccine, dayDiff);
-		else
-			return String.format("%s: *%s* (*%s*)\n", vaccineName, shotsTotal, percentVaccine);
+			writer.difference(dataInterpreter.getLatestUpdateDiffBy(vaccine));
+
+		writer.end();
 	}
 
-	@SuppressWarnings("unused")
-	private String getRecordDaysUpdate() {
+	private void appendRecordDaysUpdate(StringBuilder sb) {
 		int latestUpdateDayRanking = dataInterpreter.getLatestUpdateDayRanking();
-		String latestUpdateRanking = StrUtil.placementStr(latestUpdateDayRanking);
-		String latestUpdateShots = StrUtil.number(dataInterpreter.getLatestUpdateShotsToday());
-		String recordDay = StrUtil.date(dataInterpreter.getBestDay().getDate());
-		String recordDayShots = StrUtil.number(dataInterpreter.getBestDay().getShotsToday());
 
 		if (latestUpdateDayRanking != 1) {
-			return String.format(
-					"*%s* entspricht dem *%s Tag* seit Beginn der Impfkampagne. Der beste Tag war *%s* mit *%s* Impfungen an einem Tag.\n\n",
-					latestUpdateShots, latestUpdateRanking, recordDay, recordDayShots);
+			RECORD_DAY_RANKING.writeTo(sb)
+					.number(dataInterpreter.getLatestUpdateShotsToday())
+					.text(StrUtil.placementStr(latestUpdateDayRanking))
+					.text(StrUtil.date(dataInterpreter.getBestDay().getDate()))
+					.number(dataInterpreter.getBestDay().getShotsToday())
+					.end();
 		} else {
-			return String.format("Der heutige Tag stellt mit *%s* Dosen einen neuen Impfrekord auf!\n\n",
-					latestUpdateShots);
+			NEW_RECORD_DAY.writeTo(sb).number(dataInterpreter.getLatestUpdateShotsToday()).end();
 		}
 	}
 
-	private String getMilestoneEstimations() {
-		StringBuilder sb = new StringBuilder("*Erstimpfungs-Meilensteinschätzungen*\n");
+	private void appendMilestoneEstimations(StringBuilder sb) {
+		sb.append("*Erstimpfungs-Meilensteinschätzungen*\n");
 		
-		for(double firstShotQuota : POP_QUOTA_MILESTONES) {
-			sb.append(getMilestoneEstimationForFirstShotQuota(firstShotQuota));
+		for (Milestone milestone : dataInterpreter.getMilestones(MilestoneKind.FIRST_SHOT, POP_QUOTA_MILESTONES)) {
+			appendMilestoneEstimation(sb, milestone);
 		}
 		
-		String movingTwoWeeksAverageFirst = StrUtil.number((int) dataInterpreter.getMovingFirstShotAverage());
-		
-		sb.append("_(beruht auf Erstimpfgeschwindigkeit der letzten zwei Wochen: durschnittlich " + movingTwoWeeksAverageFirst + " erstmalig geimpfte Menschen pro Tag)_\n");
-		
-		return sb.toString();
+		MILESTONE_BASIS.writeTo(sb).number((int) dataInterpreter.getMovingFirstShotAverage()).end();
 	}
 	
-	private String getMilestoneEstimationForFirstShotQuota(double firstShotQuota) {
-		String percentageValue = StrUtil.percent(firstShotQuota);
-		String date = StrUtil.date(dataInterpreter.getOneShotPopQuotaVaccinatedEstimation(firstShotQuota));
-		boolean hasBeenReached = oneShotHerdImmunityGoalHasBeenReached(firstShotQuota);
+	private void appendMilestoneEstimation(StringBuilder sb, Milestone milestone) {
+		boolean hasBeenReached = milestoneHasBeenReached(milestone);
 		
-		if (hasBeenReached) {
-			return String.format("*%s*: %s ✅\n", percentageValue, date);
-		} else {
-			return String.format("*%s*: %s\n", percentageValue, date);
-		}
+		(hasBeenReached ? MILESTONE_REACHED : MILESTONE).writeTo(sb)
+				.percent(milestone.getQuota())
+				.text(StrUtil.date(milestone.getDate()))
+				.end();
 	}
 	
-	private boolean oneShotHerdImmunityGoalHasBeenReached(double firstShotQuota) {
-		LocalDate dateEstimation = dataInterpreter.getOneShotPopQuotaVaccinatedEstimation(firstShotQuota);
+	private boolean milestoneHasBeenReached(Milestone milestone) {
+		LocalDate dateEstimation = milestone.getDate();
 		LocalDate dateNow = LocalDate.now();
 		return dateEstimation.isBefore(dateNow) || dateEstimation.isEqual(dateNow);
 	}
 
-	private String getWeekSummary() {
+	private void appendWeekSummary(StringBuilder sb) {
 		List<VaccinationDataRow> lastWeek = dataInterpreter.getLastWeek();
 
-		StringBuilder sb = new StringBuilder("*Zusammenfassung letzte Woche*\n");
-		lastWeek.forEach(weekDay -> {
-			String weekDayString = StrUtil.weekDayShort(weekDay.getDate());
-			String dosesWeekDay = StrUtil.number(weekDay.getShotsToday());
-
-			sb.append(String.format("%s - *%s*\n", weekDayString, dosesWeekDay));
-		});
+		sb.append("*Zusammenfassung letzte Woche*\n");
+		lastWeek.forEach(weekDay -> WEEK_DAY.writeTo(sb)
+				.text(StrUtil.weekDayShort(weekDay.getDate()))
+				.number(weekDay.getShotsToday())
+				.end());
 
 		sb.append("\n");
-
-		return sb.toString();
 	}
 
-	private String getCalendarWeeksSummary() {
+	private void appendCalendarWeeksSummary(StringBuilder sb) {
  
-		StringBuilder sb = new StringBuilder();
-		dataInterpreter.getLastNWeeklySummarys(CALENDAR_WEEK_SUMMARY_SHOW_WEEKS).forEach(weeklySummary -> {
-			String calendarWeek = StrUtil.calendarWeek(weeklySummary.getCalendarWeekNumber());
-			String calendarWeekDoses = StrUtil.number(weeklySummary.getTotalDoses());
-			String calendarWeekFirstDoses = StrUtil.number(weeklySummary.getTotalFirstDoses());
-
-			sb.append(String.format("%s - *%s* (*%s*)\n", calendarWeek, calendarWeekDoses, calendarWeekFirstDoses));
-		});
+		CALENDAR_WEEKS_SUMMARY.writeTo(sb)
+				.append(calendarWeeks -> dataInterpreter.getLastNWeeklySummarys(CALENDAR_WEEK_SUMMARY_SHOW_WEEKS)
+						.forEach(weeklySummary -> CALENDAR_WEEK.writeTo(calendarWeeks)
+								.text(StrUtil.calendarWeek(weeklySummary.getCalendarWeekNumber()))
+								.number(weeklySummary.getTotalDoses())
+								.number(weeklySummary.getTotalFirstDoses())
+								.end()))
+				.end();
+	}
 
-		return String.format("*Wochenübersicht vergebene Dosen*\n_(in Klammern: nur Erst-Dosen)_\n%s\n", sb.toString());
+	private void appendRecordWeeksUpdate(StringBuilder sb) {
+		int latestWeekRanking = dataInterpreter.getLatestWeekRanking();
+		int latestWeekDoses = dataInterpreter.getLastNWeeklySummarys(1).get(0).getTotalDoses();
+
+		if (latestWeekRanking != 1) {
+			WeeklySummary bestWeek = dataInterpreter.getBestWeek();
+			RECORD_WEEK_RANKING.writeTo(sb)
+					.number(latestWeekDoses)
+					.text(StrUtil.placementStr(latestWeekRanking))
+					.text(StrUtil.calendarWeek(bestWeek.getCalendarWeekNumber()))
+					.number(bestWeek.getTotalDoses())
+					.end();
+		} else {
+			NEW_RECORD_WEEK.writeTo(sb).number(latestWeekDoses).end();
+		}
 	}
 
-	private String getFooter() {
-		return "\n" +  new MessageFooter(isSubbed, subCount).getTextAsMarkdown();
+	private void appendFooter(StringBuilder sb) {
+		sb.append("\n");
+		new MessageFooter(isSubbed, subCount).appendTo(sb);
 	}
 
 }
@@ -0,0 +1,122 @@
+package de.philliphow.covidimpfde.telegram;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.pmw.tinylog.Logger;
+
+import de.philliphow.covidimpfde.api.DeliveryApiManager;
+import de.philliphow.covidimpfde.api.VaccinationsApiManager;
+import de.philliphow.covidimpfde.exceptions.SubPersistenceException;
+import de.philliphow.covidimpfde.logic.DeliveryUpdateBuilder;
+import de.philliphow.covidimpfde.logic.ResponseCache;
+import de.philliphow.covidimpfde.logic.VaccinationUpdateBuilder;
+import de.philliphow.covidimpfde.services.SubListPersistence;
+import de.philliphow.covidimpfde.telegram.commands.DeliveryCommand;
+import de.philliphow.covidimpfde.telegram.commands.VaccinationCommand;
+
+/**
+ * Renders the answers of the {@link VaccinationCommand} and the
+ * {@link DeliveryCommand} in the background right after new data has been
+ * found, for subscribed and not subscribed chats on the current day. The
+ * answers are rendered with the same builders and arguments as the commands
+ * use, so they end up in the same {@link ResponseCache}s and the first
+ * requests after an update are answered from memory.
+ *
+ * Logs how long each pre-warming took, and how often the caches have been hit
+ * since the previous one.
+ *
+ * @author PhillipHow
+ *
+ */
+public class AnswerPrewarmer {
+
+	private final boolean debugMode;
+	private final ExecutorService executorService = Executors.newSingleThreadExecutor(runnable -> {
+		// pre-warming must not keep the bot from shutting down
+		Thread thread = new Thread(runnable, "answer-prewarmer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private long lastVaccinationHitCount = 0;
+	private long lastDeliveryHitCount = 0;
+	private volatile long lastPrewarmDurationMillis = -1;
+
+	/**
+	 * @param debugMode true to pre-warm answers on the local test files, see
+	 *                  {@link CovidImpfDeBot}
+	 */
+	public AnswerPrewarmer(boolean debugMode) {
+		this.debugMode = debugMode;
+	}
+
+	/**
+	 * Renders the answers to {@code /impf} in the background.
+	 */
+	public void prewarmVaccinationAnswersAsync() {
+		executorService.execute(() -> prewarm("vaccination", VaccinationUpdateBuilder.getResponseCache(), true));
+	}
+
+	/**
+	 * Renders the answers to {@code /lieferung} without region in the
+	 * background.
+	 */
+	public void prewarmDeliveryAnswersAsync() {
+		executorService.execute(() -> prewarm("delivery", DeliveryUpdateBuilder.getFederalResponseCache(), false));
+	}
+
+	private void prewarm(String answerName, ResponseCache responseCache, boolean isVaccination) {
+		try {
+			long hitCount = responseCache.getHitCount();
+			long hitsSinceLastPrewarm = hitCount - (isVaccination ? lastVaccinationHitCount : lastDeliveryHitCount);
+			if (isVaccination)
+				lastVaccinationHitCount = hitCount;
+			else
+				lastDeliveryHitCount = hitCount;
+
+			long prewarmStart = System.nanoTime();
+			int subCount = getSubCount();
+			for (boolean isSubbed : new boolean[] { true, false }) {
+				if (isVaccination)
+					new VaccinationUpdateBuilder()
+							.setTimeSeries(VaccinationsApiManager.getInstance(debugMode).getTimeSeries())
+							.setIsSubbed(isSubbed)
+							.setSubCount(subCount)
+							.buildText();
+				else
+					new DeliveryUpdateBuilder()
+							.setFederalDeliveries(DeliveryApiManager.getInstance(debugMode).getFederalSnapshot())
+							.setIsSubbed(isSubbed)
+							.setSubCount(subCount)
+							.buildText();
+			}
+			lastPrewarmDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - prewarmStart);
+
+			Logger.info("Pre-warmed {} answers in {} ms, cache was hit {} times since the last pre-warming",
+					answerName, lastPrewarmDurationMillis, hitsSinceLastPrewarm);
+		} catch (RuntimeException exception) {
+			// commands will render the answers themselves
+			Logger.error(exception, "Could not pre-warm {} answers", answerName);
+		}
+	}
+
+	private int getSubCount() {
+		try {
+			return new SubListPersistence().getSubCount();
+		} catch (SubPersistenceException subPersistenceException) {
+			// the commands do the same
+			return -1;
+		}
+	}
+
+	/**
+	 * @return the time the latest pre-warming took, -1 if nothing has been
+	 *         pre-warmed yet
+	 */
+	public long getLastPrewarmDurationMillis() {
+		return lastPrewarmDurationMillis;
+	}
+
+}
@@ -36,6 +36,10 @@ public class BulkMessageSender {
 
 	private final List<String> successfullChatIds = new ArrayList<>();
 	private final List<String> errorChatIds = new ArrayList<>();
+	/**
+	 * Time it took to send all messages, -1 before all messages are sent
+	 */
+	private long sendDurationMillis = -1;
 
 	/**
 	 * Constructs a BulkMessageSender.
@@ -61,6 +65,7 @@ public class BulkMessageSender {
 			@Override
 			public void run() {
 
+				long sendStart = System.nanoTime();
 				chatIds.forEach(chatId -> {
 
 					try {
@@ -76,6 +81,8 @@ public class BulkMessageSender {
 
 				});
 
+				sendDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendStart);
+				Logger.info("Sent {} messages in {} ms", chatIds.size(), sendDurationMillis);
 				callback.callback(successfullChatIds, errorChatIds);
 			}
 		};
@@ -83,7 +90,14 @@ public class BulkMessageSender {
 		thread.run();
 	}
 
-	
+	/**
+	 * @return the time it took to send all messages, including the pauses
+	 *         between them. -1 if the messages have not been sent yet.
+	 */
+	public long getSendDurationMillis() {
+		return sendDurationMillis;
+	}
+
 	/**
 	 * Initiates bulk message send. 
 	 */
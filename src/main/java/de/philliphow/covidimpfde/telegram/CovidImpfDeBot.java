@@ -75,6 +75,10 @@ public class CovidImpfDeBot extends TelegramLongPollingCommandBot {
 	 * production environment.
 	 */
 	private final boolean debugMode;
+	/**
+	 * Renders command answers in the background whenever new data is found
+	 */
+	private final AnswerPrewarmer answerPrewarmer;
 
 	/**
 	 * 
@@ -105,6 +109,7 @@ public class CovidImpfDeBot extends TelegramLongPollingCommandBot {
 		this.botUsername = botUsername;
 		this.adminChatId = adminChatId;
 		this.debugMode = debugMode;
+		this.answerPrewarmer = new AnswerPrewarmer(debugMode);
 		this.registerCommands();
 	}
 
@@ -166,6 +171,8 @@ public class CovidImpfDeBot extends TelegramLongPollingCommandBot {
 		VaccinationsApiManager.getInstance(debugMode).getNewDataIfNecessary();
 		DeliveryApiManager.getInstance(debugMode).getNewDataIfNecessary();
 		Logger.info("Got initial vaccination data");
+		answerPrewarmer.prewarmVaccinationAnswersAsync();
+		answerPrewarmer.prewarmDeliveryAnswersAsync();
 
 		TelegramBotsApi botsApi = new TelegramBotsApi(DefaultBotSession.class);
 		botsApi.registerBot(this);
@@ -186,13 +193,19 @@ public class CovidImpfDeBot extends TelegramLongPollingCommandBot {
 		executorService.scheduleAtFixedRate(() -> {
 
 			try {
+				boolean hasNewVaccinationData = checkForNewVaccinationData();
+				if (hasNewVaccinationData)
+					answerPrewarmer.prewarmVaccinationAnswersAsync();
+
 				// only send vaccination updates once a week for now
-				if (checkForNewVaccinationData() && lastVaccinationUpdateWasOnSunday())
+				if (hasNewVaccinationData && lastVaccinationUpdateWasOnSunday())
 					sendVaccinationUpdateToAllSubs();
 				
 				// delivery updates disabled for now
-				// if (checkForNewDeliveryData()) 
+				// if (checkForNewDeliveryData()) {
+				//	answerPrewarmer.prewarmDeliveryAnswersAsync();
 				//	sendDeliveryUpdateToAllSubs();
+				// }
 
 			} catch (ImpfDashboardApiException exception) {
 				this.notifyAdminOnTelegram("Update could not be send, Impfdashboard is not reachable!");
@@ -221,7 +234,7 @@ public class CovidImpfDeBot extends TelegramLongPollingCommandBot {
 	private void sendDeliveryUpdateToAllSubs() throws SubPersistenceException {
 
 		UpdateMessageBuilder<DeliveryDataRow> updateBuilder = new DeliveryUpdateBuilder()
-				.setContentData(DeliveryApiManager.getInstance(debugMode).getCurrentData())
+				.setFederalDeliveries(DeliveryApiManager.getInstance(debugMode).getFederalSnapshot())
 				.setIsSubbed(true)
 				.setSubCount(new SubListPersistence().getSubCount());
 
@@ -231,7 +244,7 @@ public class CovidImpfDeBot extends TelegramLongPollingCommandBot {
 	private void sendVaccinationUpdateToAllSubs() throws SubPersistenceException {
 
 		UpdateMessageBuilder<VaccinationDataRow> updateBuilder = new VaccinationUpdateBuilder()
-				.setContentData(VaccinationsApiManager.getInstance(debugMode).getCurrentData())
+				.setTimeSeries(VaccinationsApiManager.getInstance(debugMode).getTimeSeries())
 				.setIsSubbed(true)
 				.setSubCount(new SubListPersistence().getSubCount());
 
@@ -240,20 +253,28 @@ public class CovidImpfDeBot extends TelegramLongPollingCommandBot {
 
 	/**
 	 * Sends a provided update to all chats whose chatId is in the subscriptions
-	 * file.
+	 * file. The update text is the same for all chats, so it is rendered once
+	 * and shared by the messages to all chats.
 	 * 
-	 * @param updateBuilder builder for the message. ChatId will be set by this
-	 *                      method, so don't worry about that.
+	 * @param updateBuilder builder for the message. ChatId is not needed, so
+	 *                      don't worry about that.
 	 * @param <T> the type of data rows that is used for constructing the update
 	 * @throws SubPersistenceException if the subscription file can not be read
 	 */
 	private <T> void sendUpdateToAllSubs(UpdateMessageBuilder<T> updateBuilder) throws SubPersistenceException {
 
 		List<String> subbedChatIds = new SubListPersistence().getAllSubs();
+
+		long renderStart = System.nanoTime();
+		String updateText = updateBuilder.buildText();
+		long renderDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - renderStart);
+		Logger.info("Rendered update for {} chats in {} ms", subbedChatIds.size(), renderDurationMillis);
+
 		BulkMessageSender bulkMessageSender = new BulkMessageSender(subbedChatIds,
-				(chatId) -> updateBuilder.setChatId(chatId).build(), this);
+				(chatId) -> UpdateMessageBuilder.buildFor(chatId, updateText), this);
 
-		bulkMessageSender.sendAllAsync((success, fail) -> notifyAdminOnTelegram("Update versendet! " + success.size() + " erfolgreich, " + fail.size() + " nicht erreichbar"));
+		bulkMessageSender.sendAllAsync((success, fail) -> notifyAdminOnTelegram("Update versendet! " + success.size() + " erfolgreich, " + fail.size() + " nicht erreichbar"
+				+ " (Rendern " + renderDurationMillis + " ms, Versand " + bulkMessageSender.getSendDurationMillis() + " ms)"));
 	}
 
 	@Override
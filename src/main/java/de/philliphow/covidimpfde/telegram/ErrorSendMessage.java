@@ -38,4 +38,9 @@ public class ErrorSendMessage extends SendMessage {
 				"Unsubscriben hat gerade nicht geklappt. Bitte versuche es später noch einmal.");
 	}
 
+	public static ErrorSendMessage unknownRegion(String chatId) {
+		return new ErrorSendMessage(chatId,
+				"Dieses Bundesland kenne ich nicht. Gib das Bundesland bitte als Kürzel an, zum Beispiel /lieferung BY.");
+	}
+
 }
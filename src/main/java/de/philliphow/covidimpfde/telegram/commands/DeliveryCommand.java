@@ -1,10 +1,9 @@
 package de.philliphow.covidimpfde.telegram.commands;
 
-import java.util.List;
-
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 
 import de.philliphow.covidimpfde.api.DeliveryApiManager;
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
 import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
 import de.philliphow.covidimpfde.exceptions.SubPersistenceException;
 import de.philliphow.covidimpfde.logic.DeliveryUpdateBuilder;
@@ -12,11 +11,13 @@ import de.philliphow.covidimpfde.logic.UpdateMessageBuilder;
 import de.philliphow.covidimpfde.services.SubListPersistence;
 import de.philliphow.covidimpfde.strings.messagegenerators.DeliveryUpdateString;
 import de.philliphow.covidimpfde.telegram.CovidImpfDeBot;
+import de.philliphow.covidimpfde.telegram.ErrorSendMessage;
 import de.philliphow.covidimpfde.telegram.TelegramCommandWrapper;
 
 /**
  * Implements the logic for the {@code /lieferung} command. Answers with a
- * delivery update.
+ * delivery update. With a region as argument, like {@code /lieferung BY}, the
+ * update covers only the deliveries to that region.
  * 
  * @author PhillipHow
  * @see DeliveryUpdateBuilder
@@ -32,17 +33,27 @@ public class DeliveryCommand extends TelegramCommandWrapper {
 	@Override
 	public SendMessage getAnswerForQuery(String chatId, String[] args) {
 
-		List<DeliveryDataRow> deliveries = DeliveryApiManager.getInstance(getBot().getDebugMode()).getCurrentData();
+		DeliveryApiManager deliveryApi = DeliveryApiManager.getInstance(getBot().getDebugMode());
 		boolean chatIsSubbed = getChatIsSubbed(chatId);
 		int subCount = getSubCount();
 
-		UpdateMessageBuilder<DeliveryDataRow> deliveryUpdateBuilder = new DeliveryUpdateBuilder()
+		DeliveryUpdateBuilder deliveryUpdateBuilder = new DeliveryUpdateBuilder();
+		if (args != null && args.length > 0) {
+			DeliveryCube deliveryCube = deliveryApi.getDeliveryCube();
+			int region = deliveryCube.regionIndexOf(args[0]);
+			if (region == -1)
+				return ErrorSendMessage.unknownRegion(chatId);
+			deliveryUpdateBuilder.setRegion(deliveryCube, region);
+		} else {
+			deliveryUpdateBuilder.setFederalDeliveries(deliveryApi.getFederalSnapshot());
+		}
+
+		UpdateMessageBuilder<DeliveryDataRow> updateBuilder = deliveryUpdateBuilder
 				.setChatId(chatId)
-				.setContentData(deliveries)
 				.setIsSubbed(chatIsSubbed)
 				.setSubCount(subCount);
 
-		return deliveryUpdateBuilder.build();
+		return updateBuilder.build();
 	}
 
 	private boolean getChatIsSubbed(String chatId) {
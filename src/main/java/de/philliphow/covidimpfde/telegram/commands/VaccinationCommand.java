@@ -2,12 +2,12 @@ package de.philliphow.covidimpfde.telegram.commands;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.util.List;
 
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 
 import de.philliphow.covidimpfde.api.VaccinationsApiManager;
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
 import de.philliphow.covidimpfde.exceptions.SubPersistenceException;
 import de.philliphow.covidimpfde.logic.UpdateMessageBuilder;
 import de.philliphow.covidimpfde.logic.VaccinationUpdateBuilder;
@@ -34,16 +34,16 @@ public class VaccinationCommand extends TelegramCommandWrapper {
 	@Override
 	public SendMessage getAnswerForQuery(String chatId, String[] args) {
 
-		List<VaccinationDataRow> vaccinationData = VaccinationsApiManager.getInstance(getBot().getDebugMode())
-				.getCurrentData();
+		VaccinationTimeSeries vaccinationData = VaccinationsApiManager.getInstance(getBot().getDebugMode())
+				.getTimeSeries();
 		boolean chatIsSubbed = getChatIsSubbed(chatId);
 		int subCount = getSubCount();
 
 		UpdateMessageBuilder<VaccinationDataRow> updateBuilder = new VaccinationUpdateBuilder()
+				.setTimeSeries(vaccinationData)
 				.setIsSubbed(chatIsSubbed)
 				.setChatId(chatId)
-				.setSubCount(subCount)
-				.setContentData(vaccinationData);
+				.setSubCount(subCount);
 
 		addDebugDateToBuilderIfGiven(updateBuilder, args);
 
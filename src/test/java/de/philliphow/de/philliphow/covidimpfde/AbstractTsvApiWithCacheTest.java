@@ -0,0 +1,209 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import de.philliphow.covidimpfde.api.AbstractTsvApiWithCache;
+import de.philliphow.covidimpfde.api.DatasetSnapshot;
+import de.philliphow.covidimpfde.api.TsvSchema;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
+import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
+
+public class AbstractTsvApiWithCacheTest {
+
+	private static final String TEST_LOCAL_FILE = "test_deliveries.tsv";
+	private static final String HEADER = "date	impfstoff	region	dosen\n";
+	private static final String ROW_1 = "2020-12-26	comirnaty	DE-BW	9750\n";
+	private static final String ROW_2 = "2020-12-26	comirnaty	DE-BY	9750\n";
+	private static final String ROW_3 = "2021-01-04	moderna	DE-BY	1200\n";
+
+	AbstractTsvApiWithCache<DeliveryDataRow> example;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		writeTestFile(HEADER + ROW_1 + ROW_2, false);
+		example = new AbstractTsvApiWithCache<DeliveryDataRow>(new URL(new URL("file:"), TEST_LOCAL_FILE), true) {
+			@Override
+			protected DeliveryDataRow buildOneRowFrom(TsvTokenizer currentTsvRow, TsvSchema schema) {
+				return new DeliveryDataRow(currentTsvRow, schema);
+			}
+		};
+	}
+
+	@AfterEach
+	public void tearDown() {
+		new File(TEST_LOCAL_FILE).delete();
+	}
+
+	private void writeTestFile(String content, boolean append) throws IOException {
+		FileWriter fw = new FileWriter(TEST_LOCAL_FILE, append);
+		fw.write(content);
+		fw.close();
+	}
+
+	private static String row(int doses) {
+		return "2021-01-04	moderna	DE-BY	" + doses + "\n";
+	}
+
+	private String cachedDoses() {
+		return example.getCurrentData().stream().map(row -> String.valueOf(row.getDoses()))
+				.collect(Collectors.joining(" "));
+	}
+
+	@Test
+	public void unchangedFileHasNoNewData() throws IOException {
+		assertTrue(example.getNewDataIfNecessary());
+		assertFalse(example.getNewDataIfNecessary());
+		assertEquals(2, example.getCurrentData().size());
+	}
+
+	@Test
+	public void appendedLinesAreAddedToCache() throws IOException {
+		example.getNewDataIfNecessary();
+		writeTestFile(ROW_3, true);
+
+		assertTrue(example.getNewDataIfNecessary());
+		assertEquals(3, example.getCurrentData().size());
+		assertEquals(1200, example.getCurrentData().get(2).getDoses());
+	}
+
+	@Test
+	public void changedFileIsReadCompletely() throws IOException {
+		example.getNewDataIfNecessary();
+		writeTestFile(HEADER + ROW_2.replace("9750", "1000") + ROW_1 + ROW_3, false);
+
+		assertTrue(example.getNewDataIfNecessary());
+		assertEquals(3, example.getCurrentData().size());
+		assertEquals(1000, example.getCurrentData().get(0).getDoses());
+	}
+
+	@Test
+	public void unchangedLinesKeepTheirElements() throws IOException {
+		example.getNewDataIfNecessary();
+		DeliveryDataRow firstRow = example.getCurrentData().get(0);
+		DeliveryDataRow secondRow = example.getCurrentData().get(1);
+		writeTestFile(HEADER + ROW_1 + ROW_2.replace("9750", "1000") + ROW_3, false);
+
+		assertTrue(example.getNewDataIfNecessary());
+		assertSame(firstRow, example.getCurrentData().get(0));
+		assertNotSame(secondRow, example.getCurrentData().get(1));
+		assertEquals(1000, example.getCurrentData().get(1).getDoses());
+	}
+
+	@Test
+	public void revisedLinesAreCachedWithoutNewData() throws IOException {
+		example.getNewDataIfNecessary();
+		writeTestFile(HEADER + ROW_1 + ROW_2.replace("9750", "12345"), false);
+
+		assertFalse(example.getNewDataIfNecessary());
+		assertEquals(2, example.getCurrentData().size());
+		assertEquals(12345, example.getCurrentData().get(1).getDoses());
+	}
+
+	@Test
+	public void addedColumnIsPublishedWithSameLineCount() throws IOException {
+		example.getNewDataIfNecessary();
+		DeliveryDataRow firstRow = example.getCurrentData().get(0);
+		writeTestFile(HEADER.replace("\n", "\tquelle\n") + ROW_1.replace("\n", "\tbund\n")
+				+ ROW_2.replace("\n", "\tbund\n"), false);
+
+		assertFalse(example.getNewDataIfNecessary());
+		assertEquals(2, example.getSnapshot().getVersion());
+		assertNotSame(firstRow, example.getCurrentData().get(0));
+		assertEquals("9750 9750", cachedDoses());
+
+		writeTestFile(ROW_3.replace("\n", "\tbund\n"), true);
+		assertTrue(example.getNewDataIfNecessary());
+		assertEquals("9750 9750 1200", cachedDoses());
+	}
+
+	@Test
+	public void snapshotsAreVersionedAndImmutable() throws IOException {
+		assertEquals(0, example.getSnapshot().getVersion());
+		example.getNewDataIfNecessary();
+		DatasetSnapshot<DeliveryDataRow> first = example.getSnapshot();
+		assertEquals(1, first.getVersion());
+
+		example.getNewDataIfNecessary();
+		assertSame(first, example.getSnapshot());
+		assertSame(first.getRows(), example.getCurrentData());
+
+		writeTestFile(ROW_3, true);
+		example.getNewDataIfNecessary();
+		assertEquals(2, example.getSnapshot().getVersion());
+		assertEquals(2, first.size());
+		assertEquals(3, example.getSnapshot().size());
+		assertThrows(UnsupportedOperationException.class, () -> example.getCurrentData().remove(0));
+	}
+
+	@Test
+	public void linesAppendedToShrunkFileAreNotAppendedToCache() throws IOException {
+		writeTestFile(HEADER + row(1) + row(2) + row(3) + row(4), false);
+		example.getNewDataIfNecessary();
+
+		writeTestFile(HEADER + row(1) + row(2), false);
+		assertFalse(example.getNewDataIfNecessary());
+		assertEquals("1 2 3 4", cachedDoses());
+
+		writeTestFile(row(5) + row(6), true);
+		example.getNewDataIfNecessary();
+		assertEquals("1 2 5 6", cachedDoses());
+
+		writeTestFile(row(7), true);
+		assertTrue(example.getNewDataIfNecessary());
+		assertEquals("1 2 5 6 7", cachedDoses());
+	}
+
+	@Test
+	public void fullResponseToRangeRequestIsNotDownloadedTwice() throws IOException {
+		StringBuilder content = new StringBuilder(HEADER + ROW_1 + ROW_2);
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		// ignores the Range header, like a server without range support
+		server.createContext("/", exchange -> {
+			byte[] body = content.toString().getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			OutputStream responseBody = exchange.getResponseBody();
+			responseBody.write(body);
+			responseBody.close();
+		});
+		server.start();
+
+		try {
+			URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/deliveries.tsv");
+			example = new AbstractTsvApiWithCache<DeliveryDataRow>(url, true) {
+				@Override
+				protected DeliveryDataRow buildOneRowFrom(TsvTokenizer currentTsvRow, TsvSchema schema) {
+					return new DeliveryDataRow(currentTsvRow, schema);
+				}
+			};
+			example.getNewDataIfNecessary();
+			content.append(ROW_3);
+
+			assertTrue(example.getNewDataIfNecessary());
+			assertEquals(3, example.getCurrentData().size());
+			assertEquals(2, example.getFullResponseCount());
+		} finally {
+			server.stop(0);
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.DeliveryApiManager;
+import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
+
+public class DeliveryApiManagerTest {
+
+	@Test
+	public void localDeliveriesAreAccumulatedByWeekAndVaccine() {
+		List<DeliveryDataRow> localDeliveries = new ArrayList<>();
+		localDeliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 14), "moderna", "DE-BY", 100));
+		localDeliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 5), "comirnaty", "DE-BW", 1000));
+		localDeliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 12), "moderna", "DE-BW", 200));
+		localDeliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 13), "comirnaty", "DE-BY", 3000));
+		localDeliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 13), "astra", "DE-BY", -50));
+
+		List<DeliveryDataRow> federalDeliveries = DeliveryApiManager.toFederalDeliveries(localDeliveries);
+
+		assertEquals(3, federalDeliveries.size());
+		assertEquals(LocalDate.of(2021, 4, 5), federalDeliveries.get(0).getCalendarWeekMonday());
+		assertEquals(1000, federalDeliveries.get(0).getDoses());
+
+		assertEquals(LocalDate.of(2021, 4, 12), federalDeliveries.get(1).getCalendarWeekMonday());
+		assertEquals("comirnaty", federalDeliveries.get(1).getVaccineIdentifier());
+		assertEquals(3000, federalDeliveries.get(1).getDoses());
+
+		assertEquals("moderna", federalDeliveries.get(2).getVaccineIdentifier());
+		assertEquals(300, federalDeliveries.get(2).getDoses());
+	}
+
+}
@@ -0,0 +1,113 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
+import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
+import de.philliphow.covidimpfde.api.models.Vaccine;
+import de.philliphow.covidimpfde.logic.DeliveryDataInterpretation;
+import de.philliphow.covidimpfde.logic.DeliveryUpdateBuilder;
+import de.philliphow.covidimpfde.strings.messagegenerators.DeliveryUpdateString;
+
+public class DeliveryCubeTest {
+
+	DeliveryCube cube;
+
+	LocalDate firstMonday = LocalDate.of(2021, 4, 5);
+	LocalDate secondMonday = LocalDate.of(2021, 4, 12);
+	LocalDate fourthMonday = LocalDate.of(2021, 4, 26);
+
+	@BeforeEach
+	public void setUp() {
+		List<DeliveryDataRow> deliveries = new ArrayList<>();
+		deliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 14), "moderna", "DE-BY", 100));
+		deliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 6), "comirnaty", "DE-BW", 1000));
+		deliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 13), "moderna", "DE-BW", 200));
+		deliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 16), "moderna", "DE-BY", 300));
+		deliveries.add(new DeliveryDataRow(LocalDate.of(2021, 4, 28), "comirnaty", "DE-BY", 3000));
+
+		cube = DeliveryCube.from(deliveries);
+	}
+
+	@Test
+	public void axesAreDense() {
+		assertEquals(4, cube.getWeekCount());
+		assertEquals(firstMonday, cube.getWeekMonday(0));
+		assertEquals(3, cube.weekOf(fourthMonday.plusDays(6)));
+
+		assertEquals(2, cube.getVaccineCount());
+		assertEquals("comirnaty", cube.getVaccineIdentifier(0));
+		assertEquals(1, cube.vaccineIndexOf("moderna"));
+		assertEquals(-1, cube.vaccineIndexOf("astra"));
+
+		assertEquals(2, cube.getRegionCount());
+		assertEquals(cube.regionIndexOf("DE-BY"), cube.regionIndexOf("by"));
+		assertEquals("DE-BY", cube.getRegionName(cube.regionIndexOf("BY")));
+		assertEquals(-1, cube.regionIndexOf("HH"));
+	}
+
+	@Test
+	public void slicesAreSummedUp() {
+		int bavaria = cube.regionIndexOf("BY");
+		int moderna = cube.vaccineIndexOf("moderna");
+
+		assertEquals(4600, cube.getDoses(0, 4, DeliveryCube.ALL, DeliveryCube.ALL));
+		assertEquals(3400, cube.getDoses(0, 4, DeliveryCube.ALL, bavaria));
+		assertEquals(400, cube.getDoses(0, 4, moderna, bavaria));
+		assertEquals(600, cube.getWeekDoses(1, moderna, DeliveryCube.ALL));
+		assertEquals(0, cube.getWeekDoses(2, DeliveryCube.ALL, DeliveryCube.ALL));
+		assertEquals(3600, cube.getDoses(1, 4, DeliveryCube.ALL, DeliveryCube.ALL));
+	}
+
+	@Test
+	public void biggestDeliveryIsFoundPerRegion() {
+		int bavaria = cube.regionIndexOf("BY");
+
+		assertEquals(new DeliveryDataRow(fourthMonday, "comirnaty", "DE-BY", 3000),
+				cube.getBiggestDelivery(0, 4, DeliveryCube.ALL));
+		assertEquals(new DeliveryDataRow(secondMonday, "moderna", "DE-BY", 400),
+				cube.getBiggestDelivery(0, 3, bavaria));
+		assertNull(cube.getBiggestDelivery(2, 3, bavaria));
+	}
+
+	@Test
+	public void regionCanBeInterpreted() {
+		int bavaria = cube.regionIndexOf("BY");
+		List<DeliveryDataRow> bavarianDeliveries = cube.toDeliveries(bavaria);
+
+		assertEquals(2, bavarianDeliveries.size());
+		assertEquals(new DeliveryDataRow(secondMonday, "moderna", "DE-BY", 400), bavarianDeliveries.get(0));
+
+		DeliveryDataInterpretation untilSecondWeek = new DeliveryDataInterpretation(
+				bavarianDeliveries.subList(0, 1), cube, bavaria);
+		assertEquals(400, untilSecondWeek.getTotalDeliveredDoses());
+		assertEquals(1, untilSecondWeek.getDosesDeliveredByVaccine().size());
+
+		DeliveryDataInterpretation allWeeks = new DeliveryDataInterpretation(bavarianDeliveries, cube, bavaria);
+		assertEquals(3400, allWeeks.getTotalDeliveredDoses());
+		assertEquals(3000, allWeeks.getLastWeekDelivieredDoses());
+		assertEquals(1, allWeeks.getLastWeekNumberOfSuppliers());
+		assertEquals(3000.0 / 3400, allWeeks.getShareByVaccine().get(Vaccine.byDeliveryDataIdentifier("comirnaty")),
+				0.000000001);
+		assertEquals("DE-BY", allWeeks.getRegionName());
+	}
+
+	@Test
+	public void regionalUpdateIsRenderedFromCube() {
+		int bavaria = cube.regionIndexOf("BY");
+		String expectedText = new DeliveryUpdateString(
+				new DeliveryDataInterpretation(cube.toDeliveries(bavaria), cube, bavaria), true, -1).getTextAsMarkdown();
+
+		assertEquals(expectedText, new DeliveryUpdateBuilder().setRegion(cube, bavaria).buildText());
+		assertEquals(expectedText, new DeliveryUpdateBuilder().setRegion(cube, bavaria).setChatId("1").build().getText());
+	}
+
+}
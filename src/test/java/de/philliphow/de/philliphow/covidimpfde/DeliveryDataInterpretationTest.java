@@ -3,6 +3,7 @@ package de.philliphow.de.philliphow.covidimpfde;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -114,6 +115,16 @@ public class DeliveryDataInterpretationTest {
 		assertEquals(dosesBiontech, doseMap.get(Vaccine.byDeliveryDataIdentifier(vaccineBiontech)));
 	}
 
+	@Test
+	public void aggregatesAreComputedOnce() {
+		assertSame(example.getShareByVaccine(), example.getShareByVaccine());
+		assertSame(example.getDosesDeliveredByVaccine(), example.getDosesDeliveredByVaccine());
+		assertEquals(exampleData.get(exampleData.size() - 2), example.getLastNDeliveries(2).get(1));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> {
+			example.getLastNDeliveries(2).clear();
+		});
+	}
+
 	@Test
 	public void biggestDeliveryCorrect() {
 		assertEquals(exampleData.get(1), example.getBiggestDelivery());
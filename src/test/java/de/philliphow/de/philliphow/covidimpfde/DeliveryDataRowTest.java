@@ -79,10 +79,20 @@ class DeliveryDataRowTest {
 	@Test
 	public void newFieldDoesNotBreakConstruction() {
 		String headerRow = "date	newField	impfstoff	region	dosen";
-		String dataRow = "2020-12-26	newFieldValue	comirnaty	DE-SL 9750";
+		String dataRow = "2020-12-26	newFieldValue	comirnaty	DE-SL	9750";
 		assertEquals(example, new DeliveryDataRow(dataRow, headerRow));
 	}
 
+	@Test
+	public void mondayEpochDayIsCorrect() {
+		for (LocalDate date = LocalDate.of(1969, 12, 20); date.isBefore(LocalDate.of(2022, 1, 10)); date = date
+				.plusDays(1)) {
+			assertEquals(DeliveryDataRow.getMondayFor(date).toEpochDay(),
+					DeliveryDataRow.getMondayEpochDayFor((int) date.toEpochDay()));
+		}
+		assertEquals(LocalDate.of(2020, 12, 21).toEpochDay(), example.getCalendarWeekMondayEpochDay());
+	}
+
 	@Test
 	public void equalsWorks() {
 		assertTrue(example.equals(example));
@@ -111,4 +121,9 @@ class DeliveryDataRowTest {
 		
 	}
 
+	@Test
+	public void rowIsDescribedByItsDecodedValues() {
+		assertEquals("DeliveryDataRow date:2020-12-26 impfstoff:comirnaty region:DE-SL dosen:9750 ", example.toString());
+	}
+
 }
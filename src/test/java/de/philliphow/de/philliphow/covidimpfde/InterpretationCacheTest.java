@@ -0,0 +1,103 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.logic.InterpretationCache;
+
+public class InterpretationCacheTest {
+
+	InterpretationCache<Object> cache;
+	AtomicInteger computations;
+
+	LocalDate today = LocalDate.of(2021, 6, 1);
+	LocalDate yesterday = today.minusDays(1);
+
+	@BeforeEach
+	public void setUp() {
+		cache = new InterpretationCache<>(3);
+		computations = new AtomicInteger();
+	}
+
+	private Object interpret() {
+		computations.incrementAndGet();
+		return new Object();
+	}
+
+	@Test
+	public void interpretationsAreSharedPerVersionAndCutoff() {
+		Object dataset = new Object();
+
+		Object interpretation = cache.get(dataset, 1, today, this::interpret);
+		assertSame(interpretation, cache.get(dataset, 1, today, this::interpret));
+		assertEquals(1, computations.get());
+
+		assertNotSame(interpretation, cache.get(dataset, 1, yesterday, this::interpret));
+		assertNotSame(interpretation, cache.get(dataset, 1, 3, today, this::interpret));
+		assertEquals(3, computations.get());
+		assertEquals(3, cache.size());
+	}
+
+	@Test
+	public void newDatasetsReplaceTheCachedInterpretations() {
+		Object dataset = new Object();
+		Object interpretation = cache.get(dataset, 1, today, this::interpret);
+
+		Object newInterpretation = cache.get(dataset, 2, today, this::interpret);
+		assertNotSame(interpretation, newInterpretation);
+		assertEquals(1, cache.size());
+
+		// same version, but of another data source
+		assertNotSame(newInterpretation, cache.get(new Object(), 2, today, this::interpret));
+		assertEquals(3, computations.get());
+	}
+
+	@Test
+	public void olderDatasetsDoNotReplaceTheCachedInterpretations() {
+		Object dataset = new Object();
+		Object interpretation = cache.get(dataset, 2, today, this::interpret);
+
+		Object oldDataset = new Object();
+		Object oldInterpretation = cache.get(oldDataset, 1, today, this::interpret);
+		assertNotSame(oldInterpretation, cache.get(oldDataset, 1, today, this::interpret));
+		assertSame(interpretation, cache.get(dataset, 2, today, this::interpret));
+		assertEquals(3, computations.get());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void leastRecentlyUsedInterpretationIsEvicted() {
+		Object dataset = new Object();
+		Object first = cache.get(dataset, 1, today, this::interpret);
+		cache.get(dataset, 1, yesterday, this::interpret);
+		cache.get(dataset, 1, 3, today, this::interpret);
+
+		assertSame(first, cache.get(dataset, 1, today, this::interpret));
+		cache.get(dataset, 1, 4, today, this::interpret);
+		assertEquals(3, cache.size());
+		assertSame(first, cache.get(dataset, 1, today, this::interpret));
+		assertEquals(4, computations.get());
+
+		cache.get(dataset, 1, yesterday, this::interpret);
+		assertEquals(5, computations.get());
+	}
+
+	@Test
+	public void interpretationsMayUseTheCache() {
+		Object dataset = new Object();
+
+		Object outer = cache.get(dataset, 1, today,
+				() -> cache.get(dataset, 1, yesterday, this::interpret));
+		assertSame(outer, cache.get(dataset, 1, yesterday, this::interpret));
+		assertEquals(1, computations.get());
+		assertEquals(2, cache.size());
+	}
+
+}
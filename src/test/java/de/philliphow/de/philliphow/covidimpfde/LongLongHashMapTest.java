@@ -0,0 +1,58 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.DeliveryAggregator;
+import de.philliphow.covidimpfde.api.LongLongHashMap;
+
+public class LongLongHashMapTest {
+
+	@Test
+	public void valuesAreSummedByKey() {
+		LongLongHashMap map = new LongLongHashMap();
+		map.addTo(7, 100);
+		map.addTo(7, 50);
+		map.addTo(-3, 1);
+
+		assertEquals(150, map.get(7, 0));
+		assertEquals(1, map.get(-3, 0));
+		assertEquals(-1, map.get(8, -1));
+		assertEquals(2, map.size());
+		assertFalse(map.containsKey(8));
+	}
+
+	@Test
+	public void mapGrowsBeyondInitialCapacity() {
+		LongLongHashMap map = new LongLongHashMap(2);
+		for (int week = 0; week < 1000; week++) {
+			for (int vaccine = 0; vaccine < 10; vaccine++) {
+				map.addTo(DeliveryAggregator.packKey(week, vaccine), week + vaccine);
+			}
+		}
+
+		assertEquals(10000, map.size());
+		assertEquals(999 + 9, map.get(DeliveryAggregator.packKey(999, 9), 0));
+		assertEquals(5, map.get(DeliveryAggregator.packKey(0, 5), 0));
+	}
+
+	@Test
+	public void minValueIsAValidKey() {
+		LongLongHashMap map = new LongLongHashMap();
+		map.addTo(Long.MIN_VALUE, 5);
+		map.addTo(0, 6);
+
+		assertTrue(map.containsKey(Long.MIN_VALUE));
+		assertEquals(5, map.get(Long.MIN_VALUE, 0));
+		long[] keys = map.keys();
+		Arrays.sort(keys);
+		assertArrayEquals(new long[] { Long.MIN_VALUE, 0 }, keys);
+	}
+
+}
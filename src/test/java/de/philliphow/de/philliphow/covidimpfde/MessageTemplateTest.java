@@ -0,0 +1,51 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.strings.MessageTemplate;
+import de.philliphow.covidimpfde.strings.StrUtil;
+
+public class MessageTemplateTest {
+
+	@Test
+	public void templatesRenderLikeStringFormat() {
+		String format = "*%s* von %s (*%s*)\n";
+		MessageTemplate template = MessageTemplate.compile(format);
+
+		assertEquals(3, template.getPlaceholderCount());
+		assertEquals(String.format(format, "1,5M", "BioNTech", "KW 12"),
+				template.render("1,5M", "BioNTech", "KW 12"));
+		assertEquals("%s: ok", MessageTemplate.compile("%s%s: %s").render("%", "s", "ok"));
+		assertEquals("Keine Platzhalter", MessageTemplate.compile("Keine Platzhalter").render());
+	}
+
+	@Test
+	public void writerFormatsValuesLikeStrUtil() {
+		String format = "Insgesamt: *%s* (*%s*), *%s*\n%s";
+		StringBuilder sb = new StringBuilder("Vorher ");
+
+		MessageTemplate.compile(format).writeTo(sb)
+				.number(1234567)
+				.percent(0.4567)
+				.difference(-22000)
+				.append(content -> content.append("Liste"))
+				.end();
+
+		assertEquals("Vorher " + String.format(format, StrUtil.number(1234567), StrUtil.percent(0.4567),
+				StrUtil.difference(-22000), "Liste"), sb.toString());
+	}
+
+	@Test
+	public void placeholdersMustMatch() {
+		assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("*%d* Dosen"));
+		assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("100%"));
+
+		MessageTemplate template = MessageTemplate.compile("%s und %s");
+		assertThrows(IllegalStateException.class, () -> template.render("eins"));
+		assertThrows(IllegalStateException.class, () -> template.render("eins", "zwei", "drei"));
+	}
+
+}
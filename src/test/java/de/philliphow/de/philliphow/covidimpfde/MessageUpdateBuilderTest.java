@@ -2,6 +2,7 @@ package de.philliphow.de.philliphow.covidimpfde;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -115,6 +116,24 @@ public class MessageUpdateBuilderTest {
 
 	}
 
+	@Test
+	public void textCanBeRenderedOnceForManyChats() {
+
+		List<LocalDate> data = new ArrayList<>();
+		data.add(LocalDate.now());
+
+		assertThrows(UnsupportedOperationException.class, () -> example.buildText());
+
+		String text = example.setContentData(data).buildText();
+		SendMessage firstMessage = UpdateMessageBuilder.buildFor("first", text);
+		SendMessage secondMessage = UpdateMessageBuilder.buildFor("second", text);
+
+		assertEquals(example.setChatId("first").build().getText(), firstMessage.getText());
+		assertSame(firstMessage.getText(), secondMessage.getText());
+		assertEquals("second", secondMessage.getChatId());
+
+	}
+
 	public List<String> getWordsOfMessageText(SendMessage m) {
 
 		Scanner textScanner = new Scanner(m.getText());
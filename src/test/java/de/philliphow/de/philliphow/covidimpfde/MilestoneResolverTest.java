@@ -0,0 +1,95 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
+import de.philliphow.covidimpfde.logic.MilestoneResolver;
+import de.philliphow.covidimpfde.logic.MilestoneResolver.Milestone;
+import de.philliphow.covidimpfde.logic.MilestoneResolver.MilestoneKind;
+
+public class MilestoneResolverTest {
+
+	private static final String HEADER = "date\tpersonen_voll_kumulativ\tdosen_zweit_differenz_zum_vortag";
+
+	private static final int POPULATION = 1000;
+
+	MilestoneResolver resolver;
+	VaccinationTimeSeries data;
+
+	@BeforeEach
+	public void setUp() {
+		// 100 persons fully vaccinated per day, 8 days
+		List<VaccinationDataRow> rows = new ArrayList<>();
+		for (int day = 0; day < 8; day++) {
+			rows.add(new VaccinationDataRow(LocalDate.of(2021, 6, 1).plusDays(day) + "\t" + (day + 1) * 100 + "\t100",
+					HEADER));
+		}
+		data = VaccinationTimeSeries.from(rows);
+		resolver = new MilestoneResolver(data, POPULATION);
+	}
+
+	@Test
+	public void reachedMilestonesAreFoundBySearch() {
+		assertTrue(data.isNonDecreasing(VaccinationsDataField.PERSONS_TOTAL_SECOND));
+		assertEquals(0, data.getFirstDayAbove(VaccinationsDataField.PERSONS_TOTAL_SECOND, 99.5));
+		assertEquals(4, data.getFirstDayAbove(VaccinationsDataField.PERSONS_TOTAL_SECOND, 400));
+		assertEquals(-1, data.getFirstDayAbove(VaccinationsDataField.PERSONS_TOTAL_SECOND, 1000));
+
+		assertEquals(LocalDate.of(2021, 6, 5),
+				resolver.getDateReached(VaccinationsDataField.PERSONS_TOTAL_SECOND, 400));
+		assertThrows(IllegalStateException.class,
+				() -> resolver.getDateReached(VaccinationsDataField.PERSONS_TOTAL_SECOND, 1000));
+	}
+
+	@Test
+	public void unorderedColumnsAreScanned() {
+		List<VaccinationDataRow> rows = new ArrayList<>();
+		rows.add(new VaccinationDataRow("2021-06-01\t100\t100", HEADER));
+		rows.add(new VaccinationDataRow("2021-06-02\t500\t400", HEADER));
+		rows.add(new VaccinationDataRow("2021-06-03\t300\t0", HEADER));
+		rows.add(new VaccinationDataRow("2021-06-04\t600\t300", HEADER));
+		VaccinationTimeSeries unordered = VaccinationTimeSeries.from(rows);
+
+		assertFalse(unordered.isNonDecreasing(VaccinationsDataField.PERSONS_TOTAL_SECOND));
+		assertEquals(1, unordered.getFirstDayAbove(VaccinationsDataField.PERSONS_TOTAL_SECOND, 400));
+	}
+
+	@Test
+	public void quotaListsAreResolved() {
+		List<Milestone> milestones = resolver.resolve(MilestoneKind.FULL, new double[] { 0.25, 0.5, 0.9 }, 7);
+
+		assertEquals(3, milestones.size());
+
+		assertTrue(milestones.get(0).isReached());
+		assertEquals(LocalDate.of(2021, 6, 3), milestones.get(0).getDate());
+
+		assertTrue(milestones.get(1).isReached());
+		assertEquals(LocalDate.of(2021, 6, 6), milestones.get(1).getDate());
+
+		// 800 of 900 reached, 100 per day
+		assertFalse(milestones.get(2).isReached());
+		assertEquals(0.9, milestones.get(2).getQuota(), 1e-9);
+		assertEquals(LocalDate.of(2021, 6, 9), milestones.get(2).getDate());
+	}
+
+	@Test
+	public void milestonesCanBeResolvedOnPastDays() {
+		Milestone asOfThirdDay = resolver.resolve(MilestoneKind.FULL, 0.5, 7, 2);
+
+		assertFalse(asOfThirdDay.isReached());
+		assertEquals(LocalDate.of(2021, 6, 5), asOfThirdDay.getDate());
+	}
+
+}
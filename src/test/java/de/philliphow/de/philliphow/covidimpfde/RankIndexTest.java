@@ -0,0 +1,77 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.models.RankIndex;
+
+public class RankIndexTest {
+
+	RankIndex example;
+
+	@BeforeEach
+	public void setUp() {
+		example = new RankIndex(2);
+		for (int value : new int[] { 300, 100, 500, 300, 200 }) {
+			example.add(value);
+		}
+	}
+
+	@Test
+	public void daysAreRanked() {
+		assertEquals(5, example.size());
+		assertEquals(1, example.getRank(2));
+		assertEquals(2, example.getRank(0));
+		assertEquals(2, example.getRank(3));
+		assertEquals(4, example.getRank(4));
+		assertEquals(5, example.getRank(1));
+		assertEquals(1, example.getRankOf(600));
+		assertEquals(4, example.getRankOf(250));
+	}
+
+	@Test
+	public void topDaysPreferEarlierDaysOnEqualValues() {
+		assertArrayEquals(new int[] { 2, 0, 3 }, example.getTopDays(3));
+		assertArrayEquals(new int[] { 2, 0, 3, 4, 1 }, example.getTopDays(10));
+		assertArrayEquals(new int[0], example.getTopDays(0));
+	}
+
+	@Test
+	public void addedDaysAreRankedRightAway() {
+		assertEquals(5, example.add(1000));
+		assertEquals(1, example.getRank(5));
+		assertEquals(2, example.getRank(2));
+		assertEquals(5, example.getTopDays(1)[0]);
+		assertEquals(300, example.getValue(3));
+	}
+
+	@Test
+	public void changedDaysAreRankedAgain() {
+		example.setValue(4, 600);
+		assertEquals(1, example.getRank(4));
+		assertEquals(600, example.getValue(4));
+		assertArrayEquals(new int[] { 4, 2, 0, 3, 1 }, example.getTopDays(10));
+
+		example.setValue(2, 300);
+		assertArrayEquals(new int[] { 4, 0, 2, 3, 1 }, example.getTopDays(10));
+		assertEquals(2, example.getRank(3));
+		assertEquals(5, example.size());
+	}
+
+	@Test
+	public void copiesAreIndependent() {
+		RankIndex copy = example.copy();
+		copy.add(1000);
+		copy.setValue(1, 400);
+
+		assertEquals(5, example.size());
+		assertEquals(1, example.getRank(2));
+		assertEquals(5, example.getRank(1));
+		assertEquals(6, copy.size());
+		assertArrayEquals(new int[] { 5, 2, 1, 0, 3, 4 }, copy.getTopDays(10));
+	}
+
+}
@@ -0,0 +1,76 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.logic.ResponseCache;
+
+public class ResponseCacheTest {
+
+	ResponseCache cache;
+	AtomicInteger renders;
+	Object dataset;
+
+	LocalDate today = LocalDate.now();
+
+	@BeforeEach
+	public void setUp() {
+		cache = new ResponseCache(2);
+		renders = new AtomicInteger();
+		dataset = new Object();
+	}
+
+	private String render() {
+		return "text " + renders.incrementAndGet();
+	}
+
+	@Test
+	public void textsAreCachedPerKey() {
+		assertEquals("text 1", cache.get(dataset, 1, today, true, 42, this::render));
+		assertEquals("text 1", cache.get(dataset, 1, today, true, 42, this::render));
+
+		assertEquals("text 2", cache.get(dataset, 1, today, false, 42, this::render));
+		assertEquals("text 1", cache.get(dataset, 1, today, true, 42, this::render));
+		assertEquals(2, renders.get());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void leastRecentlyUsedTextIsEvicted() {
+		cache.get(dataset, 1, today, true, 42, this::render);
+		cache.get(dataset, 1, today, true, 43, this::render);
+		// uses the first text, so the second one is evicted next
+		cache.get(dataset, 1, today, true, 42, this::render);
+		cache.get(dataset, 1, today.minusDays(1), true, 42, this::render);
+
+		assertEquals(2, cache.size());
+		assertEquals("text 1", cache.get(dataset, 1, today, true, 42, this::render));
+		assertEquals("text 4", cache.get(dataset, 1, today, true, 43, this::render));
+	}
+
+	@Test
+	public void newVersionsInvalidateTheCache() {
+		cache.get(dataset, 1, today, true, 42, this::render);
+
+		assertEquals("text 2", cache.get(dataset, 2, today, true, 42, this::render));
+		assertEquals(1, cache.size());
+		assertEquals("text 3", cache.get(new Object(), 2, today, true, 42, this::render));
+	}
+
+	@Test
+	public void olderVersionsDoNotReplaceTheCache() {
+		cache.get(dataset, 2, today, true, 42, this::render);
+
+		assertEquals("text 2", cache.get(new Object(), 1, today, true, 42, this::render));
+		assertEquals("text 3", cache.get(new Object(), 1, today, true, 42, this::render));
+		assertEquals("text 1", cache.get(dataset, 2, today, true, 42, this::render));
+		assertEquals(1, cache.size());
+	}
+
+}
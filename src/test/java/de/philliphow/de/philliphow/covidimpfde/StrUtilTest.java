@@ -37,6 +37,23 @@ public class StrUtilTest {
 		assertEquals("-1,12M", StrUtil.number(-1120000));
 	}
 
+	@Test
+	public void numbersAreRoundedHalfToEvenAndGrouped() {
+		assertEquals("22K", StrUtil.number(22500));
+		assertEquals("24K", StrUtil.number(23500));
+		assertEquals("1.000K", StrUtil.number(999600));
+		assertEquals("1,24M", StrUtil.number(1235000));
+		assertEquals("1.234,57M", StrUtil.number(1234567890));
+	}
+
+	@Test
+	public void numbersCanBeAppended() {
+		StringBuilder sb = new StringBuilder("Dosen: ");
+		StrUtil.appendNumber(sb, -1120000).append(", ");
+		StrUtil.appendPercent(sb, 0.1234);
+		assertEquals("Dosen: -1,12M, 12,34%", sb.toString());
+	}
+
 	@Test
 	public void positiveDifferenceHasPlus() {
 		assertEquals("+4", StrUtil.difference(4));
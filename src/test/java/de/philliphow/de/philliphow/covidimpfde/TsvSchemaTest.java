@@ -0,0 +1,62 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.TsvSchema;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
+
+public class TsvSchemaTest {
+
+	TsvSchema example;
+
+	@BeforeEach
+	public void setUp() {
+		example = TsvSchema.fromHeaderLine("date\tdosen_kumulativ\tdosen_differenz_zum_vortag");
+	}
+
+	@Test
+	public void columnsAreIndexed() {
+		assertEquals(3, example.getColumnCount());
+		assertEquals(0, example.indexOf("date"));
+		assertEquals(2, example.indexOf("dosen_differenz_zum_vortag"));
+		assertEquals("dosen_kumulativ", example.getColumnName(1));
+		assertTrue(example.hasColumn("dosen_kumulativ"));
+	}
+
+	@Test
+	public void missingColumnIsDetected() {
+		assertEquals(-1, example.indexOf("dosen_dritt_differenz_zum_vortag"));
+		assertFalse(example.hasColumn("dosen_dritt_differenz_zum_vortag"));
+	}
+
+	@Test
+	public void fieldColumnsAreResolvedOnce() {
+		int[] columns = example.getColumnIndices(VaccinationsDataField.class, VaccinationsDataField::getFieldName);
+
+		assertEquals(1, columns[VaccinationsDataField.SHOTS_TOTAL.ordinal()]);
+		assertEquals(-1, columns[VaccinationsDataField.SHOTS_TODAY_THIRD.ordinal()]);
+		assertSame(columns,
+				example.getColumnIndices(VaccinationsDataField.class, VaccinationsDataField::getFieldName));
+	}
+
+	@Test
+	public void rowsOfOneSchemaReadTheirValues() {
+		TsvTokenizer tokenizer = new TsvTokenizer();
+		VaccinationDataRow first = new VaccinationDataRow(tokenizer.tokenize("2021-04-13\t100\t10"), example);
+		VaccinationDataRow second = new VaccinationDataRow(tokenizer.tokenize("2021-04-14\t120\t20"), example);
+
+		assertEquals(100, first.getTotalShots());
+		assertEquals(20, second.getShotsToday());
+		assertTrue(second.hasField(VaccinationsDataField.SHOTS_TODAY));
+		assertFalse(second.hasField(VaccinationsDataField.SHOTS_TODAY_THIRD));
+	}
+
+}
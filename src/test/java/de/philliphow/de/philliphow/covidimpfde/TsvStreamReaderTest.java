@@ -0,0 +1,79 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.TsvStreamReader;
+
+public class TsvStreamReaderTest {
+
+	private static TsvStreamReader readerFor(String content, int tailBytes) {
+		return new TsvStreamReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), tailBytes);
+	}
+
+	@Test
+	public void linesAreSplitAtLineBreaks() throws IOException {
+		TsvStreamReader reader = readerFor("a\tb\r\n\nc\td", 0);
+
+		assertEquals("a\tb", reader.readLine());
+		assertEquals("", reader.readLine());
+		assertEquals("c\td", reader.readLine());
+		assertNull(reader.readLine());
+	}
+
+	@Test
+	public void emptyLinesCanBeSkipped() throws IOException {
+		TsvStreamReader reader = readerFor("\n\nheader\n\nrow\n", 0);
+
+		assertEquals("header", reader.readNonEmptyLine());
+		assertEquals("row", reader.readNonEmptyLine());
+		assertNull(reader.readNonEmptyLine());
+	}
+
+	@Test
+	public void linesLongerThanTheBufferAreRead() throws IOException {
+		StringBuilder longLine = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			longLine.append(i % 10);
+		}
+		TsvStreamReader reader = readerFor("short\n" + longLine + "\nlast", 0);
+
+		assertEquals("short", reader.readLine());
+		assertEquals(longLine.toString(), reader.readLine());
+		assertEquals("last", reader.readLine());
+		assertNull(reader.readLine());
+	}
+
+	@Test
+	public void multiByteCharactersAreDecoded() throws IOException {
+		TsvStreamReader reader = readerFor("Bundesländer\tÜbersicht\n", 0);
+
+		assertEquals("Bundesländer\tÜbersicht", reader.readLine());
+	}
+
+	@Test
+	public void bytesReadAndTailAreTracked() throws IOException {
+		TsvStreamReader reader = readerFor("header\nrow 1\nrow 2\n", 4);
+		while (reader.readLine() != null)
+			;
+
+		assertEquals(19, reader.getBytesRead());
+		assertArrayEquals("w 2\n".getBytes(StandardCharsets.UTF_8), reader.getTail());
+	}
+
+	@Test
+	public void tailOfShortStreamIsShorter() throws IOException {
+		TsvStreamReader reader = readerFor("ab", 128);
+		reader.readLine();
+
+		assertArrayEquals("ab".getBytes(StandardCharsets.UTF_8), reader.getTail());
+	}
+
+}
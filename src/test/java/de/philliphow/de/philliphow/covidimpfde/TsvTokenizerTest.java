@@ -0,0 +1,101 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.TsvTokenizer;
+
+public class TsvTokenizerTest {
+
+	@Test
+	public void fieldsAreSplitAtTabsOnly() {
+		TsvTokenizer tokenizer = new TsvTokenizer().tokenize("2021-01-04\tmoderna ab\tDE-BY");
+
+		assertEquals(3, tokenizer.getFieldCount());
+		assertEquals("2021-01-04", tokenizer.getString(0));
+		assertEquals("moderna ab", tokenizer.getString(1));
+		assertEquals("DE-BY", tokenizer.getString(2));
+	}
+
+	@Test
+	public void emptyFieldsKeepColumnsAligned() {
+		TsvTokenizer tokenizer = new TsvTokenizer().tokenize("\ta\t\tb\t");
+
+		assertEquals(5, tokenizer.getFieldCount());
+		assertTrue(tokenizer.isEmpty(0));
+		assertEquals("a", tokenizer.getString(1));
+		assertTrue(tokenizer.isEmpty(2));
+		assertEquals("b", tokenizer.getString(3));
+		assertTrue(tokenizer.isEmpty(4));
+	}
+
+	@Test
+	public void fieldsAreSlicesOfTheLine() {
+		byte[] line = "xx1200\t-35\tyy".getBytes(StandardCharsets.UTF_8);
+		TsvTokenizer tokenizer = new TsvTokenizer().tokenize(line, 2, 11);
+
+		assertEquals(3, tokenizer.getFieldCount());
+		assertEquals(2, tokenizer.getFieldStart(0));
+		assertEquals(6, tokenizer.getFieldEnd(0));
+		assertEquals(1200, tokenizer.parseInt(0));
+		assertEquals(-35, tokenizer.parseInt(1));
+		assertEquals("", tokenizer.getString(2));
+	}
+
+	@Test
+	public void numbersAreParsedLikeTheJdk() {
+		TsvTokenizer tokenizer = new TsvTokenizer()
+				.tokenize("2147483647\t-2147483648\t0.178\t-1.5\t12\t1e3\t0.1234567890123456789");
+
+		assertEquals(Integer.MAX_VALUE, tokenizer.parseInt(0));
+		assertEquals(Integer.MIN_VALUE, tokenizer.parseInt(1));
+		assertEquals(0.178, tokenizer.parseDouble(2));
+		assertEquals(-1.5, tokenizer.parseDouble(3));
+		assertEquals(12.0, tokenizer.parseDouble(4));
+		assertEquals(1000.0, tokenizer.parseDouble(5));
+		assertEquals(Double.parseDouble("0.1234567890123456789"), tokenizer.parseDouble(6));
+	}
+
+	@Test
+	public void invalidNumbersFail() {
+		TsvTokenizer tokenizer = new TsvTokenizer().tokenize("\t12a\t2147483648\t-\t 1");
+
+		assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(0));
+		assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(1));
+		assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(2));
+		assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(3));
+		assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(4));
+		assertThrows(NumberFormatException.class, () -> tokenizer.parseDouble(0));
+	}
+
+	@Test
+	public void fieldsCanBeComparedWithoutDecoding() {
+		TsvTokenizer tokenizer = new TsvTokenizer().tokenize("DE-BUND\tDE-BY");
+
+		assertTrue(tokenizer.fieldEquals(0, "DE-BUND"));
+		assertFalse(tokenizer.fieldEquals(1, "DE-BUND"));
+		assertFalse(tokenizer.fieldEquals(1, "DE-B"));
+	}
+
+	@Test
+	public void multiByteCharactersAreKept() {
+		TsvTokenizer tokenizer = new TsvTokenizer().tokenize("Thüringen\tÖ");
+
+		assertEquals("Thüringen", tokenizer.getString(0));
+		assertEquals("Ö", tokenizer.getString(1));
+	}
+
+	@Test
+	public void missingFieldIsRejected() {
+		TsvTokenizer tokenizer = new TsvTokenizer().tokenize("a\tb");
+
+		assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.getString(2));
+	}
+
+}
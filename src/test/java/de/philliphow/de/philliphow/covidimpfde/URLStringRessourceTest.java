@@ -1,26 +1,37 @@
 package de.philliphow.de.philliphow.covidimpfde;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.sun.net.httpserver.HttpServer;
+
 import de.philliphow.covidimpfde.services.UrlStringRessourceResolver;
+import de.philliphow.covidimpfde.services.UrlStringRessourceResolver.RangeResponse;
 
 public class URLStringRessourceTest {
 
 	private static final String TEST_LOCAL_FILE = "testfile.txt";
 	private static final String TEST_LOCAL_FILE_NOT_EXISTS = "askdlflakjerlkajelrklaera.txt";
 	private static final String TEST_ONLINE_RESOURCE = "https://httpbin.org/get";
+	private static final String TEST_ONLINE_RESOURCE_WITH_ETAG = "https://httpbin.org/etag/covidimpfde";
 	private static final String TEST_ONLINE_RESOURCE_NOT_EXISTS = "https://zerjklaerlkajdakjle.com";
 	private static final String TEST_FILE_CONTENT = "test string";
 
@@ -63,6 +74,30 @@ public class URLStringRessourceTest {
 		assertTrue(result.endsWith("}"));
 	}
 
+	@Test
+	public void testLocalFileIsAlwaysModified() throws IOException {
+		URL url = new URL(new URL("file:"), TEST_LOCAL_FILE);
+		example = new UrlStringRessourceResolver(url);
+
+		assertEquals(TEST_FILE_CONTENT, example.getAsStringSyncIfModified().get());
+		assertEquals(TEST_FILE_CONTENT, example.getAsStringSyncIfModified().get());
+	}
+
+	@Test
+	public void testOnlineFileNotModifiedIsSkipped() throws IOException {
+
+		URL url = new URL(TEST_ONLINE_RESOURCE_WITH_ETAG);
+		example = new UrlStringRessourceResolver(url);
+
+		assertTrue(example.getAsStringSyncIfModified().isPresent());
+		assertFalse(example.getAsStringSyncIfModified().isPresent());
+		assertEquals(1, example.getFullResponseCount());
+		assertEquals(1, example.getNotModifiedResponseCount());
+
+		example.forgetValidators();
+		assertTrue(example.getAsStringSyncIfModified().isPresent());
+	}
+
 	@Test
 	public void testFileNotExistsThrowsException() throws MalformedURLException {
 
@@ -85,4 +120,62 @@ public class URLStringRessourceTest {
 
 	}
 
+	@Test
+	public void testLocalFileIsReadFromOffset() throws IOException {
+		File fileWithSpace = new File("test file.txt");
+		FileWriter fw = new FileWriter(fileWithSpace);
+		fw.write(TEST_FILE_CONTENT);
+		fw.close();
+
+		try {
+			for (URL url : new URL[] { new URL(new URL("file:"), TEST_LOCAL_FILE), fileWithSpace.toURI().toURL() }) {
+				example = new UrlStringRessourceResolver(url);
+				RangeResponse response = example.getAsBytesSyncFrom(5);
+
+				assertTrue(response.isPartialContent());
+				assertEquals("string", new String(response.getBytes(), StandardCharsets.UTF_8));
+			}
+		} finally {
+			fileWithSpace.delete();
+		}
+	}
+
+	@Test
+	public void testPartialResponseForWrongRangeIsNotAccepted() throws IOException {
+		List<String> receivedEntityTags = new ArrayList<>();
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		// answers every range request with the range from the first byte
+		server.createContext("/", exchange -> {
+			receivedEntityTags.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+			byte[] body = TEST_FILE_CONTENT.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("ETag", "\"range\"");
+			if (exchange.getRequestHeaders().containsKey("Range")) {
+				exchange.getResponseHeaders().add("Content-Range", "bytes 0-" + (body.length - 1) + "/" + body.length);
+				exchange.sendResponseHeaders(206, body.length);
+			} else {
+				exchange.sendResponseHeaders(200, body.length);
+			}
+			OutputStream responseBody = exchange.getResponseBody();
+			responseBody.write(body);
+			responseBody.close();
+		});
+		server.start();
+
+		try {
+			example = new UrlStringRessourceResolver(
+					new URL("http://localhost:" + server.getAddress().getPort() + "/testfile.txt"));
+
+			RangeResponse response = example.getAsBytesSyncFrom(5);
+			assertFalse(response.isPartialContent());
+			assertFalse(response.isFullContent());
+			assertEquals(0, example.getPartialResponseCount());
+
+			assertTrue(example.getAsStringSyncIfModified().isPresent());
+			assertNull(receivedEntityTags.get(1));
+			assertEquals(1, example.getFullResponseCount());
+		} finally {
+			server.stop(0);
+		}
+	}
+
 }
@@ -0,0 +1,115 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.DeliveryApiManager;
+import de.philliphow.covidimpfde.api.models.DeliveryCube;
+import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
+import de.philliphow.covidimpfde.exceptions.ImpfDashboardApiException;
+import de.philliphow.covidimpfde.logic.DeliveryUpdateBuilder;
+import de.philliphow.covidimpfde.logic.VaccinationUpdateBuilder;
+
+/**
+ * Renders the updates of fixed datasets and compares them to the texts in
+ * test-datasets/golden. The vaccinations are the debug dataset with booster
+ * shots added, the deliveries are the debug dataset. Only the ✅ marks of
+ * the milestones depend on the current day; all estimated milestones lie in
+ * the past, so every one of them is marked.
+ *
+ * The vaccination texts are what the original builder rendered, except for
+ * the record day and record week paragraphs, which were added on purpose
+ * later on.
+ */
+public class UpdateTextGoldenTest {
+
+	private static final Path DATASETS = Paths.get("test-datasets");
+	private static final Path GOLDEN = DATASETS.resolve("golden");
+
+	private static final LocalDate WEEKDAY = LocalDate.of(2021, 1, 21);
+	private static final LocalDate SUNDAY = LocalDate.of(2021, 1, 24);
+	private static final LocalDate DELIVERY_WEEK = LocalDate.of(2021, 5, 3);
+
+	List<VaccinationDataRow> vaccinations;
+	List<DeliveryDataRow> deliveries;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		vaccinations = new ArrayList<>();
+		List<String> lines = Files.readAllLines(GOLDEN.resolve("vaccinations.tsv"));
+		lines.subList(1, lines.size()).forEach(line -> vaccinations.add(new VaccinationDataRow(line, lines.get(0))));
+
+		deliveries = new ArrayList<>();
+		List<String> deliveryLines = Files.readAllLines(DATASETS.resolve("debug_delivery_timeseries.tsv"));
+		deliveryLines.subList(1, deliveryLines.size())
+				.forEach(line -> deliveries.add(new DeliveryDataRow(line, deliveryLines.get(0))));
+	}
+
+	private static String golden(String name) throws IOException {
+		return new String(Files.readAllBytes(GOLDEN.resolve(name)), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void weekdayVaccinationUpdateMatchesGolden() throws IOException {
+		String expected = golden("vaccination_weekday.txt");
+
+		assertEquals(expected, new VaccinationUpdateBuilder().setContentData(vaccinations).setDebugDate(WEEKDAY)
+				.setIsSubbed(true).setSubCount(42).buildText());
+		assertEquals(expected, new VaccinationUpdateBuilder().setTimeSeries(VaccinationTimeSeries.from(vaccinations))
+				.setDebugDate(WEEKDAY).setIsSubbed(true).setSubCount(42).buildText());
+	}
+
+	@Test
+	public void sundayVaccinationUpdateMatchesGolden() throws IOException {
+		String expected = golden("vaccination_sunday.txt");
+
+		assertEquals(expected, new VaccinationUpdateBuilder().setContentData(vaccinations).setDebugDate(SUNDAY)
+				.setIsSubbed(false).setSubCount(-1).buildText());
+		assertEquals(expected, new VaccinationUpdateBuilder().setTimeSeries(VaccinationTimeSeries.from(vaccinations))
+				.setDebugDate(SUNDAY).setIsSubbed(false).setSubCount(-1).buildText());
+	}
+
+	@Test
+	public void federalDeliveryUpdateMatchesGolden() throws IOException, ImpfDashboardApiException {
+		List<DeliveryDataRow> federalDeliveries = DeliveryApiManager.toFederalDeliveries(deliveries);
+		String expected = golden("delivery_federal.txt");
+
+		assertEquals(expected, new DeliveryUpdateBuilder().setContentData(federalDeliveries)
+				.setDebugDate(DELIVERY_WEEK).setIsSubbed(true).setSubCount(42).buildText());
+
+		DeliveryApiManager manager = DeliveryApiManager.getInstance(true);
+		manager.getNewDataIfNecessary();
+		assertEquals(expected, new DeliveryUpdateBuilder().setFederalDeliveries(manager.getFederalSnapshot())
+				.setDebugDate(DELIVERY_WEEK).setIsSubbed(true).setSubCount(42).buildText());
+	}
+
+	@Test
+	public void regionalDeliveryUpdateMatchesGolden() throws IOException, ImpfDashboardApiException {
+		DeliveryCube cube = DeliveryCube.from(deliveries);
+		String expected = golden("delivery_region.txt");
+
+		assertEquals(expected, new DeliveryUpdateBuilder().setRegion(cube, cube.regionIndexOf("DE-BY"))
+				.setDebugDate(DELIVERY_WEEK).setIsSubbed(false).setSubCount(-1).buildText());
+
+		// the way /lieferung BY renders it
+		DeliveryApiManager manager = DeliveryApiManager.getInstance(true);
+		manager.getNewDataIfNecessary();
+		DeliveryCube managerCube = manager.getDeliveryCube();
+		assertEquals(expected, new DeliveryUpdateBuilder().setRegion(managerCube, managerCube.regionIndexOf("BY"))
+				.setDebugDate(DELIVERY_WEEK).setIsSubbed(false).setSubCount(-1).buildText());
+	}
+
+}
@@ -16,6 +16,7 @@ import static de.philliphow.covidimpfde.api.models.VaccinationDataRow.Vaccinatio
 import static de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField.SHOTS_TOTAL_MODERNA;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -24,6 +25,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -263,6 +265,23 @@ public class VaccinationDataInterpretationTest {
 
 	}
 
+	@Test
+	public void daysAreRankedByAnyDailyField() {
+
+		interpretation = getInterpretationFor(
+				new VaccinationDataRowMockBuilder().with(DATE, daysAgo(3)).with(SHOTS_TODAY_FIRST, 500).get(),
+				new VaccinationDataRowMockBuilder().with(DATE, daysAgo(2)).with(SHOTS_TODAY_FIRST, 700).get(),
+				new VaccinationDataRowMockBuilder().with(DATE, daysAgo(1)).with(SHOTS_TODAY_FIRST, 600).get());
+
+		assertEquals(1, interpretation.getDayRanking(SHOTS_TODAY_FIRST, daysAgo(2)));
+		assertEquals(3, interpretation.getDayRanking(SHOTS_TODAY_FIRST, daysAgo(3)));
+
+		List<VaccinationDataRow> topDays = interpretation.getTopDays(SHOTS_TODAY_FIRST, 2);
+		assertEquals(2, topDays.size());
+		assertEquals(daysAgo(2), topDays.get(0).getDate());
+		assertEquals(daysAgo(1), topDays.get(1).getDate());
+	}
+
 	@Test
 	public void testLatestUpdateIsSunday() {
 
@@ -313,6 +332,54 @@ public class VaccinationDataInterpretationTest {
 
 	}
 
+	@Test
+	public void movingAverageWindowsAndPastDaysAreSupported() {
+
+		List<VaccinationDataRow> data = new ArrayList<>();
+		for (int i = 28; i > 0; i--) {
+			data.add(new VaccinationDataRowMockBuilder().with(DATE, daysAgo(i))
+					.with(SHOTS_TODAY_FIRST, i <= 7 ? 700 : 100).with(SHOTS_TODAY, 1000).get());
+		}
+		interpretation = new VaccinationDataInterpretation(data);
+
+		int shortWindow = VaccinationDataInterpretation.MOVING_AVERAGE_DAY_COUNT_SHORT;
+		int longWindow = VaccinationDataInterpretation.MOVING_AVERAGE_DAY_COUNT_LONG;
+
+		assertEquals(700, interpretation.getMovingFirstShotAverage(shortWindow), EPSILON);
+		assertEquals(400, interpretation.getMovingFirstShotAverage(), EPSILON);
+		assertEquals(250, interpretation.getMovingFirstShotAverage(longWindow), EPSILON);
+		assertEquals(1000, interpretation.getMovingTotalShotsAverage(longWindow), EPSILON);
+
+		assertEquals(100, interpretation.getMovingAverage(SHOTS_TODAY_FIRST, 7, daysAgo(8)), EPSILON);
+		assertEquals(100, interpretation.getMovingAverage(SHOTS_TODAY_FIRST, 28, daysAgo(28)), EPSILON);
+		assertThrows(IllegalArgumentException.class, () -> interpretation.getMovingFirstShotAverage(0));
+		assertThrows(IllegalArgumentException.class,
+				() -> interpretation.getMovingAverage(SHOTS_TODAY_FIRST, 7, daysAgo(0)));
+	}
+
+	@Test
+	public void pastEstimationsCanBeQueried() {
+
+		final double POP_QUOTA_FAC = 0.6;
+		int vaccinationGoal = (int) (POP_QUOTA_FAC * VaccinationDataInterpretation.GERMAN_POPULATION);
+		int vaccinationGoalThird = (int) (1.0 / 3 * vaccinationGoal);
+
+		// a third of the goal on the first day, nothing after
+		interpretation = getInterpretationFor(
+				new VaccinationDataRowMockBuilder().with(DATE, daysAgo(2)).with(SHOTS_TODAY_FIRST, vaccinationGoalThird)
+						.with(PERSONS_TOTAL_FIRST, vaccinationGoalThird).get(),
+				new VaccinationDataRowMockBuilder().with(DATE, daysAgo(1)).with(SHOTS_TODAY_FIRST, 0)
+						.with(PERSONS_TOTAL_FIRST, vaccinationGoalThird).get());
+
+		assertEquals(daysAgo(2).plusDays(2),
+				interpretation.getOneShotPopQuotaVaccinatedEstimation(POP_QUOTA_FAC, 7, daysAgo(2)));
+		assertEquals(daysAgo(1).plusDays(4),
+				interpretation.getOneShotPopQuotaVaccinatedEstimation(POP_QUOTA_FAC, 7, daysAgo(1)));
+		assertEquals(interpretation.getOneShotPopQuotaVaccinatedEstimation(POP_QUOTA_FAC),
+				interpretation.getOneShotPopQuotaVaccinatedEstimation(POP_QUOTA_FAC,
+						VaccinationDataInterpretation.MOVING_AVERAGE_DAY_COUNT, daysAgo(1)));
+	}
+
 	@Test
 	public void getOptimisticOneShotHerdImmunityWorks() {
 
@@ -400,6 +467,21 @@ public class VaccinationDataInterpretationTest {
 		assertEquals(100 + 150, summaries.get(1).getTotalFirstDoses());
 
 	}
+
+	@Test
+	public void weeksAreRankedByDoses() {
+
+		interpretation = getInterpretationFor(
+				new VaccinationDataRowMockBuilder().with(DATE, LocalDate.of(2021, 1, 4)).with(SHOTS_TODAY, 100).with(SHOTS_TODAY_FIRST, 50).get(),
+				new VaccinationDataRowMockBuilder().with(DATE, LocalDate.of(2021, 1, 11)).with(SHOTS_TODAY, 200).with(SHOTS_TODAY_FIRST, 100).get(),
+				new VaccinationDataRowMockBuilder().with(DATE, LocalDate.of(2021, 1, 12)).with(SHOTS_TODAY, 300).with(SHOTS_TODAY_FIRST, 150).get(),
+				new VaccinationDataRowMockBuilder().with(DATE, LocalDate.of(2021, 1, 25)).with(SHOTS_TODAY, 400).with(SHOTS_TODAY_FIRST, 200).get());
+
+		assertEquals(2, interpretation.getLatestWeekRanking());
+		assertEquals(LocalDate.of(2021, 1, 11), interpretation.getBestWeek().getWeekdayMonday());
+		assertEquals(200 + 300, interpretation.getBestWeek().getTotalDoses());
+
+	}
 	
 
 	private LocalDate daysAgo(int n) {
@@ -435,12 +517,12 @@ public class VaccinationDataInterpretationTest {
 		}
 
 		public VaccinationDataRow get() {
-			StringBuilder headers = new StringBuilder();
-			StringBuilder row = new StringBuilder();
+			StringJoiner headers = new StringJoiner("\t");
+			StringJoiner row = new StringJoiner("\t");
 
 			fields.forEach((header, value) -> {
-				headers.append(header + " ");
-				row.append(value + " ");
+				headers.add(header);
+				row.add(value);
 			});
 
 			return new VaccinationDataRow(row.toString(), headers.toString());
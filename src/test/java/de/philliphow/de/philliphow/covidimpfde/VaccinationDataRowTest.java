@@ -1,6 +1,7 @@
 package de.philliphow.de.philliphow.covidimpfde;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
 import de.philliphow.covidimpfde.api.models.Vaccine;
 
 public class VaccinationDataRowTest {
@@ -19,8 +21,8 @@ public class VaccinationDataRowTest {
 	@BeforeEach
 	public void setUp() {
 		example = new VaccinationDataRow(
-				"2021-04-14	20049936	738501	662711	75790	14854474	1062422	4133040	14773908	5276028	0.178	0.063	7644926	5826686	1124640	1761928	4910112	4346229	944820	1001588	2734814	1480457	179820	760340 45000 55000",
-				"date	dosen_kumulativ	dosen_differenz_zum_vortag	dosen_erst_differenz_zum_vortag	dosen_zweit_differenz_zum_vortag	dosen_biontech_kumulativ	dosen_moderna_kumulativ	dosen_astra_kumulativ	personen_erst_kumulativ	personen_voll_kumulativ	impf_quote_erst	impf_quote_voll	indikation_alter_dosen	indikation_beruf_dosen	indikation_medizinisch_dosen	indikation_pflegeheim_dosen	indikation_alter_erst	indikation_beruf_erst	indikation_medizinisch_erst	indikation_pflegeheim_erst	indikation_alter_voll	indikation_beruf_voll	indikation_medizinisch_voll	indikation_pflegeheim_voll dosen_dritt_differenz_zum_vortag personen_auffrisch_kumulativ");
+				"2021-04-14	20049936	738501	662711	75790	14854474	1062422	4133040	14773908	5276028	0.178	0.063	7644926	5826686	1124640	1761928	4910112	4346229	944820	1001588	2734814	1480457	179820	760340	45000	55000",
+				"date	dosen_kumulativ	dosen_differenz_zum_vortag	dosen_erst_differenz_zum_vortag	dosen_zweit_differenz_zum_vortag	dosen_biontech_kumulativ	dosen_moderna_kumulativ	dosen_astra_kumulativ	personen_erst_kumulativ	personen_voll_kumulativ	impf_quote_erst	impf_quote_voll	indikation_alter_dosen	indikation_beruf_dosen	indikation_medizinisch_dosen	indikation_pflegeheim_dosen	indikation_alter_erst	indikation_beruf_erst	indikation_medizinisch_erst	indikation_pflegeheim_erst	indikation_alter_voll	indikation_beruf_voll	indikation_medizinisch_voll	indikation_pflegeheim_voll	dosen_dritt_differenz_zum_vortag	personen_auffrisch_kumulativ");
 
 	}
 
@@ -109,11 +111,26 @@ public class VaccinationDataRowTest {
 	@Test
 	public void newFieldDoesNotBreakConstruction() {
 		VaccinationDataRow exampleWithNewField = new VaccinationDataRow(
-				"2021-04-14	NEWFIELD	 20049936	738501	662711	75790	14854474	1062422	4133040	14773908	5276028	0.178	0.063	7644926	5826686	1124640	1761928	4910112	4346229	944820	1001588	2734814	1480457	179820	760340 45000 55000",
-				"date	NEWFIELDVALUE dosen_kumulativ	dosen_differenz_zum_vortag	dosen_erst_differenz_zum_vortag	dosen_zweit_differenz_zum_vortag	dosen_biontech_kumulativ	dosen_moderna_kumulativ	dosen_astra_kumulativ	personen_erst_kumulativ	personen_voll_kumulativ	impf_quote_erst	impf_quote_voll	indikation_alter_dosen	indikation_beruf_dosen	indikation_medizinisch_dosen	indikation_pflegeheim_dosen	indikation_alter_erst	indikation_beruf_erst	indikation_medizinisch_erst	indikation_pflegeheim_erst	indikation_alter_voll	indikation_beruf_voll	indikation_medizinisch_voll	indikation_pflegeheim_voll dosen_dritt_differenz_zum_vortag personen_auffrisch_kumulativ");
+				"2021-04-14	NEWFIELD	20049936	738501	662711	75790	14854474	1062422	4133040	14773908	5276028	0.178	0.063	7644926	5826686	1124640	1761928	4910112	4346229	944820	1001588	2734814	1480457	179820	760340	45000	55000",
+				"date	NEWFIELDVALUE	dosen_kumulativ	dosen_differenz_zum_vortag	dosen_erst_differenz_zum_vortag	dosen_zweit_differenz_zum_vortag	dosen_biontech_kumulativ	dosen_moderna_kumulativ	dosen_astra_kumulativ	personen_erst_kumulativ	personen_voll_kumulativ	impf_quote_erst	impf_quote_voll	indikation_alter_dosen	indikation_beruf_dosen	indikation_medizinisch_dosen	indikation_pflegeheim_dosen	indikation_alter_erst	indikation_beruf_erst	indikation_medizinisch_erst	indikation_pflegeheim_erst	indikation_alter_voll	indikation_beruf_voll	indikation_medizinisch_voll	indikation_pflegeheim_voll	dosen_dritt_differenz_zum_vortag	personen_auffrisch_kumulativ");
 		assertEquals(example, exampleWithNewField);
 	}
 
+	@Test
+	public void missingFieldIsDetected() {
+		VaccinationDataRow olderRow = new VaccinationDataRow("2021-04-14\t20049936\t738501",
+				"date\tdosen_kumulativ\tdosen_differenz_zum_vortag");
+
+		assertTrue(olderRow.hasField(VaccinationsDataField.SHOTS_TODAY));
+		assertFalse(olderRow.hasField(VaccinationsDataField.SHOTS_TODAY_THIRD));
+		Assertions.assertThrows(IllegalStateException.class, () -> olderRow.getThirdShotsToday());
+	}
+
+	@Test
+	public void dateIsDecodedToEpochDay() {
+		assertEquals(LocalDate.of(2021, 4, 14).toEpochDay(), example.getEpochDay());
+	}
+
 	@Test
 	public void equalsWork() {
 		assertTrue(example.equals(example));
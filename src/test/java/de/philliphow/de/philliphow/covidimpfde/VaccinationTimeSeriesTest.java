@@ -0,0 +1,122 @@
+package de.philliphow.de.philliphow.covidimpfde;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow.VaccinationsDataField;
+import de.philliphow.covidimpfde.api.models.VaccinationTimeSeries;
+import de.philliphow.covidimpfde.api.models.WeeklySummary;
+
+public class VaccinationTimeSeriesTest {
+
+	private static final String HEADER = "date\tdosen_kumulativ\tdosen_differenz_zum_vortag\timpf_quote_erst";
+	private static final String HEADER_WITH_FIRST_SHOTS = "date\tdosen_differenz_zum_vortag\tdosen_erst_differenz_zum_vortag";
+
+	List<VaccinationDataRow> rows;
+	VaccinationTimeSeries example;
+
+	@BeforeEach
+	public void setUp() {
+		rows = new ArrayList<>();
+		rows.add(new VaccinationDataRow("2021-04-12\t100\t100\t0.001", HEADER));
+		rows.add(new VaccinationDataRow("2021-04-13\t300\t200\t0.002", HEADER));
+		rows.add(new VaccinationDataRow("2021-04-14\t600\t300\t0.004", HEADER));
+		example = VaccinationTimeSeries.from(rows);
+	}
+
+	@Test
+	public void columnsHoldTheRowValues() {
+		assertEquals(3, example.size());
+		assertEquals(LocalDate.of(2021, 4, 13), example.getDate(1));
+		assertEquals(600, example.getInt(VaccinationsDataField.SHOTS_TOTAL, 2));
+		assertEquals(200, example.getInt(VaccinationsDataField.SHOTS_TODAY, 1));
+		assertEquals(0.004, example.getDecimal(VaccinationsDataField.POPULATION_QUOTA_FIRST_SHOT, 2), 1e-9);
+		assertSame(rows.get(2), example.getRow(2));
+	}
+
+	@Test
+	public void missingFieldIsNotAvailable() {
+		assertTrue(example.hasField(VaccinationsDataField.SHOTS_TODAY));
+		assertFalse(example.hasField(VaccinationsDataField.SHOTS_TODAY_FIRST));
+		assertThrows(IllegalStateException.class, () -> example.getInt(VaccinationsDataField.SHOTS_TODAY_FIRST, 0));
+	}
+
+	@Test
+	public void daysAreFoundByDate() {
+		assertEquals(0, example.indexOf(LocalDate.of(2021, 4, 12)));
+		assertEquals(2, example.indexOf(LocalDate.of(2021, 4, 14)));
+		assertEquals(-1, example.indexOf(LocalDate.of(2021, 4, 15)));
+	}
+
+	@Test
+	public void viewEndsAtDate() {
+		VaccinationTimeSeries view = example.upTo(LocalDate.of(2021, 4, 13));
+
+		assertEquals(2, view.size());
+		assertEquals(300, view.getInt(VaccinationsDataField.SHOTS_TOTAL, 1));
+		assertThrows(IndexOutOfBoundsException.class, () -> view.getInt(VaccinationsDataField.SHOTS_TOTAL, 2));
+		assertEquals(2, view.getRows(0, view.size()).size());
+		assertSame(example, example.upTo(LocalDate.of(2021, 5, 1)));
+		assertEquals(0, example.upTo(LocalDate.of(2021, 4, 1)).size());
+	}
+
+	@Test
+	public void rangesAreSummedUp() {
+		assertEquals(100 + 200 + 300, example.getSum(VaccinationsDataField.SHOTS_TODAY, 0, 3));
+		assertEquals(200, example.getSum(VaccinationsDataField.SHOTS_TODAY, 1, 2));
+		assertEquals(0, example.getSum(VaccinationsDataField.SHOTS_TODAY, 2, 2));
+		assertEquals(100 + 200, example.upTo(LocalDate.of(2021, 4, 13)).getSum(VaccinationsDataField.SHOTS_TODAY, 0, 2));
+		assertThrows(IndexOutOfBoundsException.class,
+				() -> example.upTo(LocalDate.of(2021, 4, 13)).getSum(VaccinationsDataField.SHOTS_TODAY, 0, 3));
+		assertThrows(IllegalStateException.class, () -> example.getSum(VaccinationsDataField.SHOTS_TODAY_FIRST, 0, 1));
+	}
+
+	@Test
+	public void appendedDaysExtendThePreviousSeries() {
+		List<VaccinationDataRow> days = new ArrayList<>();
+		LocalDate date = LocalDate.of(2021, 4, 8);
+		for (int day = 0; day < 12; day++)
+			days.add(new VaccinationDataRow(date.plusDays(day) + "\t" + (day + 1) * 10 + "\t" + (day + 1), HEADER_WITH_FIRST_SHOTS));
+
+		VaccinationTimeSeries previous = VaccinationTimeSeries.from(days.subList(0, 5), 1, null);
+		List<WeeklySummary> previousWeeks = previous.getWeeklyAggregation().getWeeks();
+		assertEquals(1, previous.getRank(VaccinationsDataField.SHOTS_TODAY, 4));
+		VaccinationTimeSeries extended = VaccinationTimeSeries.from(days, 2, previous);
+		VaccinationTimeSeries fresh = VaccinationTimeSeries.from(days);
+
+		assertEquals(2, extended.getVersion());
+		assertEquals(12, extended.size());
+		assertEquals(fresh.getSum(VaccinationsDataField.SHOTS_TODAY, 0, 12),
+				extended.getSum(VaccinationsDataField.SHOTS_TODAY, 0, 12));
+		assertEquals(weeksOf(fresh), weeksOf(extended));
+		for (int day = 0; day < 12; day++)
+			assertEquals(fresh.getRank(VaccinationsDataField.SHOTS_TODAY, day),
+					extended.getRank(VaccinationsDataField.SHOTS_TODAY, day));
+		assertEquals(1, previous.getRank(VaccinationsDataField.SHOTS_TODAY, 4));
+		assertEquals(2, previousWeeks.size());
+		assertEquals(2, previous.getWeeklyAggregation().getWeekCount());
+
+		List<VaccinationDataRow> changed = new ArrayList<>(days);
+		changed.set(2, new VaccinationDataRow("2021-04-10\t1000\t100", HEADER_WITH_FIRST_SHOTS));
+		assertEquals(weeksOf(VaccinationTimeSeries.from(changed)), weeksOf(VaccinationTimeSeries.from(changed, 3, previous)));
+	}
+
+	private static String weeksOf(VaccinationTimeSeries timeSeries) {
+		StringBuilder sb = new StringBuilder();
+		timeSeries.getWeeklyAggregation().getWeeks().forEach(week -> sb.append(week.getCalendarWeekNumber()).append(':')
+				.append(week.getTotalDoses()).append('/').append(week.getTotalFirstDoses()).append(' '));
+		return sb.toString();
+	}
+
+}
@@ -1,10 +1,15 @@
 package de.philliphow.de.philliphow.covidimpfde;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import de.philliphow.covidimpfde.api.DeliveryApiManager;
@@ -13,6 +18,11 @@ import de.philliphow.covidimpfde.exceptions.ImpfDashboardApiException;
 
 public class VaccineTest {
 
+	@AfterEach
+	public void tearDown() {
+		Vaccine.forgetUnknownVaccines();
+	}
+
 	@Test
 	public void everyVaccineInCurrentDeliveryDataExistsInCode() throws ImpfDashboardApiException {
 
@@ -45,4 +55,31 @@ public class VaccineTest {
 		});
 	}
 
+	@Test
+	public void vaccinesAreRegisteredWithDenseIds() {
+		assertSame(Vaccine.getAll(), Vaccine.getAll());
+		for (int id = 0; id < Vaccine.getAll().size(); id++) {
+			assertEquals(id, Vaccine.getAll().get(id).getId());
+			assertSame(Vaccine.getAll().get(id), Vaccine.byId(id));
+		}
+		assertSame(Vaccine.getAll().get(1), Vaccine.byDeliveryDataIdentifier("comirnaty"));
+	}
+
+	@Test
+	public void unknownVaccinesAreRegisteredOnce() {
+		int registeredCount = Vaccine.getRegisteredCount();
+		Vaccine newVaccine = Vaccine.byDeliveryDataIdentifier("registryTestVaccine");
+
+		assertSame(newVaccine, Vaccine.byDeliveryDataIdentifier("registryTestVaccine"));
+		assertEquals(registeredCount, newVaccine.getId());
+		assertEquals(registeredCount + 1, Vaccine.getRegisteredCount());
+		assertSame(newVaccine, Vaccine.byId(newVaccine.getId()));
+		assertNull(newVaccine.getVaccinationsDataField());
+		assertFalse(Vaccine.getAll().contains(newVaccine));
+
+		Vaccine.forgetUnknownVaccines();
+		assertEquals(Vaccine.getAll().size(), Vaccine.getRegisteredCount());
+		assertNotSame(newVaccine, Vaccine.byDeliveryDataIdentifier("registryTestVaccine"));
+	}
+
 }
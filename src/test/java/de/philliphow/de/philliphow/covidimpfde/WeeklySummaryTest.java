@@ -10,6 +10,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+import de.philliphow.covidimpfde.api.models.WeeklyAggregation;
 import de.philliphow.covidimpfde.api.models.WeeklySummary;
 
 public class WeeklySummaryTest {
@@ -27,12 +28,12 @@ public class WeeklySummaryTest {
 		dataRowExample = new ArrayList<>();
 
 		// KW 14
-		dataRowExample.add(new VaccinationDataRow("2021-04-10 50 25", "date dosen_differenz_zum_vortag dosen_erst_differenz_zum_vortag"));
-		dataRowExample.add(new VaccinationDataRow("2021-04-11 100 50", "date dosen_differenz_zum_vortag dosen_erst_differenz_zum_vortag"));
+		dataRowExample.add(new VaccinationDataRow("2021-04-10\t50\t25", "date\tdosen_differenz_zum_vortag\tdosen_erst_differenz_zum_vortag"));
+		dataRowExample.add(new VaccinationDataRow("2021-04-11\t100\t50", "date\tdosen_differenz_zum_vortag\tdosen_erst_differenz_zum_vortag"));
 		// KW 15
-		dataRowExample.add(new VaccinationDataRow("2021-04-12 200 100", "date dosen_differenz_zum_vortag dosen_erst_differenz_zum_vortag"));
-		dataRowExample.add(new VaccinationDataRow("2021-04-13 300 150", "date dosen_differenz_zum_vortag dosen_erst_differenz_zum_vortag"));
-		dataRowExample.add(new VaccinationDataRow("2021-04-14 400 200", "date dosen_differenz_zum_vortag dosen_erst_differenz_zum_vortag"));
+		dataRowExample.add(new VaccinationDataRow("2021-04-12\t200\t100", "date\tdosen_differenz_zum_vortag\tdosen_erst_differenz_zum_vortag"));
+		dataRowExample.add(new VaccinationDataRow("2021-04-13\t300\t150", "date\tdosen_differenz_zum_vortag\tdosen_erst_differenz_zum_vortag"));
+		dataRowExample.add(new VaccinationDataRow("2021-04-14\t400\t200", "date\tdosen_differenz_zum_vortag\tdosen_erst_differenz_zum_vortag"));
 	}
 
 	@Test
@@ -53,4 +54,26 @@ public class WeeklySummaryTest {
 		assertEquals(LocalDate.of(2021, 4, 12), kw15_2021.getWeekdayMonday());
 	}
 
+	@Test
+	public void weeksAreAggregatedIncrementally() {
+		WeeklyAggregation aggregation = new WeeklyAggregation(1);
+		aggregation.addDay((int) LocalDate.of(2021, 4, 12).toEpochDay(), 200, 100);
+		aggregation.addDay((int) LocalDate.of(2021, 4, 26).toEpochDay(), 600, 300);
+		// earlier week, added late
+		aggregation.addDay((int) LocalDate.of(2021, 4, 11).toEpochDay(), 100, 50);
+
+		List<WeeklySummary> lastTwoWeeks = aggregation.getLastNWeeks(2);
+		assertEquals(2, lastTwoWeeks.size());
+		assertEquals(LocalDate.of(2021, 4, 26), lastTwoWeeks.get(0).getWeekdayMonday());
+		// the week without data is left out
+		assertEquals(LocalDate.of(2021, 4, 12), lastTwoWeeks.get(1).getWeekdayMonday());
+
+		aggregation.addDay((int) LocalDate.of(2021, 4, 27).toEpochDay(), 400, 200);
+		assertEquals(3, aggregation.getWeekCount());
+		assertEquals(LocalDate.of(2021, 4, 5), aggregation.getWeek(0).getWeekdayMonday());
+		assertEquals(100, aggregation.getWeek(0).getTotalDoses());
+		assertEquals(1000, aggregation.getLastNWeeks(1).get(0).getTotalDoses());
+		assertEquals(500, aggregation.getLastNWeeks(1).get(0).getTotalFirstDoses());
+	}
+
 }
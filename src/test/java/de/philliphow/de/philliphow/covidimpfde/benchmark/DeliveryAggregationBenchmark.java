@@ -0,0 +1,106 @@
+package de.philliphow.de.philliphow.covidimpfde.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.philliphow.covidimpfde.api.DeliveryApiManager;
+import de.philliphow.covidimpfde.api.TsvSchema;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
+import de.philliphow.covidimpfde.api.models.DeliveryDataRow;
+
+/**
+ * Measures accumulating local deliveries to federal deliveries. Compares the
+ * {@link de.philliphow.covidimpfde.api.DeliveryAggregator} used by
+ * {@link DeliveryApiManager} against grouping the rows by String keys with
+ * {@code Collectors.groupingBy} and combining them with
+ * {@code DeliveryDataRow.combineDeliveryParts}, as {@link DeliveryApiManager}
+ * used to do.
+ * 
+ * The synthetic file delivers every vaccine to every region on every day over
+ * multiple years.
+ * 
+ * Run with the main method, or with the JMH runner of your IDE.
+ * 
+ * @author PhillipHow
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeliveryAggregationBenchmark {
+
+	@Param({ "3" })
+	private int years;
+
+	private List<DeliveryDataRow> localDeliveries;
+
+	@Setup
+	public void generateDeliveryFile() {
+		int regions = SyntheticTsvData.REGIONS.length;
+		int vaccines = SyntheticTsvData.VACCINES.length;
+		Scanner lines = new Scanner(SyntheticTsvData.deliveries(years * 365 * regions * vaccines, regions, vaccines));
+		TsvSchema schema = TsvSchema.fromHeaderLine(lines.nextLine());
+		TsvTokenizer tokenizer = new TsvTokenizer();
+		localDeliveries = new ArrayList<>();
+
+		while (lines.hasNextLine()) {
+			localDeliveries.add(new DeliveryDataRow(tokenizer.tokenize(lines.nextLine()), schema));
+		}
+		lines.close();
+	}
+
+	@Benchmark
+	public List<DeliveryDataRow> packedKeyAggregation() {
+		return DeliveryApiManager.toFederalDeliveries(localDeliveries);
+	}
+
+	@Benchmark
+	public List<DeliveryDataRow> groupingByStringKeys() {
+		Map<String, List<DeliveryDataRow>> localDeliveriesGroupedByFederalDelivery = localDeliveries.stream()
+				.filter(delivery -> delivery.getDoses() > 0)
+				.collect(Collectors.groupingBy(e -> e.getCalendarWeekMonday() + "/" + e.getVaccineIdentifier()));
+
+		List<DeliveryDataRow> federalDeliveries = new ArrayList<>();
+		localDeliveriesGroupedByFederalDelivery.forEach((key, deliveryParts) -> {
+			LocalDate deliveryDate = deliveryParts.get(0).getCalendarWeekMonday();
+			String deliveryVaccine = deliveryParts.get(0).getVaccineIdentifier();
+
+			DeliveryDataRow deliveryPartsAccumulated = new DeliveryDataRow(deliveryDate, deliveryVaccine, "DE", 0);
+			for (DeliveryDataRow deliveryPart : deliveryParts) {
+				deliveryPartsAccumulated = DeliveryDataRow.combineDeliveryParts(deliveryPartsAccumulated, deliveryPart);
+			}
+			federalDeliveries.add(deliveryPartsAccumulated);
+		});
+
+		federalDeliveries.sort((d1, d2) -> d1.getCalendarWeekMonday().compareTo(d2.getCalendarWeekMonday()));
+		return federalDeliveries;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DeliveryAggregationBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
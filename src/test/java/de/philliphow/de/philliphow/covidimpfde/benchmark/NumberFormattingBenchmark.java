@@ -0,0 +1,132 @@
+package de.philliphow.de.philliphow.covidimpfde.benchmark;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.philliphow.covidimpfde.strings.StrUtil;
+
+/**
+ * Measures formatting the numbers and percentages of one batch of update
+ * messages. The values cover the range used in the messages: daily doses in
+ * the thousands, totals in the millions up to more than the population,
+ * negative differences and shares between 0 and 1. Compares {@link StrUtil}
+ * against creating a new {@link NumberFormat} on every call, as it used to do.
+ *
+ * Run with the main method, or with the JMH runner of your IDE.
+ *
+ * @author PhillipHow
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NumberFormattingBenchmark {
+
+	private static final int VALUES = 1000;
+
+	private int[] numbers;
+	private double[] shares;
+
+	@Setup
+	public void generateValues() {
+		Random random = new Random(42);
+		numbers = new int[VALUES];
+		shares = new double[VALUES];
+
+		for (int i = 0; i < VALUES; i++) {
+			switch (i % 4) {
+			case 0:
+				numbers[i] = random.nextInt(1000);
+				break;
+			case 1:
+				numbers[i] = random.nextInt(1000000);
+				break;
+			case 2:
+				numbers[i] = random.nextInt(200000000);
+				break;
+			default:
+				numbers[i] = -random.nextInt(2000000);
+			}
+			shares[i] = random.nextDouble();
+		}
+	}
+
+	@Benchmark
+	public long cachedFormats() {
+		long length = 0;
+		for (int i = 0; i < VALUES; i++) {
+			length += StrUtil.number(numbers[i]).length();
+			length += StrUtil.percent(shares[i]).length();
+		}
+		return length;
+	}
+
+	@Benchmark
+	public long cachedFormatsIntoBuilder() {
+		StringBuilder sb = new StringBuilder(VALUES * 16);
+		for (int i = 0; i < VALUES; i++) {
+			StrUtil.appendNumber(sb, numbers[i]).append(' ');
+			StrUtil.appendPercent(sb, shares[i]).append(' ');
+		}
+		return sb.length();
+	}
+
+	@Benchmark
+	public long newFormatPerCall() {
+		long length = 0;
+		for (int i = 0; i < VALUES; i++) {
+			length += number(numbers[i]).length();
+			length += percent(shares[i]).length();
+		}
+		return length;
+	}
+
+	private static String number(int num) {
+		return ((num < 0) ? "-" : "") + shortNumber(Math.abs(num));
+	}
+
+	private static String shortNumber(int num) {
+		if (num < 1000)
+			return formatWithDecimals(0).format(1.0 * num);
+
+		if (num < 1000000)
+			return formatWithDecimals(0).format(1.0 * num / 1000) + "K";
+
+		return formatWithDecimals(2).format(1.0 * num / 1000000) + "M";
+	}
+
+	private static String percent(double num) {
+		return formatWithDecimals(2).format(num * 100) + "%";
+	}
+
+	private static NumberFormat formatWithDecimals(int decimals) {
+		NumberFormat formatter = NumberFormat.getInstance(Locale.GERMAN);
+		formatter.setGroupingUsed(true);
+		formatter.setMaximumFractionDigits(decimals);
+		return formatter;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(NumberFormattingBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,100 @@
+package de.philliphow.de.philliphow.covidimpfde.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Generates synthetic tsv files in the format of the impfdashboard.de data, to
+ * benchmark with more data than the real files contain.
+ * 
+ * @author PhillipHow
+ *
+ */
+public class SyntheticTsvData {
+
+	public static final String DELIVERY_HEADER = "date\timpfstoff\tregion\tdosen";
+
+	public static final String VACCINATION_HEADER = "date\tdosen_kumulativ\tdosen_differenz_zum_vortag"
+			+ "\tdosen_erst_differenz_zum_vortag\tdosen_zweit_differenz_zum_vortag\tdosen_dritt_differenz_zum_vortag"
+			+ "\tdosen_biontech_kumulativ\tdosen_moderna_kumulativ\tdosen_astra_kumulativ\tdosen_johnson_kumulativ"
+			+ "\tpersonen_erst_kumulativ\tpersonen_voll_kumulativ\tpersonen_auffrisch_kumulativ"
+			+ "\timpf_quote_erst\timpf_quote_voll";
+
+	public static final String[] REGIONS = { "DE-BW", "DE-BY", "DE-BE", "DE-BB", "DE-HB", "DE-HH", "DE-HE", "DE-MV",
+			"DE-NI", "DE-NW", "DE-RP", "DE-SL", "DE-SN", "DE-ST", "DE-SH", "DE-TH" };
+
+	public static final String[] VACCINES = { "comirnaty", "moderna", "astra", "johnson", "novavax", "valneva",
+			"sanofi", "curevac", "sputnik", "comirnaty_kinder" };
+
+	private static final LocalDate FIRST_DELIVERY = LocalDate.of(2020, 12, 26);
+
+	/**
+	 * Generates a delivery tsv file, one delivery per region, vaccine and day,
+	 * ordered by date.
+	 * 
+	 * @param rows     number of data rows
+	 * @param regions  number of regions to deliver to, at most
+	 *                 {@code REGIONS.length}
+	 * @param vaccines number of vaccines to deliver, at most
+	 *                 {@code VACCINES.length}
+	 * @return the file as String, including the header line
+	 */
+	public static String deliveries(int rows, int regions, int vaccines) {
+		Random random = new Random(42);
+		StringBuilder file = new StringBuilder(rows * 32);
+		file.append(DELIVERY_HEADER).append('\n');
+
+		for (int row = 0; row < rows; row++) {
+			int combination = row % (regions * vaccines);
+			LocalDate date = FIRST_DELIVERY.plusDays(row / (regions * vaccines));
+
+			file.append(date).append('\t');
+			file.append(VACCINES[combination % vaccines]).append('\t');
+			file.append(REGIONS[combination / vaccines]).append('\t');
+			file.append(random.nextInt(200000)).append('\n');
+		}
+		return file.toString();
+	}
+
+	/**
+	 * Generates a vaccination tsv file, one row per day.
+	 * 
+	 * @param days number of data rows
+	 * @return the file as String, including the header line
+	 */
+	public static String vaccinations(int days) {
+		Random random = new Random(42);
+		StringBuilder file = new StringBuilder(days * 128);
+		file.append(VACCINATION_HEADER).append('\n');
+
+		long total = 0, first = 0, second = 0, third = 0;
+		long[] byVaccine = new long[4];
+		for (int day = 0; day < days; day++) {
+			int firstToday = random.nextInt(400000);
+			int secondToday = random.nextInt(300000);
+			int thirdToday = random.nextInt(200000);
+			int today = firstToday + secondToday + thirdToday;
+			total += today;
+			first += firstToday;
+			second += secondToday;
+			third += thirdToday;
+			byVaccine[day % 4] += today;
+
+			file.append(FIRST_DELIVERY.plusDays(day)).append('\t');
+			file.append(total).append('\t').append(today).append('\t');
+			file.append(firstToday).append('\t').append(secondToday).append('\t').append(thirdToday).append('\t');
+			for (long vaccineTotal : byVaccine) {
+				file.append(vaccineTotal).append('\t');
+			}
+			file.append(first).append('\t').append(second).append('\t').append(third).append('\t');
+			file.append(first / 83157201.0).append('\t').append(second / 83157201.0).append('\n');
+		}
+		return file.toString();
+	}
+
+	public static byte[] deliveriesAsBytes(int rows, int regions, int vaccines) {
+		return deliveries(rows, regions, vaccines).getBytes(StandardCharsets.UTF_8);
+	}
+
+}
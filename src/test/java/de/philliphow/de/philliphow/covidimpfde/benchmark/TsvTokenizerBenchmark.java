@@ -0,0 +1,105 @@
+package de.philliphow.de.philliphow.covidimpfde.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.philliphow.covidimpfde.api.TsvStreamReader;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
+
+/**
+ * Compares splitting a synthetic delivery file into fields with a
+ * {@link Scanner} per row and header (as {@code AbstractTsvRow} used to do)
+ * against the byte level {@link TsvTokenizer}. Both variants read every field
+ * and parse the doses.
+ * 
+ * Run with the main method, or with the JMH runner of your IDE.
+ * 
+ * @author PhillipHow
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TsvTokenizerBenchmark {
+
+	@Param({ "1000000" })
+	private int rows;
+
+	private String deliveryFile;
+	private byte[] deliveryFileBytes;
+
+	@Setup
+	public void generateDeliveryFile() {
+		deliveryFile = SyntheticTsvData.deliveries(rows, 16, 10);
+		deliveryFileBytes = SyntheticTsvData.deliveriesAsBytes(rows, 16, 10);
+	}
+
+	@Benchmark
+	public long scannerPerRow() {
+		Scanner lines = new Scanner(deliveryFile);
+		String headerRow = lines.nextLine();
+		long doses = 0;
+
+		while (lines.hasNextLine()) {
+			Scanner scanRow = new Scanner(lines.nextLine());
+			Scanner scanTitle = new Scanner(headerRow);
+			Map<String, String> values = new HashMap<>();
+
+			while (scanTitle.hasNext()) {
+				values.put(scanTitle.next(), scanRow.next());
+			}
+			scanRow.close();
+			scanTitle.close();
+
+			doses += Integer.parseInt(values.get("dosen"));
+		}
+
+		lines.close();
+		return doses;
+	}
+
+	@Benchmark
+	public long tokenizerOnStream(Blackhole blackhole) throws IOException {
+		TsvStreamReader reader = new TsvStreamReader(new ByteArrayInputStream(deliveryFileBytes), 0);
+		TsvTokenizer tokenizer = new TsvTokenizer();
+		reader.readLine(tokenizer);
+		long doses = 0;
+
+		while (reader.readLine(tokenizer)) {
+			blackhole.consume(tokenizer.getFieldStart(0));
+			blackhole.consume(tokenizer.fieldEquals(1, "comirnaty"));
+			blackhole.consume(tokenizer.fieldEquals(2, "DE-BUND"));
+			doses += tokenizer.parseInt(3);
+		}
+
+		return doses;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TsvTokenizerBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,128 @@
+package de.philliphow.de.philliphow.covidimpfde.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.philliphow.covidimpfde.api.TsvSchema;
+import de.philliphow.covidimpfde.api.TsvTokenizer;
+import de.philliphow.covidimpfde.api.models.VaccinationDataRow;
+
+/**
+ * Measures the row accesses done for one vaccination update message: the day
+ * ranking, the best day, the moving average and the weekly summaries. Compares
+ * rows that decode their fields once on construction against rows that parse
+ * their raw String fields on every access, as {@link VaccinationDataRow} used
+ * to do.
+ * 
+ * Run with the main method, or with the JMH runner of your IDE.
+ * 
+ * @author PhillipHow
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VaccinationRowAccessBenchmark {
+
+	@Param({ "1000" })
+	private int days;
+
+	private List<VaccinationDataRow> decodedRows;
+	private List<String[]> rawRows;
+	private TsvSchema schema;
+
+	@Setup
+	public void generateVaccinationFile() {
+		Scanner lines = new Scanner(SyntheticTsvData.vaccinations(days));
+		schema = TsvSchema.fromHeaderLine(lines.nextLine());
+		TsvTokenizer tokenizer = new TsvTokenizer();
+		decodedRows = new ArrayList<>();
+		rawRows = new ArrayList<>();
+
+		while (lines.hasNextLine()) {
+			String line = lines.nextLine();
+			decodedRows.add(new VaccinationDataRow(tokenizer.tokenize(line), schema));
+			rawRows.add(line.split("\t"));
+		}
+		lines.close();
+	}
+
+	@Benchmark
+	public long decodedFields() {
+		VaccinationDataRow latest = decodedRows.get(decodedRows.size() - 1);
+		long result = 0;
+
+		for (VaccinationDataRow row : decodedRows) {
+			if (row.getShotsToday() > latest.getShotsToday())
+				result++;
+		}
+		for (VaccinationDataRow row : decodedRows) {
+			result = Math.max(result, row.getShotsToday());
+		}
+		for (int i = decodedRows.size() - 14; i < decodedRows.size(); i++) {
+			result += decodedRows.get(i).getFirstShotsToday();
+		}
+		Map<LocalDate, Integer> weeks = new TreeMap<>();
+		for (VaccinationDataRow row : decodedRows) {
+			weeks.merge(mondayOf(row.getDate()), row.getShotsToday(), Integer::sum);
+		}
+		return result + weeks.size();
+	}
+
+	@Benchmark
+	public long reparsedFields() {
+		int date = schema.indexOf("date");
+		int shotsToday = schema.indexOf("dosen_differenz_zum_vortag");
+		int firstShotsToday = schema.indexOf("dosen_erst_differenz_zum_vortag");
+		String[] latest = rawRows.get(rawRows.size() - 1);
+		long result = 0;
+
+		for (String[] row : rawRows) {
+			if (Integer.parseInt(row[shotsToday]) > Integer.parseInt(latest[shotsToday]))
+				result++;
+		}
+		for (String[] row : rawRows) {
+			result = Math.max(result, Integer.parseInt(row[shotsToday]));
+		}
+		for (int i = rawRows.size() - 14; i < rawRows.size(); i++) {
+			result += Integer.parseInt(rawRows.get(i)[firstShotsToday]);
+		}
+		Map<LocalDate, Integer> weeks = new TreeMap<>();
+		for (String[] row : rawRows) {
+			weeks.merge(mondayOf(LocalDate.parse(row[date])), Integer.parseInt(row[shotsToday]), Integer::sum);
+		}
+		return result + weeks.size();
+	}
+
+	private static LocalDate mondayOf(LocalDate date) {
+		return date.minusDays(date.getDayOfWeek().getValue() - 1);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(VaccinationRowAccessBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}